@@ -0,0 +1,97 @@
+// Copyright (c) 2022 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/crypto;
+import ballerina/sql;
+
+// The clients are identified by the hashes of their datasources, so that the configurations of the datasources
+// (e.g., the credentials) are not retained as the keys of the map.
+final map<sql:Client> sqlClients = {};
+
+# Returns the `sql:Client` shared by all the persist clients of a datasource. The `sql:Client` is created
+# using the `initializer` when it is requested for the first time, so that the persist clients of a
+# datasource use a single connection pool.
+# Only used by the generated persist clients.
+#
+# + datasource - The configurations, which identify the datasource (e.g., the host, port, user, and database)
+# + initializer - The function used to create the `sql:Client` of the datasource
+# + return - The shared `sql:Client` of the datasource or a `persist:Error` if the client creation fails
+public function getSqlClient(anydata datasource, function () returns sql:Client|sql:Error initializer)
+returns sql:Client|Error {
+    string datasourceKey = getDatasourceKey(datasource);
+    lock {
+        sql:Client? sqlClient = sqlClients[datasourceKey];
+        if sqlClient is sql:Client {
+            return sqlClient;
+        }
+    }
+
+    // The client is created without holding the lock, as creating the connection pool may take a while
+    sql:Client|sql:Error newClient = initializer();
+    if newClient is sql:Error {
+        return <Error>error(newClient.message());
+    }
+    sql:Client? existingClient = ();
+    lock {
+        existingClient = sqlClients[datasourceKey];
+        if existingClient is () {
+            sqlClients[datasourceKey] = newClient;
+        }
+    }
+    if existingClient is () {
+        return newClient;
+    }
+
+    // Another client of the datasource is created concurrently, hence the client created is discarded
+    sql:Error? e = newClient.close();
+    if e is sql:Error {
+        return <Error>error(e.message());
+    }
+    return existingClient;
+}
+
+# Closes all the shared `sql:Client`s and their connection pools. All the clients are closed even if closing
+# some of them fails.
+#
+# + return - `()` if the clients are closed successfully or the `persist:Error` of the first failure
+public function closeSqlClients() returns Error? {
+    Error? firstError = ();
+    lock {
+        foreach [string, sql:Client] [datasourceKey, sqlClient] in sqlClients.entries() {
+            _ = sqlClients.remove(datasourceKey);
+            sql:Error? e = sqlClient.close();
+            if e is sql:Error && firstError is () {
+                firstError = <Error>error(e.message());
+            }
+        }
+    }
+    return firstError;
+}
+
+function getSharedSqlClientKey(sql:Client dbClient) returns string? {
+    lock {
+        foreach [string, sql:Client] [datasourceKey, sqlClient] in sqlClients.entries() {
+            if sqlClient === dbClient {
+                return datasourceKey;
+            }
+        }
+        return ();
+    }
+}
+
+isolated function getDatasourceKey(anydata datasource) returns string {
+    return crypto:hashSha256(datasource.toString().toBytes()).toBase16();
+}
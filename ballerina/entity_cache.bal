@@ -0,0 +1,168 @@
+// Copyright (c) 2022 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/time;
+
+// The caches are shared by all the `SQLClient`s of an entity, which use the same shared `sql:Client`, so that a write
+// through any client of the datasource invalidates the records cached by the others. The caches are identified by the
+// keys of the datasources along with the names of the entities.
+isolated map<EntityCache> entityCaches = {};
+
+isolated function getEntityCache(string? datasourceKey, string entityName, CacheConfig config) returns EntityCache|Error {
+    int capacity = config.capacity;
+    decimal timeToLive = config.timeToLive;
+    // The clients, which do not use a shared `sql:Client`, cannot be identified by their datasources
+    if datasourceKey is () {
+        return new (capacity, timeToLive);
+    }
+    string cacheKey = getEntityCacheKey(datasourceKey, entityName);
+    lock {
+        EntityCache? cache = entityCaches[cacheKey];
+        if cache is EntityCache {
+            if !cache.hasConfig(capacity, timeToLive) {
+                return <Error>error(string `The cache of the '${entityName}' entity is already configured with a different capacity or time to live.`);
+            }
+            return cache;
+        }
+        EntityCache newCache = new (capacity, timeToLive);
+        entityCaches[cacheKey] = newCache;
+        return newCache;
+    }
+}
+
+isolated function findEntityCache(string datasourceKey, string entityName) returns EntityCache? {
+    string cacheKey = getEntityCacheKey(datasourceKey, entityName);
+    lock {
+        return entityCaches[cacheKey];
+    }
+}
+
+isolated function getEntityCacheKey(string datasourceKey, string entityName) returns string {
+    return datasourceKey + ":" + entityName;
+}
+
+type CacheEntry record {|
+    string key;
+    record {} value;
+    decimal expiryTime;
+|};
+
+# A size-bounded cache of the records of an entity, which are read by key. The entries are kept in their access order
+# (as maps retain the insertion order) so that the least recently used entry is the first one.
+# Each invalidation increments the generation of the cache, so that the records read before an invalidation, which
+# may be stale, are not cached afterwards.
+isolated class EntityCache {
+
+    private final int capacity;
+    private final decimal timeToLive;
+    private final map<CacheEntry> entries = {};
+    private int hits = 0;
+    private int misses = 0;
+    private int evictions = 0;
+    private int generation = 0;
+    private decimal nextExpiryCheck;
+
+    isolated function init(int capacity, decimal timeToLive) {
+        self.capacity = capacity;
+        self.timeToLive = timeToLive;
+        self.nextExpiryCheck = time:monotonicNow() + timeToLive;
+    }
+
+    isolated function hasConfig(int capacity, decimal timeToLive) returns boolean {
+        return self.capacity == capacity && self.timeToLive == timeToLive;
+    }
+
+    isolated function getGeneration() returns int {
+        lock {
+            return self.generation;
+        }
+    }
+
+    isolated function get(string key) returns record {}? {
+        lock {
+            CacheEntry? entry = self.entries.removeIfHasKey(key);
+            if entry is () {
+                self.misses += 1;
+                return ();
+            }
+            if entry.expiryTime <= time:monotonicNow() {
+                self.evictions += 1;
+                self.misses += 1;
+                return ();
+            }
+
+            self.entries[key] = entry;
+            self.hits += 1;
+            return entry.value.clone();
+        }
+    }
+
+    isolated function put(string key, record {} value, int generation) {
+        if self.capacity < 1 {
+            return;
+        }
+        lock {
+            // The record is not cached if it was read before an invalidation, as the record may be stale
+            if generation != self.generation {
+                return;
+            }
+            _ = self.entries.removeIfHasKey(key);
+            self.removeExpiredEntries();
+            while self.entries.length() >= self.capacity {
+                record {|CacheEntry value;|}? leastRecentlyUsed = self.entries.iterator().next();
+                if leastRecentlyUsed is () {
+                    break;
+                }
+                _ = self.entries.remove(leastRecentlyUsed.value.key);
+                self.evictions += 1;
+            }
+            self.entries[key] = {key, value: value.clone(), expiryTime: time:monotonicNow() + self.timeToLive};
+        }
+    }
+
+    isolated function invalidate(string[] & readonly keys) {
+        lock {
+            self.generation += 1;
+            foreach string key in keys {
+                _ = self.entries.removeIfHasKey(key);
+            }
+        }
+    }
+
+    isolated function getStats() returns CacheStats {
+        lock {
+            return {hits: self.hits, misses: self.misses, evictions: self.evictions, size: self.entries.length()};
+        }
+    }
+
+    // The entries are not kept in their expiry order, hence the expired entries are removed at most once within
+    // the time to live, so that they do not occupy the cache until they are read.
+    isolated function removeExpiredEntries() {
+        lock {
+            decimal now = time:monotonicNow();
+            if now < self.nextExpiryCheck {
+                return;
+            }
+            foreach CacheEntry entry in self.entries.toArray() {
+                if entry.expiryTime <= now {
+                    _ = self.entries.remove(entry.key);
+                    self.evictions += 1;
+                }
+            }
+            self.nextExpiryCheck = now + self.timeToLive;
+        }
+    }
+}
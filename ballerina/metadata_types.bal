@@ -68,3 +68,53 @@ public enum JoinType {
     ONE,
     MANY
 }
+
+# Represents the configurations of the cache of the records read by key.
+# Only used by the generated persist clients and `persist:SQLClient`.
+#
+# + capacity - The maximum number of records in the cache. The least recently used record is evicted
+#              when the capacity is exceeded
+# + timeToLive - The time (in seconds) for which a cached record is valid
+public type CacheConfig record {|
+    int capacity = 1000;
+    decimal timeToLive = 300;
+|};
+
+# Represents the statistics of the cache of the records read by key.
+#
+# + hits - The number of reads served from the cache
+# + misses - The number of reads, which were not served from the cache
+# + evictions - The number of records evicted from the cache due to the capacity or the time to live
+# + size - The number of records in the cache
+public type CacheStats record {|
+    int hits;
+    int misses;
+    int evictions;
+    int size;
+|};
+
+# Represents the aggregate functions, which are computed by `persist:SQLClient.runAggregateQuery`.
+#
+# + SUM - The sum of the values of a field
+# + COUNT - The number of records, or the number of non-nil values of a field
+# + AVG - The average of the values of a field
+# + MIN - The minimum value of a field
+# + MAX - The maximum value of a field
+public enum AggregateFunction {
+    SUM,
+    COUNT,
+    AVG,
+    MIN,
+    MAX
+}
+
+# Represents an aggregate computed for each group of records.
+#
+# + 'function - The aggregate function
+# + fieldName - The field to be aggregated. The records are counted if the field is not given for `COUNT`
+# + alias - The field of the aggregate rows, which holds the value of the aggregate
+public type AggregateField record {|
+    AggregateFunction 'function;
+    string fieldName?;
+    string alias;
+|};
@@ -16,11 +16,28 @@
 
 import ballerina/sql;
 
+# The default number of records processed by a single batched SQL statement.
+const int DEFAULT_BATCH_SIZE = 1000;
+
+# The prefix of the aliases of the columns used to map the records of a 'many' relation to their parent records.
+const string REF_COLUMN_ALIAS_PREFIX = "__persistRef";
+
+# The alias of the row being inserted, which is used to refer to its values within the `ON DUPLICATE KEY UPDATE`
+# clauses of upserts. Row aliases are supported from MySQL 8.0.19 onwards.
+const string UPSERT_ROW_ALIAS = "__persistNew";
+
+# The separator of the relation name and the column name in the columns of the joined relations (e.g. `company__name`).
+# The columns are not quoted, so that they can be referred to within the filters of advanced queries.
+const string RELATION_COLUMN_SEPARATOR = "__";
+
 # The client used by the generated persist clients to abstract and 
 # execute SQL queries that are required to perform CRUD operations.
 public client class SQLClient {
 
     private final sql:Client dbClient;
+    private final string? datasourceKey;
+    private final boolean isSharedClient;
+    private final EntityCache? cache;
 
     private string entityName;
     private sql:ParameterizedQuery tableName;
@@ -28,6 +45,28 @@ public client class SQLClient {
     private string[] keyFields;
     private map<JoinMetadata> joinMetadata;
 
+    // Static SQL fragments, which are built once in `init` so that each query only needs to bind parameter values
+    private sql:ParameterizedQuery insertQueryPrefix = ``;
+    private sql:ParameterizedQuery upsertQuerySuffix = ``;
+    private sql:ParameterizedQuery insertIfAbsentQuerySuffix = ``;
+    private sql:ParameterizedQuery updateQueryPrefix = ``;
+    private sql:ParameterizedQuery deleteQueryPrefix = ``;
+    private sql:ParameterizedQuery existsQueryPrefix = ``;
+    private sql:ParameterizedQuery countQueryPrefix = ``;
+    private [string, string?][] insertFields = [];
+    private map<string?|map<string?>> & readonly updateColumns = {};
+    private string[] & readonly insertParamStrings = [];
+    private string baseSelectColumns = "";
+    private map<string> relationSelectColumns = {};
+    private map<string> joinClauses = {};
+    // The templates of the combinations of the relations and the fields are built when they are first used,
+    // possibly by concurrent reads, hence the templates are cached and looked up within locks
+    private map<sql:ParameterizedQuery> selectQueries = {};
+    private map<sql:ParameterizedQuery> projectedSelectQueries = {};
+    private map<sql:ParameterizedQuery> manyRelationQueries = {};
+    private string[] & readonly keyWhereStrings = [];
+    private string[] keyColumns = [];
+
     # Initializes the `SQLClient`.
     #
     # + dbClient - The `sql:Client`, which is used to execute SQL queries
@@ -36,15 +75,25 @@ public client class SQLClient {
     # + keyFields - The names of the key fields of the entity
     # + fieldMetadata - The metadata associated with each field of the entity
     # + joinMetadata - The metadata associated with performing SQL `JOIN` operations
+    # + cacheConfig - The configurations of the cache of the records read by key. The records are not cached if `()`.
+    #                 The cache is shared by all the clients of the entity, which use the same shared `sql:Client`.
+    #                 Otherwise, the cache is only used by this client
     # + return - A `persist:Error` if the client creation fails
     public function init(sql:Client dbClient, string entityName, sql:ParameterizedQuery tableName, string[] keyFields, map<FieldMetadata> fieldMetadata,
-                        map<JoinMetadata> joinMetadata = {}) returns Error? {
+                        map<JoinMetadata> joinMetadata = {}, CacheConfig? cacheConfig = ()) returns Error? {
         self.entityName = entityName;
         self.tableName = tableName;
         self.fieldMetadata = fieldMetadata;
         self.keyFields = keyFields;
         self.dbClient = dbClient;
+        self.datasourceKey = getSharedSqlClientKey(dbClient);
+        self.isSharedClient = self.datasourceKey is string;
         self.joinMetadata = joinMetadata;
+        self.cache = cacheConfig is CacheConfig ? check getEntityCache(self.datasourceKey, entityName, cacheConfig) : ();
+
+        self.buildWriteTemplates();
+        self.buildSelectTemplates();
+        check self.buildKeyWhereTemplate();
     }
 
     # Performs an SQL `INSERT` operation to insert a record into a table.
@@ -53,11 +102,7 @@ public client class SQLClient {
     # + return - An `sql:ExecutionResult` containing the metadata of the query execution
     #            or a `persist:Error` if the operation fails
     public isolated function runInsertQuery(record {} 'object) returns sql:ExecutionResult|Error {
-        sql:ParameterizedQuery query = sql:queryConcat(
-            `INSERT INTO `, self.tableName, ` (`,
-            self.getInsertColumnNames(), ` ) `,
-            `VALUES `, self.getInsertQueryParams('object)
-        );
+        sql:ParameterizedQuery query = sql:queryConcat(self.insertQueryPrefix, self.getInsertQueryParams('object));
         sql:ExecutionResult|sql:Error result = self.dbClient->execute(query);
 
         if result is sql:Error {
@@ -70,6 +115,84 @@ public client class SQLClient {
         return result;
     }
 
+    # Performs SQL `INSERT` operations to insert multiple records into a table. The records are inserted
+    # using multi-row `INSERT` statements, each of which contains at most `batchSize` records.
+    # The batches are not executed within a transaction. Hence, the batches executed before a failure are retained.
+    #
+    # + objects - The records to be inserted into the table
+    # + batchSize - The maximum number of records inserted by a single SQL `INSERT` statement
+    # + return - An `sql:ExecutionResult[]` containing the metadata of the query execution of each batch
+    #            or a `persist:Error` if the operation fails
+    public isolated function runBatchInsertQuery(record {}[] objects, int batchSize = DEFAULT_BATCH_SIZE)
+    returns sql:ExecutionResult[]|Error {
+        return self.runBatchQuery(objects, batchSize, ``);
+    }
+
+    # Performs an SQL `INSERT ... ON DUPLICATE KEY UPDATE` operation to insert a record into a table
+    # or to update the existing record with the same key.
+    #
+    # + 'object - The record to be inserted into or updated in the table
+    # + return - An `sql:ExecutionResult` containing the metadata of the query execution
+    #            or a `persist:Error` if the operation fails
+    public isolated function runUpsertQuery(record {} 'object) returns sql:ExecutionResult|Error {
+        sql:ParameterizedQuery query = sql:queryConcat(
+            self.insertQueryPrefix, self.getInsertQueryParams('object), self.upsertQuerySuffix
+        );
+        sql:ExecutionResult|sql:Error result = self.dbClient->execute(query);
+        self.invalidateCache(['object]);
+
+        if result is sql:Error {
+            return <Error>error(result.message());
+        }
+        return result;
+    }
+
+    # Performs SQL `INSERT ... ON DUPLICATE KEY UPDATE` operations to insert multiple records into a table
+    # or to update the existing records with the same keys. The records are upserted using multi-row statements,
+    # each of which contains at most `batchSize` records.
+    # The batches are not executed within a transaction. Hence, the batches executed before a failure are retained.
+    #
+    # + objects - The records to be inserted into or updated in the table
+    # + batchSize - The maximum number of records upserted by a single SQL statement
+    # + return - An `sql:ExecutionResult[]` containing the metadata of the query execution of each batch
+    #            or a `persist:Error` if the operation fails
+    public isolated function runBatchUpsertQuery(record {}[] objects, int batchSize = DEFAULT_BATCH_SIZE)
+    returns sql:ExecutionResult[]|Error {
+        sql:ExecutionResult[]|Error results = self.runBatchQuery(objects, batchSize, self.upsertQuerySuffix);
+        self.invalidateCache(objects);
+        return results;
+    }
+
+    # Performs an SQL `INSERT ... ON DUPLICATE KEY UPDATE` operation to insert a record into a table
+    # unless a record with the same key exists. An existing record is left as it is.
+    #
+    # + 'object - The record to be inserted into the table
+    # + return - An `sql:ExecutionResult` containing the metadata of the query execution
+    #            or a `persist:Error` if the operation fails
+    public isolated function runInsertIfAbsentQuery(record {} 'object) returns sql:ExecutionResult|Error {
+        sql:ParameterizedQuery query = sql:queryConcat(
+            self.insertQueryPrefix, self.getInsertQueryParams('object), self.insertIfAbsentQuerySuffix
+        );
+        sql:ExecutionResult|sql:Error result = self.dbClient->execute(query);
+
+        if result is sql:Error {
+            return <Error>error(result.message());
+        }
+        return result;
+    }
+
+    # Performs SQL `INSERT ... ON DUPLICATE KEY UPDATE` operations to insert multiple records into a table
+    # unless records with the same keys exist. The existing records are left as they are.
+    #
+    # + objects - The records to be inserted into the table
+    # + batchSize - The maximum number of records inserted by a single SQL statement
+    # + return - An `sql:ExecutionResult[]` containing the metadata of the query execution of each batch
+    #            or a `persist:Error` if the operation fails
+    public isolated function runBatchInsertIfAbsentQuery(record {}[] objects, int batchSize = DEFAULT_BATCH_SIZE)
+    returns sql:ExecutionResult[]|Error {
+        return self.runBatchQuery(objects, batchSize, self.insertIfAbsentQuerySuffix);
+    }
+
     # Performs an SQL `SELECT` operation to read a single record from the database.
     #
     # + rowType - The record-type to be retrieved (the record type of the entity)    
@@ -77,19 +200,18 @@ public client class SQLClient {
     # + include - The relations to be retrieved (SQL `JOINs` to be performed)
     # + return - A record in the `rowType` type or a `persist:Error` if the operation fails
     public isolated function runReadByKeyQuery(typedesc<record {}> rowType, anydata key, string[] include = []) returns record {}|Error {
-        sql:ParameterizedQuery query = sql:queryConcat(
-            `SELECT `, self.getSelectColumnNames(include), ` FROM `, self.tableName, ` AS `, stringToParameterizedQuery(self.entityName)
-        );
-
-        foreach string joinKey in self.joinMetadata.keys() {
-            JoinMetadata joinMetadata = self.joinMetadata.get(joinKey);
-            if include.indexOf(joinKey) != () {
-                query = sql:queryConcat(query, ` LEFT JOIN `, stringToParameterizedQuery(joinMetadata.refTable + " " + joinKey),
-                                        ` ON `, check self.getJoinFilters(joinKey, joinMetadata.refFields, <string[]>joinMetadata.joinColumns));
+        // the records with relations are not cached, as they are not invalidated by the writes to the related entities
+        EntityCache? cache = include.length() == 0 ? self.cache : ();
+        int generation = 0;
+        if cache is EntityCache {
+            record {}? cachedRecord = cache.get(self.getCacheKey(key));
+            if cachedRecord is record {} {
+                return cachedRecord;
             }
+            generation = cache.getGeneration();
         }
 
-        query = sql:queryConcat(query, ` WHERE `, check self.getGetKeyWhereClauses(key));
+        sql:ParameterizedQuery query = sql:queryConcat(self.getSelectQuery(include), ` WHERE`, self.getGetKeyWhereClauses(key));
         record {}|sql:Error result = self.dbClient->queryRow(query, rowType);
 
         if result is sql:NoRowsError {
@@ -99,6 +221,9 @@ public client class SQLClient {
 
         if result is record {} {
             check self.getManyRelations(result, include);
+            if cache is EntityCache {
+                cache.put(self.getCacheKey(key), result, generation);
+            }
         }
 
         if result is sql:Error {
@@ -107,57 +232,169 @@ public client class SQLClient {
         return result;
     }
 
-    # Performs an SQL `SELECT` operation to read multiple records from the database.
+    # Performs an SQL `SELECT` operation to read multiple records from the database using their keys.
+    # The records are retrieved using an SQL `IN` predicate for each batch of keys, and the batches are queried
+    # one after another as the stream is consumed. A row-value predicate (`(a, b) IN ((?, ?), ...)`) is used
+    # for entities with composite keys.
     #
-    # + rowType - The record-type to be retrieved (the entity record-type)
+    # + rowType - The record type to be retrieved (the record type of the entity)
+    # + keys - The values of the keys of the records to be retrieved
     # + include - The relations to be retrieved (SQL `JOINs` to be performed)
     # + return - A stream of records in the `rowType` type or a `persist:Error` if the operation fails
-    public isolated function runReadQuery(typedesc<record {}> rowType, string[] include = [])
+    public isolated function runReadByKeysQuery(typedesc<record {}> rowType, anydata[] keys, string[] include = [])
     returns stream<record {}, sql:Error?>|Error {
-        sql:ParameterizedQuery query = sql:queryConcat(
-            `SELECT `, self.getSelectColumnNames(include), ` FROM `, self.tableName, stringToParameterizedQuery(" " + self.entityName)
-        );
+        if keys.length() == 0 {
+            record {}[] noRecords = [];
+            return noRecords.toStream();
+        }
+        if keys.length() <= DEFAULT_BATCH_SIZE {
+            return self.queryByKeys(rowType, keys, include);
+        }
+        return new stream<record {}, sql:Error?>(new KeysBatchStream(self, rowType, keys.clone(), include));
+    }
 
-        string[] joinKeys = self.joinMetadata.keys();
-        foreach string joinKey in joinKeys {
-            if include.indexOf(joinKey) != () {
-                JoinMetadata joinMetadata = self.joinMetadata.get(joinKey);
-                query = sql:queryConcat(query, ` LEFT JOIN `, stringToParameterizedQuery(joinMetadata.refTable + " " + joinKey),
-                                        ` ON `, check self.getJoinFilters(joinKey, joinMetadata.refFields, <string[]>joinMetadata.joinColumns));
-            }
+    # Performs an SQL `SELECT 1 ... LIMIT 1` operation to check whether a record exists in the database.
+    # Only the key columns are used, hence the record and its relations are not retrieved.
+    #
+    # + key - The value of the key (to be used as the `WHERE` clauses)
+    # + return - `true` if a record exists for the key, `false` if not, or a `persist:Error` if the operation fails
+    public isolated function runExistsQuery(anydata key) returns boolean|Error {
+        sql:ParameterizedQuery query = sql:queryConcat(self.existsQueryPrefix, self.getGetKeyWhereClauses(key), ` LIMIT 1`);
+        int|sql:Error result = self.dbClient->queryRow(query);
+
+        if result is sql:NoRowsError {
+            return false;
         }
+        if result is sql:Error {
+            return <Error>error(result.message());
+        }
+        return true;
+    }
 
-        stream<record {}, sql:Error?> resultStream = self.dbClient->query(query, rowType);
-        return resultStream;
+    # Performs an SQL `SELECT` operation to read multiple records from the database.
+    # The included 'many' relations are loaded in batches of records as the stream is consumed.
+    #
+    # + rowType - The record-type to be retrieved (the entity record-type)
+    # + include - The relations to be retrieved (SQL `JOINs` to be performed)
+    # + return - A stream of records in the `rowType` type or a `persist:Error` if the operation fails
+    public isolated function runReadQuery(typedesc<record {}> rowType, string[] include = [])
+    returns stream<record {}, sql:Error?>|Error {
+        stream<record {}, sql:Error?> resultStream = self.dbClient->query(self.getSelectQuery(include), rowType);
+        return self.withManyRelations(resultStream, include);
     }
 
     # Performs an SQL `SELECT` operation to read multiple records from the database when an advanced filter is provided.
+    # The unqualified columns of the filter refer to the columns of the entity, even when relations are included.
+    # The columns of the related entities are referred to as `<relation>__<field>` (e.g. `company__name`)
+    # and the relations referred to by the filter should be given, so that they are joined even if they are not included.
+    # The array values of the filter are expanded into comma-separated values (e.g. `id IN (${ids})`).
     #
     # + filterClause - The filter query to be used in the SQL `WHERE` clauses
     # + rowType - The record type to be retrieved (the record type of the entity)
     # + include - The relations to be retrieved (SQL `JOINs` to be performed)
+    # + fields - The fields to be retrieved (the columns of the SQL `SELECT`). All the fields are retrieved if empty.
+    #            The fields, which are not retrieved, are not populated in the records of the stream
+    # + filterRelations - The relations, whose columns are referred to by the filter
     # + return - A stream of records in the `rowType` type or a `persist:Error` if the operation fails
-    public isolated function runExecuteQuery(sql:ParameterizedQuery filterClause, typedesc<record {}> rowType, string[] include = [])
-    returns stream<record {}, sql:Error?>|Error {
-        if self.joinMetadata.length() != 0 {
-            return <UnsupportedOperationError>error("Advanced queries are not supported for entities with relations.");
+    public isolated function runExecuteQuery(sql:ParameterizedQuery filterClause, typedesc<record {}> rowType, string[] include = [],
+                                             string[] fields = [], string[] filterRelations = []) returns stream<record {}, sql:Error?>|Error {
+        string[] filterJoinKeys = check self.getFilterJoinKeys(filterRelations, include);
+        sql:ParameterizedQuery selectQuery = fields.length() == 0 ? self.getSelectQuery(include, filterJoinKeys)
+            : check self.getProjectedSelectQuery(fields, include, filterJoinKeys);
+        sql:ParameterizedQuery query = sql:queryConcat(selectQuery, expandArrayValues(filterClause));
+        return self.withManyRelations(self.dbClient->query(query, rowType), include);
+    }
+
+    # Performs an SQL `SELECT COUNT(*)` operation to count the records in the database, which match the given filter.
+    # The relations referred to by the filter are joined as in `runExecuteQuery`.
+    #
+    # + filterClause - The filter query to be used in the SQL `WHERE` clauses
+    # + filterRelations - The relations, whose columns are referred to by the filter
+    # + return - The number of matching records or a `persist:Error` if the operation fails
+    public isolated function runCountQuery(sql:ParameterizedQuery filterClause = ``, string[] filterRelations = []) returns int|Error {
+        string joinClauses = "";
+        foreach string joinKey in check self.getFilterJoinKeys(filterRelations, []) {
+            joinClauses += self.joinClauses.get(joinKey);
+        }
+        sql:ParameterizedQuery query = sql:queryConcat(self.countQueryPrefix, stringToParameterizedQuery(joinClauses),
+            expandArrayValues(filterClause));
+        int|sql:Error count = self.dbClient->queryRow(query);
+        if count is sql:Error {
+            return <Error>error(count.message());
+        }
+        return count;
+    }
+
+    # Performs an SQL `SELECT` operation with aggregate functions and a `GROUP BY` clause to aggregate the records
+    # in the database, which match the given filter. A single row is returned for all the matching records
+    # if no group fields are given. The relations referred to by the filter are joined as in `runExecuteQuery`.
+    #
+    # + filterClause - The filter query to be used in the SQL `WHERE` clauses
+    # + aggregates - The aggregates to be computed for each group
+    # + groupFields - The fields by which the records are grouped (the columns of the SQL `GROUP BY`)
+    # + filterRelations - The relations, whose columns are referred to by the filter
+    # + return - A stream of rows, which contain the group fields and the aliases of the aggregates,
+    #            or a `persist:Error` if the operation fails
+    public isolated function runAggregateQuery(sql:ParameterizedQuery filterClause, AggregateField[] aggregates,
+                                               string[] groupFields = [], string[] filterRelations = [])
+                                               returns stream<record {}, Error?>|Error {
+        if aggregates.length() == 0 && groupFields.length() == 0 {
+            return <Error>error("At least one aggregate or group field should be given.");
+        }
+
+        string[] columns = [];
+        string[] groupColumns = [];
+        foreach string fieldName in groupFields {
+            string columnName = self.entityName + "." + check self.getEntityColumnName(fieldName);
+            columns.push(columnName + " AS `" + fieldName + "`");
+            groupColumns.push(columnName);
+        }
+        foreach AggregateField aggregate in aggregates {
+            string? fieldName = aggregate?.fieldName;
+            string argument = "*";
+            if fieldName is string {
+                argument = self.entityName + "." + check self.getEntityColumnName(fieldName);
+            } else if aggregate.'function != COUNT {
+                return <Error>error(string `The field of the aggregate '${aggregate.alias}' is not given.`);
+            }
+            columns.push(aggregate.'function + "(" + argument + ") AS `" + aggregate.alias + "`");
+        }
+
+        string joinClauses = "";
+        foreach string joinKey in check self.getFilterJoinKeys(filterRelations, []) {
+            joinClauses += self.joinClauses.get(joinKey);
         }
-        sql:ParameterizedQuery query = sql:queryConcat(`SELECT `, self.getSelectColumnNames(include), ` FROM `,
-        self.tableName, ` AS `, stringToParameterizedQuery(self.entityName), filterClause);
-        return self.dbClient->query(query, rowType);
+        string groupByClause = groupColumns.length() == 0 ? "" : " GROUP BY " + string:'join(", ", ...groupColumns);
+        sql:ParameterizedQuery query = sql:queryConcat(
+            stringToParameterizedQuery("SELECT " + string:'join(", ", ...columns) + " FROM "), self.tableName,
+            stringToParameterizedQuery(" AS " + self.entityName + joinClauses), expandArrayValues(filterClause),
+            stringToParameterizedQuery(groupByClause)
+        );
+        stream<record {}, sql:Error?> resultStream = self.dbClient->query(query);
+        return new stream<record {}, Error?>(new AggregateStream(resultStream));
     }
 
     # Performs an SQL `UPDATE` operation to update multiple records in the database.
+    # If the `original` record is provided, only the columns whose values differ from the `original` record are updated
+    # and the `UPDATE` is skipped if none of the values are changed. Alternatively, a change-set, which only contains
+    # the key fields and the changed fields, can be provided as the `'object`.
     #
     # + 'object - the record to be updated
+    # + original - the record as it was read from the database, which is used to detect the changed fields
     # + return - `()` if the operation is performed successfully.
     #            A `ForeignKeyConstraintViolationError` if the operation violates a foreign key constraint.
     #            A `persist:Error` if the operation fails due to another reason.
-    public isolated function runUpdateQuery(record {} 'object) returns ForeignKeyConstraintViolationError|Error? {
-        sql:ParameterizedQuery query = sql:queryConcat(`UPDATE `, self.tableName, stringToParameterizedQuery(" " + self.entityName), ` SET`, check self.getSetClauses('object));
-        query = sql:queryConcat(query, ` WHERE`, check self.getWhereClauses(self.getKey('object)));
+    public isolated function runUpdateQuery(record {} 'object, record {}? original = ())
+    returns ForeignKeyConstraintViolationError|Error? {
+        sql:ParameterizedQuery? setClauses = check self.getSetClauses('object, original);
+        if setClauses is () {
+            return;
+        }
+        sql:ParameterizedQuery query = sql:queryConcat(self.updateQueryPrefix, setClauses,
+                                                       ` WHERE`, self.getGetKeyWhereClauses(self.getKey('object)));
 
         sql:ExecutionResult|sql:Error? e = self.dbClient->execute(query);
+        self.invalidateCache(['object]);
         if e is sql:Error {
             if e.message().indexOf("a foreign key constraint fails ") is () {
                 return <Error>error(e.message());
@@ -173,9 +410,9 @@ public client class SQLClient {
     # + 'object - The record to be deleted
     # + return - `()` if the operation is performed successfully or a `persist:Error` if the operation fails
     public isolated function runDeleteQuery(record {} 'object) returns Error? {
-        sql:ParameterizedQuery query = sql:queryConcat(`DELETE FROM `, self.tableName, stringToParameterizedQuery(" " + self.entityName));
-        query = sql:queryConcat(query, ` WHERE`, check self.getWhereClauses(self.getKey('object)));
+        sql:ParameterizedQuery query = sql:queryConcat(self.deleteQueryPrefix, ` WHERE`, self.getGetKeyWhereClauses(self.getKey('object)));
         sql:ExecutionResult|sql:Error e = self.dbClient->execute(query);
+        self.invalidateCache(['object]);
 
         if e is sql:Error {
             return <Error>error(e.message());
@@ -188,47 +425,121 @@ public client class SQLClient {
     # + include - The relations to be retrieved (SQL `JOINs` to be performed)
     # + return - `()` if the operation is performed successfully or a `persist:Error` if the operation fails
     public isolated function getManyRelations(record {} 'object, string[] include) returns Error? {
-        foreach string joinKey in self.joinMetadata.keys() {
-            sql:ParameterizedQuery query = ``;
+        return self.loadManyRelations(['object], include);
+    }
+
+    # Performs an SQL `SELECT` operation to read the records of the given keys using a single SQL `IN` predicate.
+    #
+    # + rowType - The type of the records to be retrieved
+    # + keys - The keys of the records to be retrieved
+    # + include - The relations to be retrieved (SQL `JOINs` to be performed)
+    # + return - A stream of the records of the keys
+    isolated function queryByKeys(typedesc<record {}> rowType, anydata[] keys, string[] include)
+    returns stream<record {}, sql:Error?> {
+        sql:ParameterizedQuery query = sql:queryConcat(self.getSelectQuery(include), ` WHERE`, self.getKeysInClause(keys));
+        return self.withManyRelations(self.dbClient->query(query, rowType), include);
+    }
+
+    # Retrieves the values of the 'many' side of an association for a batch of records.
+    # A single SQL `SELECT` operation is performed for each included relation.
+    #
+    # + objects - The records to which the retrieved records should be appended
+    # + include - The relations to be retrieved
+    # + return - `()` if the operation is performed successfully or a `persist:Error` if the operation fails
+    isolated function loadManyRelations(record {}[] objects, string[] include) returns Error? {
+        if objects.length() == 0 {
+            return;
+        }
+
+        foreach string joinKey in self.manyRelationQueries.keys() {
+            if include.indexOf(joinKey) is () {
+                continue;
+            }
             JoinMetadata joinMetadata = self.joinMetadata.get(joinKey);
 
-            map<string> whereFilter = {};
-            foreach int i in 0 ..< joinMetadata.refFields.length() {
-                whereFilter[joinMetadata.refFields[i]] = 'object[joinMetadata.joinColumns[i]].toBalString();
+            map<sql:Value[]> parentKeys = {};
+            foreach record {} 'object in objects {
+                sql:Value[] refValues = getRefValues('object, joinMetadata.joinColumns);
+                parentKeys[refValues.toString()] = refValues;
             }
 
-            if include.indexOf(joinKey) != () && joinMetadata.'type == MANY {
-                query = sql:queryConcat(`SELECT `, self.getManyRelationColumnNames(joinMetadata.fieldName),
-                                        ` FROM `, stringToParameterizedQuery(joinMetadata.refTable),
-                                        ` WHERE`, check self.getWhereClauses(whereFilter, true)
-                                        );
+            sql:ParameterizedQuery query = sql:queryConcat(
+                self.manyRelationQueries.get(joinKey), getInClause(joinMetadata.refFields, parentKeys.toArray())
+            );
+            stream<record {}, sql:Error?> joinStream = self.dbClient->query(query);
 
-                stream<record {}, sql:Error?> joinStream = self.dbClient->query(query, joinMetadata.entity);
-                record {}[] arr = [];
-                error? e = from record {} item in joinStream
-                    do {
-                        arr.push(check item.cloneWithType(joinMetadata.entity));
-                    };
+            map<record {}[]> relatedRecords = {};
+            error? e = from record {} item in joinStream
+                do {
+                    sql:Value[] refValues = [];
+                    foreach int i in 0 ..< joinMetadata.refFields.length() {
+                        refValues.push(<sql:Value>item[REF_COLUMN_ALIAS_PREFIX + i.toString()]);
+                    }
+                    record {}[] relatedGroup = relatedRecords[refValues.toString()] ?: [];
+                    relatedGroup.push(item);
+                    relatedRecords[refValues.toString()] = relatedGroup;
+                };
 
-                if e is error {
-                    return <Error>e;
-                }
+            if e is error {
+                return <Error>error(e.message());
+            }
 
-                'object[joinMetadata.fieldName] = convertToArray(joinMetadata.entity, arr);
+            foreach record {} 'object in objects {
+                string parentKey = getRefValues('object, joinMetadata.joinColumns).toString();
+                'object[joinMetadata.fieldName] = check self.toEntityArray(joinMetadata, relatedRecords[parentKey] ?: []);
             }
         }
     }
 
-    # Closes the underlying `sql:Client`.
+    # Returns the statistics of the cache of the records read by key.
+    #
+    # + return - The `persist:CacheStats` of the entity or `()` if the records are not cached
+    public isolated function getCacheStats() returns CacheStats? {
+        EntityCache? cache = self.cache;
+        return cache is EntityCache ? cache.getStats() : ();
+    }
+
+    # Closes the underlying `sql:Client`. A shared `sql:Client` obtained using `persist:getSqlClient` is not closed,
+    # as it is used by the other persist clients of the datasource. It is closed using `persist:closeSqlClients`.
     #
     # + return - `()` if the client is closed successfully or a `persist:Error` if the operation fails
     public isolated function close() returns Error? {
+        if self.isSharedClient {
+            return;
+        }
         sql:Error? e = self.dbClient.close();
         if e is sql:Error {
             return <Error>error(e.message());
         }
     }
 
+    private isolated function runBatchQuery(record {}[] objects, int batchSize, sql:ParameterizedQuery querySuffix)
+    returns sql:ExecutionResult[]|Error {
+        if batchSize < 1 {
+            return <Error>error(string `Invalid batch size ${batchSize}. The batch size should be a positive integer.`);
+        }
+
+        sql:ExecutionResult[] results = [];
+        int startIndex = 0;
+        while startIndex < objects.length() {
+            int endIndex = int:min(startIndex + batchSize, objects.length());
+            sql:ParameterizedQuery query = sql:queryConcat(
+                self.insertQueryPrefix, self.getBatchInsertQueryParams(objects.slice(startIndex, endIndex)), querySuffix
+            );
+            sql:ExecutionResult|sql:Error result = self.dbClient->execute(query);
+
+            if result is sql:Error {
+                if result.message().indexOf("Duplicate entry ") != () {
+                    return <DuplicateKeyError>error(string `A ${self.entityName} entity with a duplicate key already exists.`);
+                }
+                return <Error>error(result.message());
+            }
+            results.push(result);
+            startIndex = endIndex;
+        }
+        return results;
+    }
+
     private isolated function getKey(record {} 'object) returns record {} {
         record {} keyRecord = {};
         foreach string key in self.keyFields {
@@ -238,162 +549,251 @@ public client class SQLClient {
     }
 
     private isolated function getInsertQueryParams(record {} 'object) returns sql:ParameterizedQuery {
-        sql:ParameterizedQuery params = `(`;
-        string[] keys = self.fieldMetadata.keys();
-        int columnCount = 0;
-        foreach string key in keys {
-            if self.fieldMetadata.get(key).autoGenerated || self.fieldMetadata.get(key).columnName is () {
-                continue;
-            }
-            if columnCount > 0 {
-                params = sql:queryConcat(params, `,`);
-            }
+        return createParameterizedQuery(self.insertParamStrings, self.getInsertValues('object));
+    }
 
-            if key.includes(".") {
-                int splitPosition = <int>key.indexOf(".", 0);
-                string entity = key.substring(0, splitPosition);
-                string fieldName = key.substring(splitPosition + 1, key.length());
-                if 'object[entity] is () {
-                    params = sql:queryConcat(params, `NULL`);
-                } else {
-                    params = sql:queryConcat(params, `${<sql:Value>(<record {}>'object[entity])[fieldName]}`);
-                }
+    private isolated function getBatchInsertQueryParams(record {}[] objects) returns sql:ParameterizedQuery {
+        string[] strings = [""];
+        sql:Value[] values = [];
+        foreach int i in 0 ..< objects.length() {
+            strings[strings.length() - 1] += (i > 0 ? ", " : "") + self.insertParamStrings[0];
+            strings.push(...self.insertParamStrings.slice(1));
+            values.push(...self.getInsertValues(objects[i]));
+        }
+        return createParameterizedQuery(strings.cloneReadOnly(), values);
+    }
+
+    private isolated function getInsertValues(record {} 'object) returns sql:Value[] {
+        sql:Value[] values = [];
+        foreach [string, string?] [fieldName, innerFieldName] in self.insertFields {
+            if innerFieldName is () {
+                values.push(<sql:Value>'object[fieldName]);
+            } else if 'object[fieldName] is () {
+                values.push(());
             } else {
-                params = sql:queryConcat(params, `${<sql:Value>'object[key]}`);
+                values.push(<sql:Value>(<record {}>'object[fieldName])[innerFieldName]);
             }
-            columnCount = columnCount + 1;
         }
-        params = sql:queryConcat(params, `)`);
-        return params;
+        return values;
     }
 
-    private isolated function getInsertColumnNames() returns sql:ParameterizedQuery {
-        sql:ParameterizedQuery params = ` `;
-        string[] keys = self.fieldMetadata.keys();
-        int columnCount = 0;
-        foreach string key in keys {
-            if self.fieldMetadata.get(key).autoGenerated || self.fieldMetadata.get(key).columnName is () {
-                continue;
+    private isolated function getSelectQuery(string[] include, string[] filterJoinKeys = []) returns sql:ParameterizedQuery {
+        string[] includedJoinKeys = from string joinKey in self.joinClauses.keys()
+            where include.indexOf(joinKey) != ()
+            select joinKey;
+        string cacheKey = string:'join(",", ...includedJoinKeys) + ";" + string:'join(",", ...filterJoinKeys);
+
+        lock {
+            sql:ParameterizedQuery? cachedQuery = self.selectQueries[cacheKey];
+            if cachedQuery is sql:ParameterizedQuery {
+                return cachedQuery;
             }
-            if columnCount > 0 {
-                params = sql:queryConcat(params, `, `);
+        }
+
+        string columnNames = self.baseSelectColumns;
+        string joinClauses = "";
+        foreach string joinKey in includedJoinKeys {
+            string? relationColumns = self.relationSelectColumns[joinKey];
+            if relationColumns is string {
+                columnNames += (columnNames == "" ? "" : ", ") + relationColumns;
             }
-            params = sql:queryConcat(params, stringToParameterizedQuery(<string>self.fieldMetadata.get(key).columnName));
-            columnCount = columnCount + 1;
+            joinClauses += self.joinClauses.get(joinKey);
         }
-        return params;
+        foreach string joinKey in filterJoinKeys {
+            joinClauses += self.joinClauses.get(joinKey);
+        }
+
+        sql:ParameterizedQuery query = sql:queryConcat(
+            stringToParameterizedQuery("SELECT " + columnNames + " FROM "), self.tableName,
+            stringToParameterizedQuery(" AS " + self.entityName + joinClauses)
+        );
+        lock {
+            self.selectQueries[cacheKey] = query;
+        }
+        return query;
     }
 
-    private isolated function getSelectColumnNames(string[] include) returns sql:ParameterizedQuery {
-        sql:ParameterizedQuery params = ` `;
-        int columnCount = 0;
+    private isolated function getGetKeyWhereClauses(anydata key) returns sql:ParameterizedQuery {
+        return createParameterizedQuery(self.keyWhereStrings, self.getKeyValues(key));
+    }
 
-        foreach string key in self.fieldMetadata.keys() {
-            if self.fieldMetadata.get(key).relation is () {
-                if columnCount > 0 {
-                    params = sql:queryConcat(params, `, `);
-                }
-                params = sql:queryConcat(params, stringToParameterizedQuery(self.entityName + "." + <string>self.fieldMetadata.get(key).columnName + " AS `" + <string>self.fieldMetadata.get(key).columnName + "`"));
-                columnCount = columnCount + 1;
-            } else if include.indexOf((<RelationMetadata>self.fieldMetadata.get(key).relation).entityName) != () {
-                if !key.includes("[]") {
-                    if columnCount > 0 {
-                        params = sql:queryConcat(params, `, `);
-                    }
-                    params = sql:queryConcat(params, stringToParameterizedQuery(
-                        (<RelationMetadata>self.fieldMetadata.get(key).relation).entityName + "." +
-                        (<RelationMetadata>self.fieldMetadata.get(key).relation).refField +
-                        " AS `" + (<RelationMetadata>self.fieldMetadata.get(key).relation).entityName + "." + (<RelationMetadata>self.fieldMetadata.get(key).relation).refField + "`"
-                    ));
-                    columnCount = columnCount + 1;
-                }
-            }
+    private isolated function toEntityArray(JoinMetadata joinMetadata, record {}[] rows) returns record {}[]|Error {
+        record {}[]|error entities = convertToRecordArray(joinMetadata.entity, rows);
+        if entities is record {}[] {
+            return entities;
         }
-        return params;
-    }
 
-    private isolated function getManyRelationColumnNames(string prefix) returns sql:ParameterizedQuery {
-        sql:ParameterizedQuery params = ` `;
-        string[] keys = self.fieldMetadata.keys();
-        int columnCount = 0;
-        foreach string key in keys {
-            int? splitIndex = key.indexOf(prefix + "[].");
-            if splitIndex is () {
-                continue;
+        // Fall back to `cloneWithType` when the values need to be converted to the field types
+        record {}[] clonedEntities = [];
+        foreach record {} row in rows {
+            foreach int i in 0 ..< joinMetadata.refFields.length() {
+                _ = row.remove(REF_COLUMN_ALIAS_PREFIX + i.toString());
             }
-            if columnCount > 0 {
-                params = sql:queryConcat(params, `, `);
+            record {}|error clonedEntity = row.cloneWithType(joinMetadata.entity);
+            if clonedEntity is error {
+                return <Error>error(clonedEntity.message());
             }
+            clonedEntities.push(clonedEntity);
+        }
+        return convertToArray(joinMetadata.entity, clonedEntities);
+    }
 
-            string fieldName = key.substring((prefix + "[].").length());
-            string columnName = (<RelationMetadata>(<FieldMetadata>self.fieldMetadata[key]).relation).refField;
-            params = sql:queryConcat(params, stringToParameterizedQuery(columnName + " AS " + fieldName));
-            columnCount = columnCount + 1;
+    private isolated function getKeysInClause(anydata[] keys) returns sql:ParameterizedQuery {
+        sql:Value[][] keyValues = from anydata key in keys
+            select self.getKeyValues(key);
+        return getInClause(self.keyColumns, keyValues);
+    }
+
+    private isolated function withManyRelations(stream<record {}, sql:Error?> resultStream, string[] include)
+    returns stream<record {}, sql:Error?> {
+        foreach string joinKey in self.manyRelationQueries.keys() {
+            if include.indexOf(joinKey) != () {
+                return new stream<record {}, sql:Error?>(new ManyRelationsStream(resultStream, self, include));
+            }
         }
-        return params;
+        return resultStream;
+    }
+
+    private isolated function getCacheKey(anydata key) returns string {
+        return self.getKeyValues(key).toString();
     }
 
-    private isolated function getGetKeyWhereClauses(anydata key) returns sql:ParameterizedQuery|Error {
-        map<anydata> filter = {};
+    private isolated function invalidateCache(record {}[] objects) {
+        string? datasourceKey = self.datasourceKey;
+        EntityCache? cache = self.cache ?:
+            (datasourceKey is string ? findEntityCache(datasourceKey, self.entityName) : ());
+        if cache is () {
+            return;
+        }
+        string[] keys = from record {} 'object in objects
+            select self.getCacheKey(self.getKey('object));
+        cache.invalidate(keys.cloneReadOnly());
+    }
 
+    private isolated function getKeyValues(anydata key) returns sql:Value[] {
+        sql:Value[] values = [];
         if key is record {} {
-            filter = key;
+            foreach string keyField in self.keyFields {
+                values.push(<sql:Value>key[keyField]);
+            }
         } else {
-            filter[self.keyFields[0]] = key;
+            values.push(<sql:Value>key);
+        }
+        return values;
+    }
+
+    private isolated function getSetClauses(record {} 'object, record {}? original) returns sql:ParameterizedQuery|Error? {
+        string[] columnNames = [];
+        sql:Value[] values = [];
+        string? unknownField = getUpdateColumns('object, original, self.updateColumns, columnNames, values);
+        if unknownField is string {
+            return <FieldDoesNotExistError>error(
+                string `Field '${unknownField}' does not exist in entity '${self.entityName}'.`);
+        }
+        if columnNames.length() == 0 {
+            return ();
         }
 
-        return check self.getWhereClauses(filter);
+        string[] strings = [];
+        foreach int i in 0 ..< columnNames.length() {
+            strings.push((i > 0 ? ", " : " ") + columnNames[i] + " = ");
+        }
+        strings.push("");
+        return createParameterizedQuery(strings.cloneReadOnly(), values);
     }
 
-    private isolated function getWhereClauses(map<anydata> filter, boolean ignoreFieldCheck = false) returns sql:ParameterizedQuery|Error {
-        sql:ParameterizedQuery query = ` `;
+    private isolated function getProjectedSelectQuery(string[] fields, string[] include, string[] filterJoinKeys = [])
+    returns sql:ParameterizedQuery|FieldDoesNotExistError {
+        string[] includedJoinKeys = from string joinKey in self.joinClauses.keys()
+            where include.indexOf(joinKey) != ()
+            select joinKey;
+        string cacheKey = string:'join(",", ...fields) + ";" + string:'join(",", ...includedJoinKeys) + ";"
+            + string:'join(",", ...filterJoinKeys);
+        lock {
+            sql:ParameterizedQuery? cachedQuery = self.projectedSelectQueries[cacheKey];
+            if cachedQuery is sql:ParameterizedQuery {
+                return cachedQuery;
+            }
+        }
 
-        string[] keys = filter.keys();
-        foreach int i in 0 ..< keys.length() {
-            if i > 0 {
-                query = sql:queryConcat(query, ` AND `);
+        string[] columnNames = [];
+        foreach string fieldName in fields {
+            if self.isRelationField(fieldName) {
+                // The columns of the relations are selected when the relations are included
+                continue;
             }
-            if ignoreFieldCheck {
-                query = sql:queryConcat(query, stringToParameterizedQuery(keys[i]), ` = ${<sql:Value>filter[keys[i]]}`);
-            } else {
-                query = sql:queryConcat(query, stringToParameterizedQuery(self.entityName + "."), check self.getFieldParamQuery(keys[i]), ` = ${<sql:Value>filter[keys[i]]}`);
+            columnNames.push(check self.getEntityColumnName(fieldName));
+        }
+        // The columns referenced by the included 'many' relations are required to load them
+        foreach string joinKey in self.manyRelationQueries.keys() {
+            if include.indexOf(joinKey) is () {
+                continue;
+            }
+            foreach string joinColumn in self.joinMetadata.get(joinKey).joinColumns {
+                if columnNames.indexOf(joinColumn) is () {
+                    columnNames.push(joinColumn);
+                }
             }
         }
+
+        string[] columns = from string columnName in columnNames
+            select self.entityName + "." + columnName + " AS `" + columnName + "`";
+        string joinClauses = "";
+        foreach string joinKey in includedJoinKeys {
+            string? relationColumns = self.relationSelectColumns[joinKey];
+            if relationColumns is string {
+                columns.push(relationColumns);
+            }
+            joinClauses += self.joinClauses.get(joinKey);
+        }
+        foreach string joinKey in filterJoinKeys {
+            joinClauses += self.joinClauses.get(joinKey);
+        }
+
+        sql:ParameterizedQuery query = sql:queryConcat(
+            stringToParameterizedQuery("SELECT " + string:'join(", ", ...columns) + " FROM "), self.tableName,
+            stringToParameterizedQuery(" AS " + self.entityName + joinClauses)
+        );
+        lock {
+            self.projectedSelectQueries[cacheKey] = query;
+        }
         return query;
     }
 
-    private isolated function getSetClauses(record {} 'object) returns sql:ParameterizedQuery|Error {
-        record {} r = flattenRecord('object);
-        sql:ParameterizedQuery query = ` `;
-        int count = 0;
-        foreach string key in r.keys() {
-            sql:ParameterizedQuery|InvalidInsertionError|FieldDoesNotExistError fieldName = self.getFieldParamQuery(key);
-            if fieldName is sql:ParameterizedQuery {
-                if count > 0 {
-                    query = sql:queryConcat(query, `, `);
-                }
-                query = sql:queryConcat(query, fieldName, ` = ${<sql:Value>r[key]}`);
-                count = count + 1;
-            } else if fieldName is FieldDoesNotExistError {
-                return fieldName;
+    // The relations, which are referred to by the filter (e.g. `company__name`), but are not included,
+    // are joined without retrieving their columns
+    private isolated function getFilterJoinKeys(string[] filterRelations, string[] include) returns string[]|Error {
+        string[] filterJoinKeys = [];
+        foreach string relation in filterRelations {
+            if !self.joinClauses.hasKey(relation) {
+                return <Error>error(string `The relation '${relation}' of the filter cannot be joined.`);
+            }
+            if include.indexOf(relation) is () && filterJoinKeys.indexOf(relation) is () {
+                filterJoinKeys.push(relation);
             }
         }
-        return query;
+        return filterJoinKeys;
     }
 
-    private isolated function getJoinFilters(string joinKey, string[] refFields, string[] joinColumns) returns sql:ParameterizedQuery|Error {
-        sql:ParameterizedQuery query = ` `;
-        foreach int i in 0 ..< refFields.length() {
-            if i > 0 {
-                query = sql:queryConcat(query, ` AND `);
+    private isolated function isRelationField(string fieldName) returns boolean {
+        foreach JoinMetadata joinMetadata in self.joinMetadata {
+            if joinMetadata.fieldName == fieldName {
+                return true;
             }
-            sql:ParameterizedQuery filterQuery = stringToParameterizedQuery(joinKey + "." + refFields[i] + " = " + self.entityName + "." + joinColumns[i]);
-            query = sql:queryConcat(query, filterQuery);
         }
-        return query;
+        return false;
     }
 
-    private isolated function getFieldParamQuery(string fieldName) returns sql:ParameterizedQuery|FieldDoesNotExistError|InvalidInsertionError {
+    private isolated function getEntityColumnName(string fieldName) returns string|FieldDoesNotExistError {
+        FieldMetadata? fieldMetadata = self.fieldMetadata[fieldName];
+        if fieldMetadata is () || fieldMetadata.columnName is () {
+            return <FieldDoesNotExistError>error(
+                string `Field '${fieldName}' does not exist in entity '${self.entityName}'.`);
+        }
+        return <string>fieldMetadata.columnName;
+    }
+
+    private isolated function getColumnName(string fieldName) returns string|FieldDoesNotExistError|InvalidInsertionError {
         FieldMetadata? fieldMetadata = self.fieldMetadata[fieldName];
         if fieldMetadata is () {
             return <FieldDoesNotExistError>error(
@@ -402,6 +802,287 @@ public client class SQLClient {
             return <InvalidInsertionError>error(
                 string `Unable to directly insert into field ${fieldName}`);
         }
-        return stringToParameterizedQuery(<string>(<FieldMetadata>fieldMetadata).columnName);
+        return <string>(<FieldMetadata>fieldMetadata).columnName;
+    }
+
+    private isolated function buildWriteTemplates() {
+        string[] columnNames = [];
+        string[] updateClauses = [];
+        [string, string?][] insertFields = [];
+        foreach string key in self.fieldMetadata.keys() {
+            FieldMetadata fieldMetadata = self.fieldMetadata.get(key);
+            if fieldMetadata.autoGenerated || fieldMetadata.columnName is () {
+                continue;
+            }
+            string columnName = <string>fieldMetadata.columnName;
+            columnNames.push(columnName);
+            if self.keyFields.indexOf(key) is () {
+                updateClauses.push(columnName + " = " + UPSERT_ROW_ALIAS + "." + columnName);
+            }
+
+            int? splitPosition = key.indexOf(".");
+            if splitPosition is int {
+                insertFields.push([key.substring(0, splitPosition), key.substring(splitPosition + 1)]);
+            } else {
+                insertFields.push([key, ()]);
+            }
+        }
+
+        self.insertFields = insertFields;
+        self.insertQueryPrefix = sql:queryConcat(
+            `INSERT INTO `, self.tableName, stringToParameterizedQuery(" ( " + string:'join(", ", ...columnNames) + " ) VALUES ")
+        );
+        self.insertParamStrings = getListParamStrings(insertFields.length());
+
+        // an existing record is left as it is by assigning a column to itself
+        string insertIfAbsentClause = columnNames.length() > 0 ? columnNames[0] + " = " + columnNames[0] : "";
+        if updateClauses.length() == 0 {
+            // all the columns are keys
+            updateClauses.push(insertIfAbsentClause);
+        }
+        self.upsertQuerySuffix = stringToParameterizedQuery(
+            " AS " + UPSERT_ROW_ALIAS + " ON DUPLICATE KEY UPDATE " + string:'join(", ", ...updateClauses)
+        );
+        self.insertIfAbsentQuerySuffix = stringToParameterizedQuery(" ON DUPLICATE KEY UPDATE " + insertIfAbsentClause);
+
+        // The column of each field and the columns of the fields of each relation, which are resolved while
+        // walking the record to be updated
+        map<string?|map<string?>> updateColumns = {};
+        foreach string key in self.fieldMetadata.keys() {
+            string? columnName = self.fieldMetadata.get(key).columnName;
+            int? splitPosition = key.indexOf(".");
+            if splitPosition is () {
+                updateColumns[key] = columnName;
+                continue;
+            }
+
+            string fieldName = key.substring(0, splitPosition);
+            if fieldName.endsWith("[]") {
+                fieldName = fieldName.substring(0, fieldName.length() - 2);
+            }
+            string?|map<string?> relationColumns = updateColumns[fieldName];
+            map<string?> columns = relationColumns is map<string?> ? relationColumns : {};
+            columns[key.substring(splitPosition + 1)] = columnName;
+            updateColumns[fieldName] = columns;
+        }
+        self.updateColumns = updateColumns.cloneReadOnly();
+
+        self.updateQueryPrefix = sql:queryConcat(`UPDATE `, self.tableName, stringToParameterizedQuery(" " + self.entityName + " SET"));
+        self.deleteQueryPrefix = sql:queryConcat(`DELETE FROM `, self.tableName, stringToParameterizedQuery(" " + self.entityName));
+        self.existsQueryPrefix = sql:queryConcat(`SELECT 1 FROM `, self.tableName, stringToParameterizedQuery(" " + self.entityName + " WHERE"));
+    }
+
+    private isolated function buildSelectTemplates() {
+        string[] baseColumns = [];
+        map<string[]> relationColumns = {};
+        map<string[]> relationRefFields = {};
+        foreach string key in self.fieldMetadata.keys() {
+            FieldMetadata fieldMetadata = self.fieldMetadata.get(key);
+            RelationMetadata? relation = fieldMetadata.relation;
+            if relation is () {
+                string columnName = <string>fieldMetadata.columnName;
+                baseColumns.push(self.entityName + "." + columnName + " AS `" + columnName + "`");
+            } else if !key.includes("[]") {
+                string columnName = relation.entityName + "." + relation.refField;
+                string[] columns = relationColumns[relation.entityName] ?: [];
+                columns.push(relation.entityName + "." + relation.entityName + RELATION_COLUMN_SEPARATOR + relation.refField
+                    + " AS `" + columnName + "`");
+                relationColumns[relation.entityName] = columns;
+                string[] refFields = relationRefFields[relation.entityName] ?: [];
+                refFields.push(relation.refField);
+                relationRefFields[relation.entityName] = refFields;
+            }
+        }
+        self.baseSelectColumns = string:'join(", ", ...baseColumns);
+        self.countQueryPrefix = sql:queryConcat(`SELECT COUNT(*) FROM `, self.tableName, stringToParameterizedQuery(" AS " + self.entityName));
+        foreach [string, string[]] [entityName, columns] in relationColumns.entries() {
+            self.relationSelectColumns[entityName] = string:'join(", ", ...columns);
+        }
+
+        foreach string joinKey in self.joinMetadata.keys() {
+            JoinMetadata joinMetadata = self.joinMetadata.get(joinKey);
+            if joinMetadata.'type == MANY {
+                string[] refColumns = [];
+                foreach int i in 0 ..< joinMetadata.refFields.length() {
+                    refColumns.push(joinMetadata.refFields[i] + " AS `" + REF_COLUMN_ALIAS_PREFIX + i.toString() + "`");
+                }
+                self.manyRelationQueries[joinKey] = stringToParameterizedQuery(
+                    "SELECT " + self.getManyRelationColumnNames(joinMetadata.fieldName) + ", " + string:'join(", ", ...refColumns) +
+                    " FROM " + joinMetadata.refTable + " WHERE"
+                );
+                continue;
+            }
+
+            // The related table is joined as a derived table, whose columns are prefixed with the relation name.
+            // Hence, the unqualified columns of the filters of advanced queries only refer to the columns of the entity.
+            string[] refFields = relationRefFields[joinKey] ?: [];
+            string[] joinFilters = [];
+            foreach int i in 0 ..< joinMetadata.refFields.length() {
+                string refField = joinMetadata.refFields[i];
+                if refFields.indexOf(refField) is () {
+                    refFields.push(refField);
+                }
+                joinFilters.push(joinKey + "." + joinKey + RELATION_COLUMN_SEPARATOR + refField + " = " + self.entityName + "."
+                    + joinMetadata.joinColumns[i]);
+            }
+            string[] refColumns = from string refField in refFields
+                select refField + " AS " + joinKey + RELATION_COLUMN_SEPARATOR + refField;
+            self.joinClauses[joinKey] = " LEFT JOIN (SELECT " + string:'join(", ", ...refColumns) + " FROM " + joinMetadata.refTable + ") "
+                + joinKey + " ON " + string:'join(" AND ", ...joinFilters);
+        }
+    }
+
+    private isolated function getManyRelationColumnNames(string prefix) returns string {
+        string[] columnNames = [];
+        foreach string key in self.fieldMetadata.keys() {
+            if !key.startsWith(prefix + "[].") {
+                continue;
+            }
+            string fieldName = key.substring((prefix + "[].").length());
+            string columnName = (<RelationMetadata>self.fieldMetadata.get(key).relation).refField;
+            columnNames.push(columnName + " AS " + fieldName);
+        }
+        return string:'join(", ", ...columnNames);
+    }
+
+    private isolated function buildKeyWhereTemplate() returns Error? {
+        string[] keyWhereStrings = [];
+        string[] keyColumns = [];
+        foreach int i in 0 ..< self.keyFields.length() {
+            string keyColumn = self.entityName + "." + check self.getColumnName(self.keyFields[i]);
+            keyWhereStrings.push((i > 0 ? " AND " : " ") + keyColumn + " = ");
+            keyColumns.push(keyColumn);
+        }
+        keyWhereStrings.push("");
+        self.keyWhereStrings = keyWhereStrings.cloneReadOnly();
+        self.keyColumns = keyColumns;
+    }
+}
+
+# A stream iterator, which loads the included 'many' relations of the records of a stream
+# in batches rather than performing a query for each record.
+class ManyRelationsStream {
+    private stream<record {}, sql:Error?> anydataStream;
+    private SQLClient persistClient;
+    private string[] include;
+    private record {}[] batch = [];
+    private int batchIndex = 0;
+    private boolean isExhausted = false;
+
+    isolated function init(stream<record {}, sql:Error?> anydataStream, SQLClient persistClient, string[] include) {
+        self.anydataStream = anydataStream;
+        self.persistClient = persistClient;
+        self.include = include;
+    }
+
+    public isolated function next() returns record {|record {} value;|}|sql:Error? {
+        if self.batchIndex >= self.batch.length() {
+            if self.isExhausted {
+                return ();
+            }
+            check self.loadNextBatch();
+            if self.batch.length() == 0 {
+                return ();
+            }
+        }
+
+        record {} value = self.batch[self.batchIndex];
+        self.batchIndex += 1;
+        return {value};
+    }
+
+    public isolated function close() returns sql:Error? {
+        return self.anydataStream.close();
+    }
+
+    private isolated function loadNextBatch() returns sql:Error? {
+        record {}[] batch = [];
+        while batch.length() < DEFAULT_BATCH_SIZE {
+            record {|record {} value;|}? streamValue = check self.anydataStream.next();
+            if streamValue is () {
+                self.isExhausted = true;
+                break;
+            }
+            batch.push(streamValue.value);
+        }
+
+        Error? e = self.persistClient.loadManyRelations(batch, self.include);
+        if e is Error {
+            return <sql:Error>error(e.message());
+        }
+        self.batch = batch;
+        self.batchIndex = 0;
+    }
+}
+
+# A stream iterator, which reads the records of the keys in batches, so that the SQL `IN` predicate of each query
+# is bounded. The next batch is only queried when the records of the previous batch are consumed.
+class KeysBatchStream {
+    private SQLClient persistClient;
+    private typedesc<record {}> rowType;
+    private anydata[] keys;
+    private string[] include;
+    private int keyIndex = 0;
+    private stream<record {}, sql:Error?>? batchStream = ();
+
+    isolated function init(SQLClient persistClient, typedesc<record {}> rowType, anydata[] keys, string[] include) {
+        self.persistClient = persistClient;
+        self.rowType = rowType;
+        self.keys = keys;
+        self.include = include;
+    }
+
+    public isolated function next() returns record {|record {} value;|}|sql:Error? {
+        while self.batchStream !is () || self.keyIndex < self.keys.length() {
+            stream<record {}, sql:Error?>? batchStream = self.batchStream;
+            if batchStream is () {
+                int endIndex = int:min(self.keyIndex + DEFAULT_BATCH_SIZE, self.keys.length());
+                self.batchStream = self.persistClient.queryByKeys(self.rowType, self.keys.slice(self.keyIndex, endIndex),
+                    self.include);
+                self.keyIndex = endIndex;
+                continue;
+            }
+
+            record {|record {} value;|}? streamValue = check batchStream.next();
+            if streamValue !is () {
+                return streamValue;
+            }
+            self.batchStream = ();
+            check batchStream.close();
+        }
+        return ();
+    }
+
+    public isolated function close() returns sql:Error? {
+        stream<record {}, sql:Error?>? batchStream = self.batchStream;
+        self.batchStream = ();
+        self.keyIndex = self.keys.length();
+        if batchStream !is () {
+            return batchStream.close();
+        }
+    }
+}
+
+# A stream iterator over the rows of an aggregate query, which maps the SQL errors into persist errors.
+class AggregateStream {
+    private stream<record {}, sql:Error?> anydataStream;
+
+    isolated function init(stream<record {}, sql:Error?> anydataStream) {
+        self.anydataStream = anydataStream;
+    }
+
+    public isolated function next() returns record {|record {} value;|}|Error? {
+        record {|record {} value;|}|sql:Error? streamValue = self.anydataStream.next();
+        if streamValue is sql:Error {
+            return <Error>error(streamValue.message());
+        }
+        return streamValue;
+    }
+
+    public isolated function close() returns Error? {
+        sql:Error? e = self.anydataStream.close();
+        if e is sql:Error {
+            return <Error>error(e.message());
+        }
     }
 }
@@ -424,17 +424,161 @@ function oneToManyUpdateTest4() returns error? {
 }
 
 @test:Config {
-    groups: ["associations", "one-to-manyx"]
+    groups: ["associations", "one-to-many"]
 }
-function verifyExecuteFailureForAssociations() returns error? {
-
+function oneToManyClearRelationTest() returns error? {
+    Company company = {
+        id: 6,
+        name: "TestCompany6"
+    };
     EmployeeClient employeeClient = check new ();
-    stream<Employee, error?> result = employeeClient->execute(``);
+    _ = check employeeClient->create({id: 10, name: "TestEmployee10", company});
+
+    // setting the relation to nil clears the column referring to the related record
+    _ = check employeeClient->update({id: 10, company: ()});
+    Employee[] employees = check from Employee employee in employeeClient->execute(` WHERE id = 10 AND companyId IS NULL`)
+        select employee;
+    check employeeClient.close();
+
+    test:assertEquals(employees, [<Employee>{id: 10, name: "TestEmployee10"}]);
+}
+
+@test:Config {
+    groups: ["associations"],
+    dependsOn: [oneToOneCreateTest1]
+}
+function oneToOneExecuteTest() returns error? {
+    ProfileClient profileClient = check new ();
+    // `name` refers to the column of the profile, even though the user, which also has a `name`, is included
+    Profile[] profiles = check from Profile profile in profileClient->execute(` WHERE name = "TestProfile2"`, [UserEntity])
+        select profile;
+    check profileClient.close();
+
+    test:assertEquals(profiles, [{id: 1, name: "TestProfile2", user: {id: 1, name: "TestUser2"}}]);
+}
+
+@test:Config {
+    groups: ["associations"],
+    dependsOn: [oneToOneCreateTest1]
+}
+function oneToOneRelationFilterTest() returns error? {
+    ProfileClient profileClient = check new ();
+    // the user is joined to evaluate the filter, but it is not retrieved as it is not included
+    Profile[] profiles = check from Profile profile in profileClient->execute(` WHERE user__name = "TestUser2"`,
+            filterRelations = [UserEntity])
+        select profile;
+    int count = check profileClient.count(` WHERE user__name = "TestUser2"`, [UserEntity]);
+    check profileClient.close();
+
+    test:assertEquals(profiles, [{id: 1, name: "TestProfile2"}]);
+    test:assertEquals(count, 1);
+}
+
+@test:Config {
+    groups: ["associations"]
+}
+function manyRelationFilterTest() returns error? {
+    CompanyClient companyClient = check new ();
+    // the records of a many relation cannot be joined to evaluate the filter
+    int|Error count = companyClient.count(` WHERE employee__name = "TestEmployee"`, [EmployeeEntity]);
+    check companyClient.close();
+
+    if count is Error {
+        test:assertEquals(count.message(), "The relation 'employee' of the filter cannot be joined.");
+    } else {
+        test:assertFail("Error expected.");
+    }
+}
+
+@test:Config {
+    groups: ["associations", "one-to-manyx"],
+    dependsOn: [oneToManyUpdateTest4]
+}
+function oneToManyExecuteTest() returns error? {
+    CompanyClient companyClient = check new ();
+    Company[] companies = check from Company company in companyClient->execute(` WHERE id = 5`, [EmployeeEntity])
+        select company;
+    check companyClient.close();
 
-    record {|Employee value;|}|error? value = result.next();
+    test:assertEquals(companies, [<Company>{
+        id: 5,
+        name: "TestCompanyUpdated5",
+        employees: [{id: 8, name: "TestEmployeeUpdated8"}, {id: 9, name: "TestEmployee9"}]
+    }]);
+}
 
-    if value !is UnsupportedOperationError {
-        test:assertFail("UnsupportedOperation error expected!");
+@test:Config {
+    groups: ["associations", "one-to-many"]
+}
+function oneToManyReadBatchesTest() returns error? {
+    // the companies span more than one batch of `DEFAULT_BATCH_SIZE` records, each of which loads its employees
+    // with a separate query, and every other company has no employees
+    int companyCount = DEFAULT_BATCH_SIZE + 200;
+    Company[] companies = [];
+    Employee[] employees = [];
+    map<Company> expectedCompanies = {};
+    foreach int i in 0 ..< companyCount {
+        Company company = {id: 2001 + i, name: "TestBatchCompany" + i.toString()};
+        companies.push(company);
+
+        Employee[] companyEmployees = [];
+        if i % 2 == 0 {
+            foreach int j in 0 ..< 2 {
+                int employeeId = 2001 + i * 2 + j;
+                employees.push({id: employeeId, name: "TestBatchEmployee" + employeeId.toString(), company});
+                companyEmployees.push({id: employeeId, name: "TestBatchEmployee" + employeeId.toString()});
+            }
+        }
+        expectedCompanies[company.id.toString()] = {id: company.id, name: company.name, employees: companyEmployees};
     }
 
+    CompanyClient companyClient = check new ();
+    _ = check companyClient->createMany(companies);
+    EmployeeClient employeeClient = check new ();
+    _ = check employeeClient->createMany(employees);
+    check employeeClient.close();
+
+    int readCount = 0;
+    check from Company company in companyClient->execute(` WHERE id > 2000`, [EmployeeEntity])
+        do {
+            test:assertEquals(company, expectedCompanies[company.id.toString()]);
+            readCount += 1;
+        };
+    check companyClient.close();
+
+    test:assertEquals(readCount, companyCount);
+}
+
+@test:Config {
+    groups: ["associations", "exists"],
+    dependsOn: [oneToManyCreateTest1]
+}
+function existsTest() returns error? {
+    CompanyClient companyClient = check new ();
+    boolean exists = check companyClient->exists({id: 1, name: "TestCompany1"});
+    boolean notExists = check companyClient->exists({id: 1000, name: "TestCompany1000"});
+    check companyClient.close();
+
+    test:assertTrue(exists);
+    test:assertFalse(notExists);
+}
+
+@test:Config {
+    groups: ["associations", "upsert"]
+}
+function oneToOneUpsertRelationTest() returns error? {
+    UserClient userClient = check new ();
+    _ = check userClient->create({id: 41, name: "TestUser41"});
+
+    ProfileClient profileClient = check new ();
+    _ = check profileClient->upsert({id: 41, name: "TestProfile41", user: {id: 41, name: "OutdatedUser41"}});
+    _ = check profileClient->upsert({id: 42, name: "TestProfile42", user: {id: 42, name: "TestUser42"}});
+
+    User existingUser = check userClient->readByKey(41);
+    User createdUser = check userClient->readByKey(42);
+    check profileClient.close();
+    check userClient.close();
+
+    test:assertEquals(existingUser, <User>{id: 41, name: "TestUser41"});
+    test:assertEquals(createdUser, <User>{id: 42, name: "TestUser42"});
 }
@@ -251,6 +251,101 @@ function testComplexTypesWithExecute() returns error? {
     check mnClient.close();
 }
 
+@test:Config {
+    groups: ["basic"],
+    dependsOn: [testComplexTypesWithExecute]
+}
+function testExecuteWithFields() returns error? {
+    MedicalNeedClient mnClient = check new ();
+    int[] quantities = check from MedicalNeed need in mnClient->execute(` WHERE itemId = 1`, ["needId", "quantity"])
+        select need.quantity;
+    test:assertTrue(quantities.length() > 0);
+    test:assertEquals(quantities[0], 5);
+
+    stream<MedicalNeed, Error?> needStream = mnClient->execute(``, ["name"]);
+    record {|MedicalNeed value;|}|Error? need = needStream.next();
+    check mnClient.close();
+
+    if need is FieldDoesNotExistError {
+        test:assertEquals(need.message(), "Field 'name' does not exist in entity 'MedicalNeed'.");
+    } else {
+        test:assertFail("FieldDoesNotExistError expected");
+    }
+}
+
+@test:Config {
+    groups: ["basic"],
+    dependsOn: [testComplexTypesWithExecute]
+}
+function testCount() returns error? {
+    MedicalNeedClient mnClient = check new ();
+    int needCount = check mnClient.count();
+    int filteredNeedCount = check mnClient.count(` WHERE itemId = 1`);
+    int noNeedCount = check mnClient.count(` WHERE itemId = -1`);
+    int[] needIds = check from MedicalNeed need in mnClient->read()
+        select need.needId;
+    check mnClient.close();
+
+    test:assertEquals(needCount, needIds.length());
+    test:assertTrue(filteredNeedCount > 0);
+    test:assertEquals(noNeedCount, 0);
+}
+
+@test:Config {
+    groups: ["basic"],
+    dependsOn: [testComplexTypesWithExecute]
+}
+function testAggregate() returns error? {
+    MedicalNeedClient mnClient = check new ();
+    stream<record {}, Error?> itemStream = check mnClient.aggregate(` WHERE quantity > 0`, [
+        {'function: SUM, fieldName: "quantity", alias: "totalQuantity"},
+        {'function: COUNT, alias: "needCount"}
+    ], ["itemId"]);
+    map<[int, int]> itemAggregates = {};
+    check from record {} row in itemStream
+        do {
+            itemAggregates[row["itemId"].toString()] = [<int>row["totalQuantity"], <int>row["needCount"]];
+        };
+
+    map<[int, int]> expectedItemAggregates = {};
+    check from MedicalNeed need in mnClient->read()
+        where need.quantity > 0
+        do {
+            [int, int] [totalQuantity, needCount] = expectedItemAggregates[need.itemId.toString()] ?: [0, 0];
+            expectedItemAggregates[need.itemId.toString()] = [totalQuantity + need.quantity, needCount + 1];
+        };
+
+    stream<record {}, Error?> emptyStream = check mnClient.aggregate(` WHERE itemId = -1`, [
+        {'function: MAX, fieldName: "quantity", alias: "maxQuantity"}
+    ]);
+    record {}[] emptyAggregates = check from record {} row in emptyStream
+        select row;
+    check mnClient.close();
+
+    test:assertEquals(itemAggregates, expectedItemAggregates);
+    test:assertEquals(emptyAggregates.length(), 1);
+    test:assertEquals(emptyAggregates[0]["maxQuantity"], ());
+}
+
+@test:Config {
+    groups: ["basic"],
+    dependsOn: [testComplexTypesWithExecute]
+}
+function testExecuteWithArrayValues() returns error? {
+    MedicalNeedClient mnClient = check new ();
+    int[] allNeedIds = check from MedicalNeed need in mnClient->read()
+        select need.needId;
+    int[] needIds = allNeedIds.slice(0, 1);
+    int[] noNeedIds = [];
+    int[] filteredNeedIds = check from MedicalNeed need in mnClient->execute(` WHERE needId IN (${needIds})`)
+        select need.needId;
+    int noNeedCount = check mnClient.count(` WHERE needId IN (${noNeedIds})`);
+    check mnClient.close();
+
+    test:assertEquals(filteredNeedIds, needIds);
+    test:assertEquals(noNeedCount, 0);
+}
+
 @test:Config {
     groups: ["basic", "duplicate-keys"]
 }
@@ -280,3 +375,32 @@ function testDuplicateKeys() returns error? {
     }
 }
 
+
+@test:Config {
+    groups: ["basic", "shared-client"],
+    dependsOn: [testCreate]
+}
+function testSharedSqlClient() returns error? {
+    MedicalItemClient miClient1 = check new ();
+    MedicalItemClient miClient2 = check new ();
+    check miClient1.close();
+
+    MedicalItem item = check miClient2->readByKey(1);
+    check miClient2.close();
+    test:assertEquals(item.itemId, 1);
+}
+
+@test:Config {
+    groups: ["basic", "record-mapping"]
+}
+function testConvertToRecordArrayWithMissingField() {
+    record {}[] rows = [{itemId: 1, name: "item name", 'type: "item type", unit: "ml"}];
+    MedicalItem[]|error items = convertToRecordArray(MedicalItem, rows);
+    test:assertEquals(items, <MedicalItem[]>[{itemId: 1, name: "item name", 'type: "item type", unit: "ml"}]);
+
+    rows = [{itemId: 1, name: "item name", 'type: "item type"}];
+    items = convertToRecordArray(MedicalItem, rows);
+    if items is MedicalItem[] {
+        test:assertFail("Error expected for a row without the required field 'unit'");
+    }
+}
@@ -34,13 +34,12 @@ client class CompanyClient {
 
     private SQLClient persistClient;
 
-    public function init() returns Error? {
-        mysql:Client|sql:Error dbClient = new (host = host, user = user, password = password, database = database, port = port);
-        if dbClient is sql:Error {
-            return <Error>error(dbClient.message());
-        }
+    public function init(CacheConfig? cacheConfig = ()) returns Error? {
+        sql:Client dbClient = check getSqlClient({host, port, user, database}, function () returns sql:Client|sql:Error {
+            return new mysql:Client(host = host, user = user, password = password, database = database, port = port);
+        });
 
-        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata);
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata, cacheConfig);
     }
 
     remote function create(Company value) returns Company|Error {
@@ -48,21 +47,45 @@ client class CompanyClient {
         return value;
     }
 
+    remote function createMany(Company[] values) returns Company[]|Error {
+        _ = check self.persistClient.runBatchInsertQuery(values);
+        return values;
+    }
+
+    remote function upsert(Company value) returns Company|Error {
+        _ = check self.persistClient.runUpsertQuery(value);
+        return value;
+    }
+
+    remote function upsertMany(Company[] values) returns Company[]|Error {
+        _ = check self.persistClient.runBatchUpsertQuery(values);
+        return values;
+    }
+
     remote function readByKey(int key, CompanyRelations[] include = []) returns Company|Error {
         return <Company>check self.persistClient.runReadByKeyQuery(Company, key, include);
     }
 
+    remote function readByKeys(int[] keys, CompanyRelations[] include = []) returns stream<Company, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runReadByKeysQuery(Company, keys, include);
+        if result is Error {
+            return new stream<Company, Error?>(new CompanyStream((), result));
+        } else {
+            return new stream<Company, Error?>(new CompanyStream(result));
+        }
+    }
+
     remote function read(CompanyRelations[] include = []) returns stream<Company, Error?> {
         stream<anydata, sql:Error?>|Error result = self.persistClient.runReadQuery(Company, include);
         if result is Error {
             return new stream<Company, Error?>(new CompanyStream((), result));
         } else {
-            return new stream<Company, Error?>(new CompanyStream(result, (), include, self.persistClient));
+            return new stream<Company, Error?>(new CompanyStream(result));
         }
     }
 
-    remote function execute(sql:ParameterizedQuery filterClause) returns stream<Company, Error?> {
-        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, Company);
+    remote function execute(sql:ParameterizedQuery filterClause, CompanyRelations[] include = [], string[] fields = [], CompanyRelations[] filterRelations = []) returns stream<Company, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, Company, include, fields, filterRelations);
         if result is Error {
             return new stream<Company, Error?>(new CompanyStream((), result));
         } else {
@@ -70,8 +93,8 @@ client class CompanyClient {
         }
     }
 
-    remote function update(Company 'object) returns Error? {
-        _ = check self.persistClient.runUpdateQuery('object);
+    remote function update(Company 'object, Company? original = ()) returns Error? {
+        _ = check self.persistClient.runUpdateQuery('object, original);
     }
 
     remote function delete(Company 'object) returns Error? {
@@ -79,14 +102,30 @@ client class CompanyClient {
     }
 
     remote function exists(Company company) returns boolean|Error {
-        Company|Error result = self->readByKey(company.id);
-        if result is Company {
-            return true;
-        } else if result is InvalidKeyError {
-            return false;
-        } else {
-            return result;
-        }
+        return self.persistClient.runExistsQuery(company.id);
+    }
+
+    function createIfAbsent(Company value) returns Company|Error {
+        _ = check self.persistClient.runInsertIfAbsentQuery(value);
+        return value;
+    }
+
+    function createManyIfAbsent(Company[] values) returns Company[]|Error {
+        _ = check self.persistClient.runBatchInsertIfAbsentQuery(values);
+        return values;
+    }
+
+    function count(sql:ParameterizedQuery filterClause = ``, CompanyRelations[] filterRelations = []) returns int|Error {
+        return self.persistClient.runCountQuery(filterClause, filterRelations);
+    }
+
+    function aggregate(sql:ParameterizedQuery filterClause, AggregateField[] aggregates, string[] groupFields = [], CompanyRelations[] filterRelations = [])
+    returns stream<record {}, Error?>|Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields, filterRelations);
+    }
+
+    function getCacheStats() returns CacheStats? {
+        return self.persistClient.getCacheStats();
     }
 
     function close() returns Error? {
@@ -102,14 +141,10 @@ public enum CompanyRelations {
 public class CompanyStream {
     private stream<anydata, sql:Error?>? anydataStream;
     private Error? err;
-    private CompanyRelations[]? include;
-    private SQLClient? persistClient;
 
-    public isolated function init(stream<anydata, sql:Error?>? anydataStream, Error? err = (), CompanyRelations[]? include = (), SQLClient? persistClient = ()) {
+    public isolated function init(stream<anydata, sql:Error?>? anydataStream, Error? err = ()) {
         self.anydataStream = anydataStream;
         self.err = err;
-        self.include = include;
-        self.persistClient = persistClient;
     }
 
     public isolated function next() returns record {|Company value;|}|Error? {
@@ -124,7 +159,6 @@ public class CompanyStream {
                 return <Error>error(streamValue.message());
             } else {
                 record {|Company value;|} nextRecord = {value: <Company>streamValue.value};
-                check (<SQLClient>self.persistClient).getManyRelations(nextRecord.value, <CompanyRelations[]>self.include);
                 return nextRecord;
             }
         } else {
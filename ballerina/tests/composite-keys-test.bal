@@ -73,3 +73,162 @@ function compositeDuplicateKeys() returns error? {
     }
 
 }
+
+@test:Config {
+    groups: ["composite-keys", "batch-insert"]
+}
+function compositeCreateManyTest() returns error? {
+    DepartmentClient dClient = check new ();
+    Department[] departments = [
+        {hospitalCode: "CMB03", departmentId: 1, name: "ICU"},
+        {hospitalCode: "CMB03", departmentId: 2, name: "OPD"},
+        {hospitalCode: "CMB03", departmentId: 3, name: "ETU"}
+    ];
+    Department[] created = check dClient->createMany(departments);
+    test:assertEquals(created, departments);
+
+    Department retrieved = check dClient->readByKey({hospitalCode: "CMB03", departmentId: 3});
+    check dClient.close();
+    test:assertEquals(retrieved, departments[2]);
+}
+
+@test:Config {
+    groups: ["composite-keys", "read-by-keys"],
+    dependsOn: [compositeCreateManyTest]
+}
+function compositeReadByKeysTest() returns error? {
+    DepartmentClient dClient = check new ();
+    Department[] departments = check from Department department in dClient->readByKeys([
+            {hospitalCode: "CMB03", departmentId: 1},
+            {hospitalCode: "CMB03", departmentId: 3},
+            {hospitalCode: "CMB03", departmentId: 10}
+        ])
+        order by department.departmentId
+        select department;
+    check dClient.close();
+    test:assertEquals(departments, [
+        {hospitalCode: "CMB03", departmentId: 1, name: "ICU"},
+        {hospitalCode: "CMB03", departmentId: 3, name: "ETU"}
+    ]);
+}
+
+@test:Config {
+    groups: ["composite-keys", "read-by-keys"],
+    dependsOn: [compositeCreateManyTest]
+}
+function compositeReadByKeysBatchTest() returns error? {
+    // the keys are read in more than one batch, and the records are found in the first and the last batches
+    record {|string hospitalCode; int departmentId;|}[] keys = [{hospitalCode: "CMB03", departmentId: 1}];
+    foreach int departmentId in 100 ..< 2100 {
+        keys.push({hospitalCode: "CMB03", departmentId});
+    }
+    keys.push({hospitalCode: "CMB03", departmentId: 3});
+
+    DepartmentClient dClient = check new ();
+    Department[] departments = check from Department department in dClient->readByKeys(keys)
+        order by department.departmentId
+        select department;
+    check dClient.close();
+    test:assertEquals(departments, [
+        {hospitalCode: "CMB03", departmentId: 1, name: "ICU"},
+        {hospitalCode: "CMB03", departmentId: 3, name: "ETU"}
+    ]);
+}
+
+@test:Config {
+    groups: ["composite-keys", "upsert"]
+}
+function compositeUpsertTest() returns error? {
+    DepartmentClient dClient = check new ();
+    Department department = {hospitalCode: "CMB04", departmentId: 1, name: "ICU"};
+    _ = check dClient->upsert(department);
+
+    department.name = "ICU Updated";
+    _ = check dClient->upsertMany([department, {hospitalCode: "CMB04", departmentId: 2, name: "OPD"}]);
+
+    Department[] departments = check from Department retrieved in dClient->readByKeys([
+            {hospitalCode: "CMB04", departmentId: 1},
+            {hospitalCode: "CMB04", departmentId: 2}
+        ])
+        order by retrieved.departmentId
+        select retrieved;
+    check dClient.close();
+    test:assertEquals(departments, [
+        {hospitalCode: "CMB04", departmentId: 1, name: "ICU Updated"},
+        {hospitalCode: "CMB04", departmentId: 2, name: "OPD"}
+    ]);
+}
+
+@test:Config {
+    groups: ["composite-keys", "partial-update"],
+    dependsOn: [compositeUpsertTest]
+}
+function compositePartialUpdateTest() returns error? {
+    DepartmentClient dClient = check new ();
+    Department original = check dClient->readByKey({hospitalCode: "CMB04", departmentId: 2});
+    check dClient->update(original.clone(), original);
+
+    Department modified = original.clone();
+    modified.name = "OPD Updated";
+    check dClient->update(modified, original);
+
+    Department retrieved = check dClient->readByKey({hospitalCode: "CMB04", departmentId: 2});
+    check dClient.close();
+    test:assertEquals(retrieved, {hospitalCode: "CMB04", departmentId: 2, name: "OPD Updated"});
+}
+
+@test:Config {
+    groups: ["composite-keys", "cache"]
+}
+function compositeCacheTest() returns error? {
+    DepartmentClient dClient = check new ({capacity: 1});
+    _ = check dClient->createMany([
+        {hospitalCode: "CMB05", departmentId: 1, name: "ICU"},
+        {hospitalCode: "CMB05", departmentId: 2, name: "OPD"}
+    ]);
+
+    _ = check dClient->readByKey({hospitalCode: "CMB05", departmentId: 1});
+    Department department = check dClient->readByKey({hospitalCode: "CMB05", departmentId: 1});
+    test:assertEquals(department, {hospitalCode: "CMB05", departmentId: 1, name: "ICU"});
+
+    DepartmentClient uncachedClient = check new ();
+    check uncachedClient->update({hospitalCode: "CMB05", departmentId: 1, name: "ICU Updated"});
+    department = check dClient->readByKey({hospitalCode: "CMB05", departmentId: 1});
+    test:assertEquals(department, {hospitalCode: "CMB05", departmentId: 1, name: "ICU Updated"});
+
+    _ = check dClient->readByKey({hospitalCode: "CMB05", departmentId: 2});
+    CacheStats? stats = dClient.getCacheStats();
+    check uncachedClient.close();
+    check dClient.close();
+    test:assertEquals(stats, <CacheStats>{hits: 1, misses: 3, evictions: 1, size: 1});
+}
+
+@test:Config {
+    groups: ["composite-keys", "cache"],
+    dependsOn: [compositeCacheTest]
+}
+function compositeCacheConfigMismatchTest() returns error? {
+    DepartmentClient|Error dClient = new ({capacity: 2});
+    if dClient is Error {
+        test:assertEquals(dClient.message(), "The cache of the 'Department' entity is already configured with a different capacity or time to live.");
+    } else {
+        check dClient.close();
+        test:assertFail("Error expected");
+    }
+}
+
+@test:Config {
+    groups: ["composite-keys", "partial-update"],
+    dependsOn: [compositePartialUpdateTest]
+}
+function compositeUpdateUnknownFieldTest() returns error? {
+    DepartmentClient dClient = check new ();
+    Error? result = dClient->update({hospitalCode: "CMB04", departmentId: 2, location: "Colombo"});
+    check dClient.close();
+
+    if result is FieldDoesNotExistError {
+        test:assertEquals(result.message(), "Field 'location' does not exist in entity 'Department'.");
+    } else {
+        test:assertFail("FieldDoesNotExistError expected");
+    }
+}
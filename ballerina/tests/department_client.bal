@@ -30,13 +30,12 @@ client class DepartmentClient {
 
     private SQLClient persistClient;
 
-    public function init() returns Error? {
-        mysql:Client|sql:Error dbClient = new (host = host, user = user, password = password, database = database, port = port);
-        if dbClient is sql:Error {
-            return <Error>error(dbClient.message());
-        }
+    public function init(CacheConfig? cacheConfig = ()) returns Error? {
+        sql:Client dbClient = check getSqlClient({host, port, user, database}, function () returns sql:Client|sql:Error {
+            return new mysql:Client(host = host, user = user, password = password, database = database, port = port);
+        });
 
-        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata);
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, cacheConfig = cacheConfig);
     }
 
     remote function create(Department value) returns Department|Error {
@@ -44,10 +43,34 @@ client class DepartmentClient {
         return value;
     }
 
+    remote function createMany(Department[] values) returns Department[]|Error {
+        _ = check self.persistClient.runBatchInsertQuery(values);
+        return values;
+    }
+
+    remote function upsert(Department value) returns Department|Error {
+        _ = check self.persistClient.runUpsertQuery(value);
+        return value;
+    }
+
+    remote function upsertMany(Department[] values) returns Department[]|Error {
+        _ = check self.persistClient.runBatchUpsertQuery(values);
+        return values;
+    }
+
     remote function readByKey(record {|string hospitalCode; int departmentId;|} key) returns Department|Error {
         return <Department>check self.persistClient.runReadByKeyQuery(Department, key);
     }
 
+    remote function readByKeys(record {|string hospitalCode; int departmentId;|}[] keys) returns stream<Department, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runReadByKeysQuery(Department, keys);
+        if result is Error {
+            return new stream<Department, Error?>(new DepartmentStream((), result));
+        } else {
+            return new stream<Department, Error?>(new DepartmentStream(result));
+        }
+    }
+
     remote function read() returns stream<Department, Error?> {
         stream<anydata, sql:Error?>|Error result = self.persistClient.runReadQuery(Department);
         if result is Error {
@@ -57,8 +80,8 @@ client class DepartmentClient {
         }
     }
 
-    remote function execute(sql:ParameterizedQuery filterClause) returns stream<Department, Error?> {
-        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, Department);
+    remote function execute(sql:ParameterizedQuery filterClause, string[] fields = []) returns stream<Department, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, Department, fields = fields);
         if result is Error {
             return new stream<Department, Error?>(new DepartmentStream((), result));
         } else {
@@ -66,14 +89,27 @@ client class DepartmentClient {
         }
     }
 
-    remote function update(record {} 'object) returns Error? {
-        _ = check self.persistClient.runUpdateQuery('object);
+    remote function update(record {} 'object, record {}? original = ()) returns Error? {
+        _ = check self.persistClient.runUpdateQuery('object, original);
     }
 
     remote function delete(Department 'object) returns Error? {
         _ = check self.persistClient.runDeleteQuery('object);
     }
 
+    function count(sql:ParameterizedQuery filterClause = ``) returns int|Error {
+        return self.persistClient.runCountQuery(filterClause);
+    }
+
+    function aggregate(sql:ParameterizedQuery filterClause, AggregateField[] aggregates, string[] groupFields = [])
+    returns stream<record {}, Error?>|Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields);
+    }
+
+    function getCacheStats() returns CacheStats? {
+        return self.persistClient.getCacheStats();
+    }
+
     function close() returns Error? {
         return self.persistClient.close();
     }
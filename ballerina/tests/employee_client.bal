@@ -33,33 +33,54 @@ client class EmployeeClient {
     };
 
     private SQLClient persistClient;
+    private final CompanyClient companyClient;
 
-    public function init() returns Error? {
-        mysql:Client|sql:Error dbClient = new (host = host, user = user, password = password, database = database, port = port);
-        if dbClient is sql:Error {
-            return <Error>error(dbClient.message());
-        }
+    public function init(CacheConfig? cacheConfig = ()) returns Error? {
+        sql:Client dbClient = check getSqlClient({host, port, user, database}, function () returns sql:Client|sql:Error {
+            return new mysql:Client(host = host, user = user, password = password, database = database, port = port);
+        });
 
-        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata);
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata, cacheConfig);
+        self.companyClient = check new ();
     }
 
     remote function create(Employee value) returns Employee|Error {
-        if value.company is Company {
-            CompanyClient companyClient = check new CompanyClient();
-            boolean exists = check companyClient->exists(<Company>value.company);
-            if !exists {
-                value.company = check companyClient->create(<Company>value.company);
-            }
-        }
-
+        check self.createRelation(value);
         _ = check self.persistClient.runInsertQuery(value);
         return value;
     }
 
+    remote function createMany(Employee[] values) returns Employee[]|Error {
+        check self.createRelations(values);
+        _ = check self.persistClient.runBatchInsertQuery(values);
+        return values;
+    }
+
+    remote function upsert(Employee value) returns Employee|Error {
+        check self.createRelation(value);
+        _ = check self.persistClient.runUpsertQuery(value);
+        return value;
+    }
+
+    remote function upsertMany(Employee[] values) returns Employee[]|Error {
+        check self.createRelations(values);
+        _ = check self.persistClient.runBatchUpsertQuery(values);
+        return values;
+    }
+
     remote function readByKey(int key, EmployeeRelations[] include = []) returns Employee|Error {
         return <Employee>check self.persistClient.runReadByKeyQuery(Employee, key, include);
     }
 
+    remote function readByKeys(int[] keys, EmployeeRelations[] include = []) returns stream<Employee, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runReadByKeysQuery(Employee, keys, include);
+        if result is Error {
+            return new stream<Employee, Error?>(new EmployeeStream((), result));
+        } else {
+            return new stream<Employee, Error?>(new EmployeeStream(result));
+        }
+    }
+
     remote function read(EmployeeRelations[] include = []) returns stream<Employee, Error?> {
         stream<anydata, sql:Error?>|Error result = self.persistClient.runReadQuery(Employee, include);
         if result is Error {
@@ -69,8 +90,8 @@ client class EmployeeClient {
         }
     }
 
-    remote function execute(sql:ParameterizedQuery filterClause) returns stream<Employee, Error?> {
-        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, Employee);
+    remote function execute(sql:ParameterizedQuery filterClause, EmployeeRelations[] include = [], string[] fields = [], EmployeeRelations[] filterRelations = []) returns stream<Employee, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, Employee, include, fields, filterRelations);
         if result is error {
             return new stream<Employee, Error?>(new EmployeeStream((), result));
         } else {
@@ -78,13 +99,13 @@ client class EmployeeClient {
         }
     }
 
-    remote function update(record {} 'object) returns Error? {
-        _ = check self.persistClient.runUpdateQuery('object);
+    remote function update(record {} 'object, record {}? original = ()) returns Error? {
+        _ = check self.persistClient.runUpdateQuery('object, original);
 
         if 'object["company"] is Company {
             Company companyEntity = <Company>'object["company"];
-            CompanyClient companyClient = check new CompanyClient();
-            check companyClient->update(companyEntity);
+            Company? originalCompany = original is record {} && original["company"] is Company ? <Company>original["company"] : ();
+            check self.companyClient->update(companyEntity, originalCompany);
         }
     }
 
@@ -93,14 +114,39 @@ client class EmployeeClient {
     }
 
     remote function exists(Employee employee) returns boolean|Error {
-        Employee|Error result = self->readByKey(employee.id);
-        if result is Employee {
-            return true;
-        } else if result is InvalidKeyError {
-            return false;
-        } else {
-            return result;
+        return self.persistClient.runExistsQuery(employee.id);
+    }
+
+    private function createRelation(Employee value) returns Error? {
+        if value.company is Company {
+            value.company = check self.companyClient.createIfAbsent(<Company>value.company);
+        }
+    }
+
+    private function createRelations(Employee[] values) returns Error? {
+        Company[] companies = [];
+        foreach Employee value in values {
+            if value.company is Company {
+                companies.push(<Company>value.company);
+            }
         }
+
+        if companies.length() > 0 {
+            _ = check self.companyClient.createManyIfAbsent(companies);
+        }
+    }
+
+    function count(sql:ParameterizedQuery filterClause = ``, EmployeeRelations[] filterRelations = []) returns int|Error {
+        return self.persistClient.runCountQuery(filterClause, filterRelations);
+    }
+
+    function aggregate(sql:ParameterizedQuery filterClause, AggregateField[] aggregates, string[] groupFields = [], EmployeeRelations[] filterRelations = [])
+    returns stream<record {}, Error?>|Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields, filterRelations);
+    }
+
+    function getCacheStats() returns CacheStats? {
+        return self.persistClient.getCacheStats();
     }
 
     function close() returns Error? {
@@ -22,3 +22,8 @@ function truncate() returns error? {
     _ = check dbClient->execute(`SET FOREIGN_KEY_CHECKS = 1`);
     check dbClient.close();
 }
+
+@test:AfterSuite
+function closeClients() returns error? {
+    check closeSqlClients();
+}
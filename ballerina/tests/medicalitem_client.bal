@@ -31,13 +31,12 @@ public client class MedicalItemClient {
 
     private SQLClient persistClient;
 
-    public function init() returns Error? {
-        mysql:Client|sql:Error dbClient = new (host = host, user = user, password = password, database = database, port = port);
-        if dbClient is sql:Error {
-            return <Error>error(dbClient.message());
-        }
+    public function init(CacheConfig? cacheConfig = ()) returns Error? {
+        sql:Client dbClient = check getSqlClient({host, port, user, database}, function () returns sql:Client|sql:Error {
+            return new mysql:Client(host = host, user = user, password = password, database = database, port = port);
+        });
 
-        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata);
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, cacheConfig = cacheConfig);
     }
 
     remote function create(MedicalItem value) returns MedicalItem|Error {
@@ -45,10 +44,34 @@ public client class MedicalItemClient {
         return value;
     }
 
+    remote function createMany(MedicalItem[] values) returns MedicalItem[]|Error {
+        _ = check self.persistClient.runBatchInsertQuery(values);
+        return values;
+    }
+
+    remote function upsert(MedicalItem value) returns MedicalItem|Error {
+        _ = check self.persistClient.runUpsertQuery(value);
+        return value;
+    }
+
+    remote function upsertMany(MedicalItem[] values) returns MedicalItem[]|Error {
+        _ = check self.persistClient.runBatchUpsertQuery(values);
+        return values;
+    }
+
     remote function readByKey(int key) returns MedicalItem|Error {
         return <MedicalItem>check self.persistClient.runReadByKeyQuery(MedicalItem, key);
     }
 
+    remote function readByKeys(int[] keys) returns stream<MedicalItem, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runReadByKeysQuery(MedicalItem, keys);
+        if result is Error {
+            return new stream<MedicalItem, Error?>(new MedicalItemStream((), result));
+        } else {
+            return new stream<MedicalItem, Error?>(new MedicalItemStream(result));
+        }
+    }
+
     remote function read() returns stream<MedicalItem, Error?> {
         stream<anydata, sql:Error?>|Error result = self.persistClient.runReadQuery(MedicalItem);
         if result is Error {
@@ -58,8 +81,8 @@ public client class MedicalItemClient {
         }
     }
 
-    remote function execute(sql:ParameterizedQuery filterClause) returns stream<MedicalItem, Error?> {
-        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, MedicalItem);
+    remote function execute(sql:ParameterizedQuery filterClause, string[] fields = []) returns stream<MedicalItem, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, MedicalItem, fields = fields);
         if result is Error {
             return new stream<MedicalItem, Error?>(new MedicalItemStream((), result));
         } else {
@@ -67,14 +90,27 @@ public client class MedicalItemClient {
         }
     }
 
-    remote function update(MedicalItem 'object) returns Error? {
-        _ = check self.persistClient.runUpdateQuery('object);
+    remote function update(MedicalItem 'object, MedicalItem? original = ()) returns Error? {
+        _ = check self.persistClient.runUpdateQuery('object, original);
     }
 
     remote function delete(MedicalItem 'object) returns Error? {
         _ = check self.persistClient.runDeleteQuery('object);
     }
 
+    public function count(sql:ParameterizedQuery filterClause = ``) returns int|Error {
+        return self.persistClient.runCountQuery(filterClause);
+    }
+
+    public function aggregate(sql:ParameterizedQuery filterClause, AggregateField[] aggregates, string[] groupFields = [])
+    returns stream<record {}, Error?>|Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields);
+    }
+
+    public function getCacheStats() returns CacheStats? {
+        return self.persistClient.getCacheStats();
+    }
+
     public function close() returns Error? {
         return self.persistClient.close();
     }
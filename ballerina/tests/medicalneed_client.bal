@@ -35,13 +35,12 @@ public client class MedicalNeedClient {
 
     private SQLClient persistClient;
 
-    public function init() returns Error? {
-        mysql:Client|sql:Error dbClient = new (host = host, user = user, password = password, database = database, port = port);
-        if dbClient is sql:Error {
-            return <Error>error(dbClient.message());
-        }
+    public function init(CacheConfig? cacheConfig = ()) returns Error? {
+        sql:Client dbClient = check getSqlClient({host, port, user, database}, function () returns sql:Client|sql:Error {
+            return new mysql:Client(host = host, user = user, password = password, database = database, port = port);
+        });
 
-        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata);
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, cacheConfig = cacheConfig);
     }
 
     remote function create(MedicalNeed value) returns MedicalNeed|Error {
@@ -61,6 +60,15 @@ public client class MedicalNeedClient {
         return <MedicalNeed>check self.persistClient.runReadByKeyQuery(MedicalNeed, key);
     }
 
+    remote function readByKeys(int[] keys) returns stream<MedicalNeed, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runReadByKeysQuery(MedicalNeed, keys);
+        if result is Error {
+            return new stream<MedicalNeed, Error?>(new MedicalNeedStream((), result));
+        } else {
+            return new stream<MedicalNeed, Error?>(new MedicalNeedStream(result));
+        }
+    }
+
     remote function read() returns stream<MedicalNeed, Error?> {
         stream<anydata, sql:Error?>|Error result = self.persistClient.runReadQuery(MedicalNeed);
         if result is Error {
@@ -70,8 +78,8 @@ public client class MedicalNeedClient {
         }
     }
 
-    remote function execute(sql:ParameterizedQuery filterClause) returns stream<MedicalNeed, Error?> {
-        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, MedicalNeed);
+    remote function execute(sql:ParameterizedQuery filterClause, string[] fields = []) returns stream<MedicalNeed, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, MedicalNeed, fields = fields);
         if result is Error {
             return new stream<MedicalNeed, Error?>(new MedicalNeedStream((), result));
         } else {
@@ -79,14 +87,27 @@ public client class MedicalNeedClient {
         }
     }
 
-    remote function update(MedicalNeed 'object) returns Error? {
-        _ = check self.persistClient.runUpdateQuery('object);
+    remote function update(MedicalNeed 'object, MedicalNeed? original = ()) returns Error? {
+        _ = check self.persistClient.runUpdateQuery('object, original);
     }
 
     remote function delete(MedicalNeed 'object) returns Error? {
         _ = check self.persistClient.runDeleteQuery('object);
     }
 
+    public function count(sql:ParameterizedQuery filterClause = ``) returns int|Error {
+        return self.persistClient.runCountQuery(filterClause);
+    }
+
+    public function aggregate(sql:ParameterizedQuery filterClause, AggregateField[] aggregates, string[] groupFields = [])
+    returns stream<record {}, Error?>|Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields);
+    }
+
+    public function getCacheStats() returns CacheStats? {
+        return self.persistClient.getCacheStats();
+    }
+
     public function close() returns Error? {
         return self.persistClient.close();
     }
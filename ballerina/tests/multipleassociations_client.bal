@@ -36,41 +36,56 @@ client class MultipleAssociationsClient {
     };
 
     private SQLClient persistClient;
+    private final ProfileClient profileClient;
+    private final UserClient userClient;
 
-    public function init() returns Error? {
-        mysql:Client|sql:Error dbClient = new (host = host, user = user, password = password, database = database, port = port);
-        if dbClient is sql:Error {
-            return <Error>error(dbClient.message());
-        }
+    public function init(CacheConfig? cacheConfig = ()) returns Error? {
+        sql:Client dbClient = check getSqlClient({host, port, user, database}, function () returns sql:Client|sql:Error {
+            return new mysql:Client(host = host, user = user, password = password, database = database, port = port);
+        });
 
-        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata);
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata, cacheConfig);
+        self.profileClient = check new ();
+        self.userClient = check new ();
     }
 
     remote function create(MultipleAssociations value) returns MultipleAssociations|Error {
-        if value.profile is Profile {
-            ProfileClient profileClient = check new ProfileClient();
-            boolean exists = check profileClient->exists(<Profile>value.profile);
-            if !exists {
-                value.profile = check profileClient->create(<Profile>value.profile);
-            }
-        }
+        check self.createRelation(value);
+        _ = check self.persistClient.runInsertQuery(value);
+        return value;
+    }
 
-        if value.user is User {
-            UserClient userClient = check new UserClient();
-            boolean exists = check userClient->exists(<User>value.user);
-            if !exists {
-                value.user = check userClient->create(<User>value.user);
-            }
-        }
+    remote function createMany(MultipleAssociations[] values) returns MultipleAssociations[]|Error {
+        check self.createRelations(values);
+        _ = check self.persistClient.runBatchInsertQuery(values);
+        return values;
+    }
 
-        _ = check self.persistClient.runInsertQuery(value);
+    remote function upsert(MultipleAssociations value) returns MultipleAssociations|Error {
+        check self.createRelation(value);
+        _ = check self.persistClient.runUpsertQuery(value);
         return value;
     }
 
+    remote function upsertMany(MultipleAssociations[] values) returns MultipleAssociations[]|Error {
+        check self.createRelations(values);
+        _ = check self.persistClient.runBatchUpsertQuery(values);
+        return values;
+    }
+
     remote function readByKey(int key, MultipleAssociationsRelations[] include = []) returns MultipleAssociations|Error {
         return <MultipleAssociations>check self.persistClient.runReadByKeyQuery(MultipleAssociations, key, include);
     }
 
+    remote function readByKeys(int[] keys, MultipleAssociationsRelations[] include = []) returns stream<MultipleAssociations, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runReadByKeysQuery(MultipleAssociations, keys, include);
+        if result is Error {
+            return new stream<MultipleAssociations, Error?>(new MultipleAssociationsStream((), result));
+        } else {
+            return new stream<MultipleAssociations, Error?>(new MultipleAssociationsStream(result));
+        }
+    }
+
     remote function read(MultipleAssociationsRelations[] include = []) returns stream<MultipleAssociations, Error?> {
         stream<anydata, sql:Error?>|Error result = self.persistClient.runReadQuery(MultipleAssociations, include);
         if result is Error {
@@ -80,8 +95,8 @@ client class MultipleAssociationsClient {
         }
     }
 
-    remote function execute(sql:ParameterizedQuery filterClause) returns stream<MultipleAssociations, Error?> {
-        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, MultipleAssociations);
+    remote function execute(sql:ParameterizedQuery filterClause, MultipleAssociationsRelations[] include = [], string[] fields = [], MultipleAssociationsRelations[] filterRelations = []) returns stream<MultipleAssociations, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, MultipleAssociations, include, fields, filterRelations);
         if result is Error {
             return new stream<MultipleAssociations, Error?>(new MultipleAssociationsStream((), result));
         } else {
@@ -89,19 +104,17 @@ client class MultipleAssociationsClient {
         }
     }
 
-    remote function update(MultipleAssociations 'object) returns Error? {
-        _ = check self.persistClient.runUpdateQuery('object);
+    remote function update(MultipleAssociations 'object, MultipleAssociations? original = ()) returns Error? {
+        _ = check self.persistClient.runUpdateQuery('object, original);
 
         if 'object["profile"] is Profile {
             Profile profileEntity = <Profile>'object["profile"];
-            ProfileClient profileClient = check new ProfileClient();
-            check profileClient->update(profileEntity);
+            check self.profileClient->update(profileEntity, original?.profile);
         }
 
         if 'object["user"] is User {
             User userEntity = <User>'object["user"];
-            UserClient userClient = check new UserClient();
-            check userClient->update(userEntity);
+            check self.userClient->update(userEntity, original?.user);
         }
     }
 
@@ -110,14 +123,50 @@ client class MultipleAssociationsClient {
     }
 
     remote function exists(MultipleAssociations multipleAssociations) returns boolean|Error {
-        MultipleAssociations|Error result = self->readByKey(multipleAssociations.id);
-        if result is MultipleAssociations {
-            return true;
-        } else if result is InvalidKeyError {
-            return false;
-        } else {
-            return result;
+        return self.persistClient.runExistsQuery(multipleAssociations.id);
+    }
+
+    private function createRelation(MultipleAssociations value) returns Error? {
+        if value.profile is Profile {
+            value.profile = check self.profileClient.createIfAbsent(<Profile>value.profile);
         }
+
+        if value.user is User {
+            value.user = check self.userClient.createIfAbsent(<User>value.user);
+        }
+    }
+
+    private function createRelations(MultipleAssociations[] values) returns Error? {
+        Profile[] profiles = [];
+        User[] users = [];
+        foreach MultipleAssociations value in values {
+            if value.profile is Profile {
+                profiles.push(<Profile>value.profile);
+            }
+            if value.user is User {
+                users.push(<User>value.user);
+            }
+        }
+
+        if profiles.length() > 0 {
+            _ = check self.profileClient.createManyIfAbsent(profiles);
+        }
+        if users.length() > 0 {
+            _ = check self.userClient.createManyIfAbsent(users);
+        }
+    }
+
+    function count(sql:ParameterizedQuery filterClause = ``, MultipleAssociationsRelations[] filterRelations = []) returns int|Error {
+        return self.persistClient.runCountQuery(filterClause, filterRelations);
+    }
+
+    function aggregate(sql:ParameterizedQuery filterClause, AggregateField[] aggregates, string[] groupFields = [], MultipleAssociationsRelations[] filterRelations = [])
+    returns stream<record {}, Error?>|Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields, filterRelations);
+    }
+
+    function getCacheStats() returns CacheStats? {
+        return self.persistClient.getCacheStats();
     }
 
     function close() returns Error? {
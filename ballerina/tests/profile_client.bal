@@ -33,33 +33,54 @@ client class ProfileClient {
     };
 
     private SQLClient persistClient;
+    private final UserClient userClient;
 
-    public function init() returns Error? {
-        mysql:Client|sql:Error dbClient = new (host = host, user = user, password = password, database = database, port = port);
-        if dbClient is sql:Error {
-            return <Error>error(dbClient.message());
-        }
+    public function init(CacheConfig? cacheConfig = ()) returns Error? {
+        sql:Client dbClient = check getSqlClient({host, port, user, database}, function () returns sql:Client|sql:Error {
+            return new mysql:Client(host = host, user = user, password = password, database = database, port = port);
+        });
 
-        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata);
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata, cacheConfig);
+        self.userClient = check new ();
     }
 
     remote function create(Profile value) returns Profile|Error {
-        if value.user is User {
-            UserClient userClient = check new UserClient();
-            boolean exists = check userClient->exists(<User>value.user);
-            if !exists {
-                value.user = check userClient->create(<User>value.user);
-            }
-        }
-
+        check self.createRelation(value);
         _ = check self.persistClient.runInsertQuery(value);
         return value;
     }
 
+    remote function createMany(Profile[] values) returns Profile[]|Error {
+        check self.createRelations(values);
+        _ = check self.persistClient.runBatchInsertQuery(values);
+        return values;
+    }
+
+    remote function upsert(Profile value) returns Profile|Error {
+        check self.createRelation(value);
+        _ = check self.persistClient.runUpsertQuery(value);
+        return value;
+    }
+
+    remote function upsertMany(Profile[] values) returns Profile[]|Error {
+        check self.createRelations(values);
+        _ = check self.persistClient.runBatchUpsertQuery(values);
+        return values;
+    }
+
     remote function readByKey(int key, ProfileRelations[] include = []) returns Profile|Error {
         return <Profile>check self.persistClient.runReadByKeyQuery(Profile, key, include);
     }
 
+    remote function readByKeys(int[] keys, ProfileRelations[] include = []) returns stream<Profile, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runReadByKeysQuery(Profile, keys, include);
+        if result is error {
+            return new stream<Profile, Error?>(new ProfileStream((), result));
+        } else {
+            return new stream<Profile, Error?>(new ProfileStream(result));
+        }
+    }
+
     remote function read(ProfileRelations[] include = []) returns stream<Profile, Error?> {
         stream<anydata, sql:Error?>|Error result = self.persistClient.runReadQuery(Profile, include);
         if result is error {
@@ -69,8 +90,8 @@ client class ProfileClient {
         }
     }
 
-    remote function execute(sql:ParameterizedQuery filterClause) returns stream<Profile, Error?> {
-        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, Profile);
+    remote function execute(sql:ParameterizedQuery filterClause, ProfileRelations[] include = [], string[] fields = [], ProfileRelations[] filterRelations = []) returns stream<Profile, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, Profile, include, fields, filterRelations);
         if result is Error {
             return new stream<Profile, Error?>(new ProfileStream((), result));
         } else {
@@ -78,13 +99,12 @@ client class ProfileClient {
         }
     }
 
-    remote function update(Profile 'object) returns Error? {
-        _ = check self.persistClient.runUpdateQuery('object);
+    remote function update(Profile 'object, Profile? original = ()) returns Error? {
+        _ = check self.persistClient.runUpdateQuery('object, original);
 
         if 'object["user"] is User {
             User userEntity = <User>'object["user"];
-            UserClient userClient = check new UserClient();
-            check userClient->update(userEntity);
+            check self.userClient->update(userEntity, original?.user);
         }
     }
 
@@ -93,14 +113,51 @@ client class ProfileClient {
     }
 
     remote function exists(Profile profile) returns boolean|Error {
-        Profile|Error result = self->readByKey(profile.id);
-        if result is Profile {
-            return true;
-        } else if result is InvalidKeyError {
-            return false;
-        } else {
-            return result;
+        return self.persistClient.runExistsQuery(profile.id);
+    }
+
+    private function createRelation(Profile value) returns Error? {
+        if value.user is User {
+            value.user = check self.userClient.createIfAbsent(<User>value.user);
+        }
+    }
+
+    private function createRelations(Profile[] values) returns Error? {
+        User[] users = [];
+        foreach Profile value in values {
+            if value.user is User {
+                users.push(<User>value.user);
+            }
         }
+
+        if users.length() > 0 {
+            _ = check self.userClient.createManyIfAbsent(users);
+        }
+    }
+
+    function createIfAbsent(Profile value) returns Profile|Error {
+        check self.createRelation(value);
+        _ = check self.persistClient.runInsertIfAbsentQuery(value);
+        return value;
+    }
+
+    function createManyIfAbsent(Profile[] values) returns Profile[]|Error {
+        check self.createRelations(values);
+        _ = check self.persistClient.runBatchInsertIfAbsentQuery(values);
+        return values;
+    }
+
+    function count(sql:ParameterizedQuery filterClause = ``, ProfileRelations[] filterRelations = []) returns int|Error {
+        return self.persistClient.runCountQuery(filterClause, filterRelations);
+    }
+
+    function aggregate(sql:ParameterizedQuery filterClause, AggregateField[] aggregates, string[] groupFields = [], ProfileRelations[] filterRelations = [])
+    returns stream<record {}, Error?>|Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields, filterRelations);
+    }
+
+    function getCacheStats() returns CacheStats? {
+        return self.persistClient.getCacheStats();
     }
 
     function close() returns Error? {
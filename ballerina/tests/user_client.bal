@@ -34,13 +34,12 @@ client class UserClient {
 
     private SQLClient persistClient;
 
-    public function init() returns Error? {
-        mysql:Client|sql:Error dbClient = new (host = host, user = user, password = password, database = database, port = port);
-        if dbClient is sql:Error {
-            return <Error>error(dbClient.message());
-        }
+    public function init(CacheConfig? cacheConfig = ()) returns Error? {
+        sql:Client dbClient = check getSqlClient({host, port, user, database}, function () returns sql:Client|sql:Error {
+            return new mysql:Client(host = host, user = user, password = password, database = database, port = port);
+        });
 
-        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata);
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata, cacheConfig);
     }
 
     remote function create(User value) returns User|Error {
@@ -48,10 +47,34 @@ client class UserClient {
         return value;
     }
 
+    remote function createMany(User[] values) returns User[]|Error {
+        _ = check self.persistClient.runBatchInsertQuery(values);
+        return values;
+    }
+
+    remote function upsert(User value) returns User|Error {
+        _ = check self.persistClient.runUpsertQuery(value);
+        return value;
+    }
+
+    remote function upsertMany(User[] values) returns User[]|Error {
+        _ = check self.persistClient.runBatchUpsertQuery(values);
+        return values;
+    }
+
     remote function readByKey(int key, UserRelations[] include = []) returns User|Error {
         return <User>check self.persistClient.runReadByKeyQuery(User, key, include);
     }
 
+    remote function readByKeys(int[] keys, UserRelations[] include = []) returns stream<User, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runReadByKeysQuery(User, keys, include);
+        if result is Error {
+            return new stream<User, Error?>(new UserStream((), result));
+        } else {
+            return new stream<User, Error?>(new UserStream(result));
+        }
+    }
+
     remote function read(UserRelations[] include = []) returns stream<User, Error?> {
         stream<anydata, sql:Error?>|Error result = self.persistClient.runReadQuery(User, include);
         if result is Error {
@@ -61,16 +84,16 @@ client class UserClient {
         }
     }
 
-    remote function execute(sql:ParameterizedQuery filterClause) returns stream<User, Error?> {
-        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, User);
+    remote function execute(sql:ParameterizedQuery filterClause, UserRelations[] include = [], string[] fields = [], UserRelations[] filterRelations = []) returns stream<User, Error?> {
+        stream<anydata, sql:Error?>|Error result = self.persistClient.runExecuteQuery(filterClause, User, include, fields, filterRelations);
         if result is Error {
             return new stream<User, Error?>(new UserStream((), result));
         } else {
             return new stream<User, Error?>(new UserStream(result));
         }
     }
-    remote function update(User 'object) returns Error? {
-        _ = check self.persistClient.runUpdateQuery('object);
+    remote function update(User 'object, User? original = ()) returns Error? {
+        _ = check self.persistClient.runUpdateQuery('object, original);
     }
 
     remote function delete(User 'object) returns Error? {
@@ -78,14 +101,30 @@ client class UserClient {
     }
 
     remote function exists(User user) returns boolean|Error {
-        User|Error result = self->readByKey(user.id);
-        if result is User {
-            return true;
-        } else if result is InvalidKeyError {
-            return false;
-        } else {
-            return result;
-        }
+        return self.persistClient.runExistsQuery(user.id);
+    }
+
+    function createIfAbsent(User value) returns User|Error {
+        _ = check self.persistClient.runInsertIfAbsentQuery(value);
+        return value;
+    }
+
+    function createManyIfAbsent(User[] values) returns User[]|Error {
+        _ = check self.persistClient.runBatchInsertIfAbsentQuery(values);
+        return values;
+    }
+
+    function count(sql:ParameterizedQuery filterClause = ``, UserRelations[] filterRelations = []) returns int|Error {
+        return self.persistClient.runCountQuery(filterClause, filterRelations);
+    }
+
+    function aggregate(sql:ParameterizedQuery filterClause, AggregateField[] aggregates, string[] groupFields = [], UserRelations[] filterRelations = [])
+    returns stream<record {}, Error?>|Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields, filterRelations);
+    }
+
+    function getCacheStats() returns CacheStats? {
+        return self.persistClient.getCacheStats();
     }
 
     function close() returns Error? {
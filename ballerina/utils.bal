@@ -23,22 +23,100 @@ isolated function stringToParameterizedQuery(string queryStr) returns sql:Parame
     return query;
 }
 
-isolated function flattenRecord(record {} r) returns record {} {
-    record {} returnRecord = {};
-    foreach string key in r.keys() {
-        if r[key] is record {} {
-            record {} innerFlattenedRecord = flattenRecord(<record {}>r[key]);
-            foreach string innerKey in innerFlattenedRecord.keys() {
-                returnRecord[key + "." + innerKey] = innerFlattenedRecord[innerKey];
+isolated function createParameterizedQuery(string[] & readonly strings, sql:Value[] insertions) returns sql:ParameterizedQuery {
+    sql:ParameterizedQuery query = ``;
+    query.strings = strings;
+    query.insertions = insertions;
+    return query;
+}
+
+isolated function getListParamStrings(int paramCount) returns string[] & readonly {
+    if paramCount == 0 {
+        return ["()"];
+    }
+    string[] strings = ["("];
+    foreach int i in 1 ..< paramCount {
+        strings.push(", ");
+    }
+    strings.push(")");
+    return strings.cloneReadOnly();
+}
+
+isolated function getInClause(string[] columns, sql:Value[][] rows) returns sql:ParameterizedQuery {
+    boolean isRowValue = columns.length() > 1;
+    string[] strings = [isRowValue ? " (" + string:'join(", ", ...columns) + ") IN ((" : " " + columns[0] + " IN ("];
+    sql:Value[] values = [];
+    foreach int i in 0 ..< rows.length() {
+        foreach int j in 0 ..< rows[i].length() {
+            if i > 0 || j > 0 {
+                strings.push(isRowValue && j == 0 ? "), (" : ", ");
+            }
+        }
+        values.push(...rows[i]);
+    }
+    strings.push(isRowValue ? "))" : ")");
+    return createParameterizedQuery(strings.cloneReadOnly(), values);
+}
+
+# Expands the array values of a parameterized query into comma-separated values, e.g. `id IN (${ids})` into
+# `id IN (?, ?, ?)`, as the arrays cannot be bound as SQL parameters. An empty array is expanded into `NULL`,
+# which does not match any value.
+#
+# + query - The parameterized query
+# + return - The parameterized query, whose array values are expanded
+isolated function expandArrayValues(sql:ParameterizedQuery query) returns sql:ParameterizedQuery {
+    boolean hasArrayValue = false;
+    foreach sql:Value value in query.insertions {
+        if value is anydata[] && value !is byte[] {
+            hasArrayValue = true;
+            break;
+        }
+    }
+    if !hasArrayValue {
+        return query;
+    }
+
+    string[] strings = [query.strings[0]];
+    sql:Value[] values = [];
+    foreach int i in 0 ..< query.insertions.length() {
+        sql:Value value = query.insertions[i];
+        if value is anydata[] && value !is byte[] {
+            if value.length() == 0 {
+                strings[strings.length() - 1] += "NULL" + query.strings[i + 1];
+                continue;
+            }
+            foreach int j in 0 ..< value.length() {
+                if j > 0 {
+                    strings.push(", ");
+                }
+                values.push(<sql:Value>value[j]);
             }
         } else {
-            returnRecord[key] = r[key];
+            values.push(value);
         }
+        strings.push(query.strings[i + 1]);
+    }
+    return createParameterizedQuery(strings.cloneReadOnly(), values);
+}
+
+isolated function getRefValues(record {} 'object, string[] fields) returns sql:Value[] {
+    sql:Value[] values = [];
+    foreach string fieldName in fields {
+        values.push(<sql:Value>'object[fieldName]);
     }
-    return returnRecord;
+    return values;
 }
 
+isolated function getUpdateColumns(record {} 'object, record {}? original, map<string?|map<string?>> & readonly updateColumns,
+        string[] columnNames, sql:Value[] values) returns string? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.Utils"
+} external;
+
 isolated function convertToArray(typedesc<record {}> elementType, record {}[] arr) returns elementType[] = @java:Method {
     'class: "io.ballerina.stdlib.persist.Utils"
 } external;
 
+
+isolated function convertToRecordArray(typedesc<record {}> elementType, record {}[] rows) returns elementType[]|error = @java:Method {
+    'class: "io.ballerina.stdlib.persist.Utils"
+} external;
@@ -72,28 +72,32 @@ public class CodeModifierTest {
 
             if (document.name().equals("sample.bal")) {
                 // Positive test
-                String modifiedFunction =
+                List<String> modifiedFunctions = List.of(
                         "check from entity:MedicalNeed medicalNeed in mnClient->execute" +
-                                "(` WHERE quantity > 5 ORDER BY quantity DESC LIMIT 5`)\n" +
+                                "(` WHERE quantity > 5 ORDER BY quantity DESC LIMIT 5`, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
-                                "        };";
-                Assert.assertTrue(document.syntaxTree().toSourceCode().contains(modifiedFunction));
-
-                // Negative Tests
-                List<String> unmodifiedFunction = List.of(
-                        "from record {int needId; string period; int quantity;} medicalNeed in mns",
-                        "from entity:MedicalNeed medicalNeed in mnClient->read({quantity: 5})",
-                        "from entity:MedicalNeed medicalNeed in mnClient->execute(`quantity > ${quantityMinValue}`)",
-                        "check from entity:MedicalNeed medicalNeed in mnClient->read()\n" +
+                                "        };",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute" +
+                                "(` `, fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
                                 "        };"
                 );
+                modifiedFunctions.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+
+                // Negative Tests
+                List<String> unmodifiedFunction = List.of(
+                        "from record {int needId; string period; int quantity;} medicalNeed in mns",
+                        "from entity:MedicalNeed medicalNeed in mnClient->read({quantity: 5})",
+                        "from entity:MedicalNeed medicalNeed in mnClient->execute(`quantity > ${quantityMinValue}`)"
+                );
 
                 unmodifiedFunction.forEach(codeSnippet ->
                         Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
@@ -114,25 +118,27 @@ public class CodeModifierTest {
             Document document = newPackage.getDefaultModule().document(documentId);
 
             if (document.name().equals("sample.bal")) {
-                // Positive test
-                String modifiedFunction =
-                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` LIMIT 5`)\n" +
+                // Positive tests
+                List<String> modifiedFunctions = List.of(
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` LIMIT 5`, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
-                                "        };";
-                Assert.assertTrue(document.syntaxTree().toSourceCode().contains(modifiedFunction));
+                                "        };",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(" +
+                                "` LIMIT ${quantityMinValue}`, fields = [\"needId\", \"period\", \"quantity\"])\n" +
+                                "        select {",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(" +
+                                "` LIMIT ${quantityMinValue * 2}`, fields = [\"needId\", \"period\", \"quantity\"])\n" +
+                                "        select {"
+                );
+                modifiedFunctions.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
 
                 // Negative Tests
                 List<String> unmodifiedFunction = List.of(
-                        "check from entity:MedicalNeed medicalNeed in mnClient->read()\n" +
-                                "        limit quantityMinValue\n" +
-                                "        select {\n" +
-                                "            needId: medicalNeed.needId,\n" +
-                                "            period: medicalNeed.period,\n" +
-                                "            quantity: medicalNeed.quantity\n" +
-                                "        };",
                         "check from entity:MedicalNeed medicalNeed in mnClient->read()\n" +
                                 "        limit \"5\"\n" +
                                 "        select {\n" +
@@ -162,33 +168,38 @@ public class CodeModifierTest {
             if (document.name().equals("sample.bal")) {
                 // Positive test
                 List<String> modifiedFunctions = List.of(
-                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` ORDER BY quantity `)\n" +
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` ORDER BY quantity `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
                                 "        };",
-                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` ORDER BY quantity ASC `)\n" +
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` ORDER BY quantity ASC `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
                                 "        };",
-                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` ORDER BY needId DESC `)\n" +
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` ORDER BY needId DESC `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
                                 "        };",
                         "check from entity:MedicalNeed medicalNeed in mnClient->execute" +
-                                "(` ORDER BY quantity ASC , needId DESC `)\n" +
+                                "(` ORDER BY quantity ASC , needId DESC `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
                                 "        };",
                         "check from var {needId, period, quantity} in mnClient->execute" +
-                                "(` ORDER BY quantity , needId DESC `)\n" +
+                                "(` ORDER BY quantity , needId DESC `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: needId,\n" +
                                 "            period: period,\n" +
@@ -237,35 +248,40 @@ public class CodeModifierTest {
                 // Positive test
                 List<String> modifiedFunctions = List.of(
                         "check from entity:MedicalNeed medicalNeed in " +
-                                "mnClient->execute(` WHERE ( quantity < ${minQuantity} )  `)\n" +
+                                "mnClient->execute(` WHERE ( quantity < ${minQuantity} )  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
                                 "        };",
                         "check from var {needId, period, quantity} in " +
-                                "mnClient->execute(` WHERE quantity < ${minQuantity}  `)\n" +
+                                "mnClient->execute(` WHERE quantity < ${minQuantity}  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: needId,\n" +
                                 "            period: period,\n" +
                                 "            quantity: quantity\n" +
                                 "        };",
                         "check from entity:MedicalNeed medicalNeed in " +
-                                "mnClient->execute(` WHERE period = \"2022-10-10 01:02:03\" `)\n" +
+                                "mnClient->execute(` WHERE period = \"2022-10-10 01:02:03\" `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
                                 "        };",
                         "check from var {needId, period, quantity} in mnClient->execute(" +
-                                "` WHERE quantity < ${minQuantity}  AND quantity > 0 `)\n" +
+                                "` WHERE quantity < ${minQuantity}  AND quantity > 0 `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: needId,\n" +
                                 "            period: period,\n" +
                                 "            quantity: quantity\n" +
                                 "        };",
                         "check from var {needId, period, quantity} in mnClient->execute(" +
-                                "` WHERE quantity < ${minQuantity}  OR period = \"2022-10-10 01:02:03\" `)\n" +
+                                "` WHERE quantity < ${minQuantity}  OR period = \"2022-10-10 01:02:03\" `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: needId,\n" +
                                 "            period: period,\n" +
@@ -273,12 +289,48 @@ public class CodeModifierTest {
                                 "        };",
                         "check from var {needId, period, quantity} in mnClient->execute(" +
                                 "` WHERE ( quantity < ${minQuantity}  AND quantity > 0)  " +
-                                "OR period = \"2022-10-10 01:02:03\" `)\n" +
+                                "OR period = \"2022-10-10 01:02:03\" `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: needId,\n" +
                                 "            period: period,\n" +
                                 "            quantity: quantity\n" +
-                                "        };"
+                                "        };",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` WHERE itemId IS NULL  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\", \"itemId\"])\n" +
+                                "        select {",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(" +
+                                "` WHERE itemId IS NOT NULL  AND quantity > 0 `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\", \"itemId\"])\n" +
+                                "        select {",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(" +
+                                "` WHERE needId IN ( 1, ${minQuantity} , 3)  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
+                                "        select {",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(" +
+                                "` WHERE needId IN ( ${needIds} )  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
+                                "        select {",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(" +
+                                "` WHERE period LIKE CONCAT(REPLACE(REPLACE(REPLACE(${periodPrefix} , " +
+                                "'!', '!!'), '%', '!%'), '_', '!_'), '%') ESCAPE '!'  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
+                                "        select {",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(" +
+                                "` WHERE LOWER(period) LIKE CONCAT('%', REPLACE(REPLACE(REPLACE(\"03\", " +
+                                "'!', '!!'), '%', '!%'), '_', '!_')) ESCAPE '!'  AND CHAR_LENGTH(period) > " +
+                                "${minQuantity}  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
+                                "        select {",
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(" +
+                                "` WHERE quantity > ${minQuantity + 2 * 3}  AND quantity * 2 - 1 <= 100  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
+                                "        select {",
+                        // The divisions and the remainders of the literals are evaluated by Ballerina
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(" +
+                                "` WHERE quantity > ${7 / 2}  AND quantity < ${10 % 4 + 100}  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
+                                "        select {"
                 );
                 modifiedFunctions.forEach(codeSnippet ->
                         Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
@@ -287,10 +339,13 @@ public class CodeModifierTest {
                 List<String> unmodifiedFunction = List.of(
                         // todo This should not be modified
                         "check from var {needId, period, quantity} in " +
-                                "mnClient->execute(` WHERE ${quantity1} < ${minQuantity}  `)"
+                                "mnClient->execute(` WHERE ${quantity1} < ${minQuantity}  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])",
+                        "        where urgencies.indexOf(medicalNeed.urgency) != ()\n"
                 );
                 unmodifiedFunction.forEach(codeSnippet ->
                         Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+                Assert.assertFalse(document.syntaxTree().toSourceCode().contains("urgency IN"));
             }
         }
     }
@@ -311,32 +366,43 @@ public class CodeModifierTest {
                 // Positive test
                 List<String> modifiedFunctions = List.of(
                         "check from entity:MedicalNeed medicalNeed in " +
-                                "mnClient->execute(` WHERE ( quantity < ${minQuantity} )  LIMIT 5`)\n" +
+                                "mnClient->execute(` WHERE ( quantity < ${minQuantity} )  LIMIT 5`, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
                                 "        };",
                         "check from var {needId, period, quantity} in " +
-                                "mnClient->execute(` WHERE quantity < ${minQuantity}  ORDER BY quantity `)\n" +
+                                "mnClient->execute(` WHERE quantity < ${minQuantity}  ORDER BY quantity `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: needId,\n" +
                                 "            period: period,\n" +
                                 "            quantity: quantity\n" +
                                 "        };",
                         "check from entity:MedicalNeed medicalNeed in " +
-                                "mnClient->execute(` ORDER BY quantity LIMIT 5`)\n" +
+                                "mnClient->execute(` ORDER BY quantity LIMIT 5`, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: medicalNeed.needId,\n" +
                                 "            period: medicalNeed.period,\n" +
                                 "            quantity: medicalNeed.quantity\n" +
                                 "        };",
                         "check from var {needId, period, quantity} in mnClient->execute(" +
-                                "` WHERE quantity < ${minQuantity}  AND quantity > 0 ORDER BY quantity LIMIT 5`)\n" +
+                                "` WHERE quantity < ${minQuantity}  AND quantity > 0 ORDER BY quantity LIMIT 5`, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
                                 "        select {\n" +
                                 "            needId: needId,\n" +
                                 "            period: period,\n" +
                                 "            quantity: quantity\n" +
+                                "        };",
+                        "check from var {needId: id, quantity: q} in " +
+                                "mnClient->execute(` WHERE quantity < ${minQuantity}  ORDER BY quantity `, " +
+                                "fields = [\"needId\", \"quantity\"])\n" +
+                                "        select {\n" +
+                                "            needId: id,\n" +
+                                "            quantity: q\n" +
                                 "        };"
                 );
                 modifiedFunctions.forEach(codeSnippet ->
@@ -345,6 +411,281 @@ public class CodeModifierTest {
         }
     }
 
+    @Test
+    public void partialWhereClauseTest() {
+
+        Package currentPackage = loadPackage("package_07");
+
+        // Running the code generation
+        CodeModifierResult codeModifierResult = currentPackage.runCodeModifierPlugins();
+        Package newPackage = codeModifierResult.updatedPackage().orElse(currentPackage);
+
+        for (DocumentId documentId : newPackage.getDefaultModule().documentIds()) {
+            Document document = newPackage.getDefaultModule().document(documentId);
+
+            if (document.name().equals("partial_where_clause.bal")) {
+                // Positive test
+                List<String> modifiedFunctions = List.of(
+                        "check from entity:MedicalNeed medicalNeed in " +
+                                "mnClient->execute(` WHERE quantity < ${minQuantity}  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\", \"urgency\"])\n" +
+                                "        where isUrgent(medicalNeed.urgency)\n" +
+                                "        select {",
+                        "check from var {needId, period, quantity, urgency} in mnClient->execute(" +
+                                "` WHERE quantity < ${minQuantity}  AND quantity > 0 ORDER BY quantity `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\", \"urgency\"])\n" +
+                                "        where isUrgent(urgency)\n" +
+                                "        limit 5\n" +
+                                "        select {",
+                        // The limit is not pushed down as the second where clause filters the records in memory
+                        "check from entity:MedicalNeed medicalNeed in " +
+                                "mnClient->execute(` WHERE quantity < ${minQuantity}  `, " +
+                                "fields = [\"needId\", \"period\", \"quantity\", \"urgency\"])\n" +
+                                "        where isUrgent(medicalNeed.urgency)\n" +
+                                "        limit 5\n" +
+                                "        select {",
+                        // The where clause following the limit clause filters the limited records
+                        "check from entity:MedicalNeed medicalNeed in mnClient->execute(` LIMIT 5`, " +
+                                "fields = [\"needId\", \"period\", \"quantity\"])\n" +
+                                "        where medicalNeed.quantity < minQuantity\n" +
+                                "        select {"
+                );
+                modifiedFunctions.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+
+                // Negative Tests
+                List<String> unmodifiedFunction = List.of(
+                        "check from entity:MedicalNeed medicalNeed in mnClient->read()\n" +
+                                "        where isUrgent(medicalNeed.urgency)\n" +
+                                "        select {"
+                );
+                unmodifiedFunction.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+            }
+        }
+    }
+
+    @Test
+    public void countQueryTest() {
+
+        Package currentPackage = loadPackage("package_07");
+
+        // Running the code generation
+        CodeModifierResult codeModifierResult = currentPackage.runCodeModifierPlugins();
+        Package newPackage = codeModifierResult.updatedPackage().orElse(currentPackage);
+
+        for (DocumentId documentId : newPackage.getDefaultModule().documentIds()) {
+            Document document = newPackage.getDefaultModule().document(documentId);
+
+            if (document.name().equals("count_query.bal")) {
+                // Positive test
+                List<String> modifiedFunctions = List.of(
+                        "int urgentNeeds = (check mnClient.count(" +
+                                "` WHERE quantity > ${minQuantity}  AND urgency = \"URGENT\" `));",
+                        "int needs = (check mnClient.count(` `));"
+                );
+                modifiedFunctions.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+
+                // Negative Tests
+                List<String> unmodifiedFunction = List.of(
+                        "        select medicalNeed).length();\n" +
+                                "    io:println(limitedNeeds);",
+                        "        select medicalNeed.period.substring(0, 4)).length();\n" +
+                                "    io:println(periods);"
+                );
+                unmodifiedFunction.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+            }
+        }
+    }
+
+    @Test
+    public void aggregateQueryTest() {
+
+        Package currentPackage = loadPackage("package_07");
+
+        // Running the code generation
+        CodeModifierResult codeModifierResult = currentPackage.runCodeModifierPlugins();
+        Package newPackage = codeModifierResult.updatedPackage().orElse(currentPackage);
+
+        for (DocumentId documentId : newPackage.getDefaultModule().documentIds()) {
+            Document document = newPackage.getDefaultModule().document(documentId);
+
+            if (document.name().equals("aggregate_query.bal")) {
+                // Positive test
+                List<String> modifiedFunctions = List.of(
+                        "int urgentQuantity = int:sum(...check from record {} medicalNeed in " +
+                                "check mnClient.aggregate(` WHERE urgency = \"URGENT\" `, " +
+                                "[{'function: \"SUM\", fieldName: \"quantity\", alias: \"value\"}]) " +
+                                "where medicalNeed[\"value\"] != () select <int>medicalNeed[\"value\"]);",
+                        "int maxQuantity = int:max(0, ...check from record {} quantity in check mnClient.aggregate(" +
+                                "` `, [{'function: \"MAX\", fieldName: \"quantity\", alias: \"value\"}]) " +
+                                "where quantity[\"value\"] != () select <int>quantity[\"value\"]);"
+                );
+                modifiedFunctions.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+
+                // Negative Tests
+                List<String> unmodifiedFunction = List.of(
+                        "        limit 5\n" +
+                                "        select medicalNeed.quantity);\n" +
+                                "    io:println(limitedQuantity);"
+                );
+                unmodifiedFunction.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+            }
+        }
+    }
+
+    @Test
+    public void includeRelationsTest() {
+
+        Package currentPackage = loadPackage("package_07");
+
+        // Running the code generation
+        CodeModifierResult codeModifierResult = currentPackage.runCodeModifierPlugins();
+        Package newPackage = codeModifierResult.updatedPackage().orElse(currentPackage);
+
+        for (DocumentId documentId : newPackage.getDefaultModule().documentIds()) {
+            Document document = newPackage.getDefaultModule().document(documentId);
+
+            if (document.name().equals("include_relations.bal")) {
+                // Positive test
+                List<String> modifiedFunctions = List.of(
+                        "check from entity:Employee employee in employeeClient->execute(" +
+                                "` WHERE name = \"TestEmployee\" `, [empclient:CompanyEntity])\n" +
+                                "        select employee;",
+                        "check from var {id, name, company} in employeeClient->execute(` ORDER BY id `, " +
+                                "include = [empclient:CompanyEntity], fields = [\"id\", \"name\", \"company\"])\n" +
+                                "        select {",
+                        "check from entity:Employee employee in employeeClient->execute(" +
+                                "` WHERE company__name = \"TestCompany\" ORDER BY company__name , id DESC `, " +
+                                "filterRelations = [\"company\"])\n" +
+                                "        select employee;",
+                        "check from var {id, name, company} in employeeClient->execute(` WHERE id > 1 `, " +
+                                "[empclient:CompanyEntity], fields = [\"id\", \"name\", \"company\"])\n" +
+                                "        join entity:Company employer in companyClient->execute(" +
+                                "` WHERE name = \"TestCompany\" `, fields = [\"name\", \"id\"]) " +
+                                "on company?.id equals employer.id\n" +
+                                "        limit 5\n" +
+                                "        select {employee: name, company: employer.name};"
+                );
+                modifiedFunctions.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+
+                // The fields of the record fields, which are not relations, are filtered in memory
+                String partiallyModifiedFunction = "check from entity:Employee employee in employeeClient->execute(" +
+                        "` WHERE name = \"TestEmployee\" `)\n" +
+                        "        where employee?.joinedDate?.year == 2022\n" +
+                        "        select employee;";
+                Assert.assertTrue(document.syntaxTree().toSourceCode().contains(partiallyModifiedFunction),
+                        partiallyModifiedFunction);
+                Assert.assertFalse(document.syntaxTree().toSourceCode().contains("joinedDate__year"));
+            }
+        }
+    }
+
+    @Test
+    public void readByKeyLoopTest() {
+
+        Package currentPackage = loadPackage("package_07");
+
+        // Running the code generation
+        CodeModifierResult codeModifierResult = currentPackage.runCodeModifierPlugins();
+        Package newPackage = codeModifierResult.updatedPackage().orElse(currentPackage);
+
+        for (DocumentId documentId : newPackage.getDefaultModule().documentIds()) {
+            Document document = newPackage.getDefaultModule().document(documentId);
+
+            if (document.name().equals("read_by_key_loop.bal")) {
+                // Positive test
+                List<String> modifiedFunctions = List.of(
+                        "\n    map<entity:Company> companyRecords = check map from entity:Company company in " +
+                                "companyClient->readByKeys(from entity:Employee employee in employees " +
+                                "select employee.id) select [company.id.toString(), company];\n" +
+                                "    foreach entity:Employee employee in employees {\n" +
+                                "        entity:Company? companyRecord = companyRecords[employee.id.toString()]" +
+                                ".clone();\n" +
+                                "        entity:Company company;\n" +
+                                "        if companyRecord is entity:Company {\n" +
+                                "            company = companyRecord;\n" +
+                                "        } else {\n" +
+                                "            // Reads the record not read beforehand by readByKeys()\n" +
+                                "            company = check companyClient->readByKey(employee.id);\n" +
+                                "        }\n" +
+                                "        io:println(company.name);\n" +
+                                "    }\n\n",
+                        "    map<entity:Company> companyRecords = check map from entity:Company company in " +
+                                "companyClient->readByKeys(from int companyId in companyIds select companyId) " +
+                                "select [company.id.toString(), company];\n" +
+                                "    foreach int companyId in companyIds {\n" +
+                                "        entity:Company? companyRecord = companyRecords[companyId.toString()].clone();"
+                );
+                modifiedFunctions.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+
+                // Negative Tests
+                List<String> unmodifiedFunction = List.of(
+                        "    foreach entity:Employee employee in employees {\n" +
+                                "        entity:Company company = check companyClient->readByKey(employee.id);\n" +
+                                "        if company.name == \"\" {\n" +
+                                "            break;",
+                        "    foreach int companyId in [4, 5] {\n" +
+                                "        entity:Company company = check companyClient->readByKey(companyId);",
+                        "    foreach int companyId in updatedIds {\n" +
+                                "        entity:Company company = check companyClient->readByKey(companyId);\n" +
+                                "        entity:Company[] companies",
+                        "    foreach int companyId in updatedIds {\n" +
+                                "        entity:Company company = check companyClient->readByKey(companyId);\n" +
+                                "        company.name = company.name.toUpperCase();"
+                );
+                unmodifiedFunction.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+            }
+        }
+
+        // The readByKey() calls of the modified loops, which read the records missing among the records read
+        // beforehand, are not reported
+        PackageCompilation compilation = newPackage.getCompilation();
+        long readByKeyWarnings = compilation.diagnosticResult().diagnostics().stream()
+                .filter(r -> r.diagnosticInfo().code().equals(DiagnosticsCodes.PERSIST_204.getCode()))
+                .count();
+        Assert.assertEquals(readByKeyWarnings, 4);
+    }
+
+    @Test
+    public void unsupportedClientTest() {
+
+        Package currentPackage = loadPackage("package_07");
+
+        // Running the code generation
+        CodeModifierResult codeModifierResult = currentPackage.runCodeModifierPlugins();
+        Package newPackage = codeModifierResult.updatedPackage().orElse(currentPackage);
+
+        for (DocumentId documentId : newPackage.getDefaultModule().documentIds()) {
+            Document document = newPackage.getDefaultModule().document(documentId);
+
+            if (document.name().equals("unsupported_client.bal")) {
+                // The where clauses are pushed down, as the execute() method of the client accepts the filters
+                Assert.assertTrue(document.syntaxTree().toSourceCode().contains("mnClient->execute(` WHERE "));
+
+                // The client does not accept the projected fields, nor does it count or aggregate the records
+                List<String> unsupportedCalls = List.of("fields = ", "mnClient.count(", "mnClient.aggregate(");
+                unsupportedCalls.forEach(codeSnippet ->
+                        Assert.assertFalse(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+                List<String> unmodifiedFunction = List.of(
+                        "        select medicalNeed).length();\n" +
+                                "    io:println(urgentNeeds);",
+                        "        select medicalNeed.quantity);\n" +
+                                "    io:println(urgentQuantity);"
+                );
+                unmodifiedFunction.forEach(codeSnippet ->
+                        Assert.assertTrue(document.syntaxTree().toSourceCode().contains(codeSnippet), codeSnippet));
+            }
+        }
+    }
+
     @Test
     public void unsupportedExpressionTest() {
 
@@ -363,17 +704,13 @@ public class CodeModifierTest {
 
         long availableErrors = errorDiagnosticsList.size();
 
-        Assert.assertEquals(availableErrors, 3);
-
-        DiagnosticInfo limitClauseError = errorDiagnosticsList.get(0).diagnosticInfo();
-        Assert.assertEquals(limitClauseError.code(), DiagnosticsCodes.PERSIST_202.getCode());
-        Assert.assertEquals(limitClauseError.messageFormat(), DiagnosticsCodes.PERSIST_202.getMessage());
+        Assert.assertEquals(availableErrors, 2);
 
-        DiagnosticInfo orderbyClauseError = errorDiagnosticsList.get(1).diagnosticInfo();
+        DiagnosticInfo orderbyClauseError = errorDiagnosticsList.get(0).diagnosticInfo();
         Assert.assertEquals(orderbyClauseError.code(), DiagnosticsCodes.PERSIST_203.getCode());
         Assert.assertEquals(orderbyClauseError.messageFormat(), DiagnosticsCodes.PERSIST_203.getMessage());
 
-        DiagnosticInfo whereClauseError = errorDiagnosticsList.get(2).diagnosticInfo();
+        DiagnosticInfo whereClauseError = errorDiagnosticsList.get(1).diagnosticInfo();
         Assert.assertEquals(whereClauseError.code(), DiagnosticsCodes.PERSIST_201.getCode());
         Assert.assertEquals(whereClauseError.messageFormat(), DiagnosticsCodes.PERSIST_201.getMessage());
     }
@@ -210,10 +210,21 @@ public class CompilerPluginTest {
                 "is already used in another entity", DiagnosticsCodes.PERSIST_119.getCode(), 2);
     }
 
+    @Test
+    public void testReadByKeyInLoops() {
+        testDiagnostic("package_26", "Inefficient read: readByKey() function of persist client is invoked for " +
+                "each iteration, consider reading the records using readByKeys() before the iterations",
+                DiagnosticsCodes.PERSIST_204.getCode(), 3, DiagnosticSeverity.WARNING);
+    }
+
     private void testDiagnostic(String packageName, String msg, String code, int count) {
+        testDiagnostic(packageName, msg, code, count, DiagnosticSeverity.ERROR);
+    }
+
+    private void testDiagnostic(String packageName, String msg, String code, int count, DiagnosticSeverity severity) {
         DiagnosticResult diagnosticResult = loadPackage(packageName).getCompilation().diagnosticResult();
         List<Diagnostic> errorDiagnosticsList = diagnosticResult.diagnostics().stream().
-                filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.ERROR)).
+                filter(r -> r.diagnosticInfo().severity().equals(severity)).
                 collect(Collectors.toList());
         long availableErrors = errorDiagnosticsList.size();
         Assert.assertEquals(availableErrors, count);
@@ -42,6 +42,16 @@ public function main() returns error? {
         };
     io:println(mns1);
 
+    record {int needId; string period; int quantity;}[]? mns3 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        limit quantityMinValue * 2
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns3);
+
     record {int needId; string period; int quantity;}[]? mns2 =
     check from entity:MedicalNeed medicalNeed in mnClient->read()
         limit "5"
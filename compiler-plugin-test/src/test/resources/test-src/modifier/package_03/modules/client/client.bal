@@ -79,8 +79,8 @@ public client class MedicalNeedClient {
         }
     }
 
-    remote function execute(sql:ParameterizedQuery filterClause) returns stream<entity:MedicalNeed, persist:Error?> {
-        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runExecuteQuery(filterClause, entity:MedicalNeed);
+    remote function execute(sql:ParameterizedQuery filterClause, string[] fields = []) returns stream<entity:MedicalNeed, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runExecuteQuery(filterClause, entity:MedicalNeed, fields = fields);
         if result is persist:Error {
             return new stream<entity:MedicalNeed, persist:Error?>(new MedicalNeedStream((), result));
         } else {
@@ -96,6 +96,15 @@ public client class MedicalNeedClient {
         _ = check self.persistClient.runDeleteQuery('object);
     }
 
+    public function count(sql:ParameterizedQuery filterClause = ``) returns int|persist:Error {
+        return self.persistClient.runCountQuery(filterClause);
+    }
+
+    public function aggregate(sql:ParameterizedQuery filterClause, persist:AggregateField[] aggregates, string[] groupFields = [])
+    returns stream<record {}, persist:Error?>|persist:Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields);
+    }
+
     public function close() returns persist:Error? {
         return self.persistClient.close();
     }
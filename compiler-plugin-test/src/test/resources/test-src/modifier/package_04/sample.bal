@@ -92,5 +92,99 @@ public function main() returns error? {
         };
     io:println(mns5);
 
+    record {int needId; string period; int quantity;}[]? mns6 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where medicalNeed.itemId == ()
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns6);
+
+    record {int needId; string period; int quantity;}[]? mns7 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where () != medicalNeed.itemId && medicalNeed.quantity > 0
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns7);
+
+    record {int needId; string period; int quantity;}[]? mns8 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where medicalNeed.needId == 1 || medicalNeed.needId == minQuantity || 3 == medicalNeed.needId
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns8);
+
+    int[] needIds = [1, 2, 3];
+    record {int needId; string period; int quantity;}[]? mns9 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where needIds.indexOf(medicalNeed.needId) != ()
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns9);
+
+    string periodPrefix = "2022-10";
+    record {int needId; string period; int quantity;}[]? mns10 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where medicalNeed.period.startsWith(periodPrefix)
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns10);
+
+    record {int needId; string period; int quantity;}[]? mns11 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where string:endsWith(medicalNeed.period.toLowerCase(), "03") && medicalNeed.period.length() > minQuantity
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns11);
+
+    record {int needId; string period; int quantity;}[]? mns12 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where medicalNeed.quantity > minQuantity + 2 * 3 && medicalNeed.quantity * 2 - 1 <= 10 * (5 + 5)
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns12);
+
+    record {int needId; string period; int quantity;}[]? mns13 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where medicalNeed.quantity > 7 / 2 && medicalNeed.quantity < 10 % 4 + 100
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns13);
+
+    // `indexOf` of a string finds a substring, hence it is not a membership test
+    string urgencies = "URGENT,NORMAL";
+    record {int needId; string period; int quantity;}[]? mns14 =
+    check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where urgencies.indexOf(medicalNeed.urgency) != ()
+        select {
+            needId: medicalNeed.needId,
+            period: medicalNeed.period,
+            quantity: medicalNeed.quantity
+        };
+    io:println(mns14);
+
     check mnClient.close();
 }
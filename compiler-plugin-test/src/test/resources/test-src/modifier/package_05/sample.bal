@@ -67,5 +67,15 @@ public function main() returns error? {
         };
     io:println(mns3);
 
+    record {int needId; int quantity;}[]? mns4 =
+        check from var {needId: id, quantity: q} in mnClient->read()
+        where q < minQuantity
+        order by q
+        select {
+            needId: id,
+            quantity: q
+        };
+    io:println(mns4);
+
     check mnClient.close();
 }
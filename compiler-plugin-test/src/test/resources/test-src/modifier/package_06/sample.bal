@@ -21,17 +21,6 @@ import package_06.entity;
 public function main() returns error? {
     needclient:MedicalNeedClient mnClient = check new ();
 
-    int quantityMinValue = 5;
-    record {int needId; string period; int quantity;}[]? mns =
-    check from entity:MedicalNeed medicalNeed in mnClient->read()
-        limit quantityMinValue
-        select {
-            needId: medicalNeed.needId,
-            period: medicalNeed.period,
-            quantity: medicalNeed.quantity
-        };
-    io:println(mns);
-
     record {int needId; string period; int quantity;}[]? mns1 =
         check from entity:MedicalNeed medicalNeed in mnClient->read()
         order by "medicalNeed.quantity"
@@ -44,7 +33,7 @@ public function main() returns error? {
 
     record {int needId; string period; int quantity;}[]? mns2 =
         check from entity:MedicalNeed medicalNeed in mnClient->read()
-        where medicalNeed.quantity > 2 + 1
+        where medicalNeed.quantity / 2 > 1
         select {
             needId: medicalNeed.needId,
             period: medicalNeed.period,
@@ -0,0 +1,40 @@
+// Copyright (c) 2022 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import package_07.'client as needclient;
+import package_07.entity;
+
+public function aggregateMedicalNeeds() returns error? {
+    needclient:MedicalNeedClient mnClient = check new ();
+
+    int urgentQuantity = int:sum(...check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where medicalNeed.urgency == "URGENT"
+        order by medicalNeed.period
+        select medicalNeed.quantity);
+    io:println(urgentQuantity);
+
+    int maxQuantity = int:max(0, ...check from var {needId, quantity} in mnClient->read()
+        select quantity);
+    io:println(maxQuantity);
+
+    int limitedQuantity = int:sum(...check from entity:MedicalNeed medicalNeed in mnClient->read()
+        limit 5
+        select medicalNeed.quantity);
+    io:println(limitedQuantity);
+
+    check mnClient.close();
+}
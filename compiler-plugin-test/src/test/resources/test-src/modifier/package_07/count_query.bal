@@ -0,0 +1,47 @@
+// Copyright (c) 2022 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import package_07.'client as needclient;
+import package_07.entity;
+
+public function countMedicalNeeds() returns error? {
+    needclient:MedicalNeedClient mnClient = check new ();
+
+    int minQuantity = 3;
+    int urgentNeeds = (check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where medicalNeed.quantity > minQuantity && medicalNeed.urgency == "URGENT"
+        select medicalNeed).length();
+    io:println(urgentNeeds);
+
+    int needs = (check from var {needId, quantity} in mnClient->read()
+        order by quantity
+        select needId).length();
+    io:println(needs);
+
+    int limitedNeeds = (check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where medicalNeed.quantity > minQuantity
+        limit 5
+        select medicalNeed).length();
+    io:println(limitedNeeds);
+
+    int periods = (check from entity:MedicalNeed medicalNeed in mnClient->read()
+        where medicalNeed.quantity > minQuantity
+        select medicalNeed.period.substring(0, 4)).length();
+    io:println(periods);
+
+    check mnClient.close();
+}
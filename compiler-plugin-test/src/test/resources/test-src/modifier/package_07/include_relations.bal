@@ -0,0 +1,60 @@
+// Copyright (c) 2022 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import package_07.'client as empclient;
+import package_07.entity;
+
+public function readEmployees() returns error? {
+    empclient:EmployeeClient employeeClient = check new ();
+
+    entity:Employee[] employees = check from entity:Employee employee in employeeClient->read([empclient:CompanyEntity])
+        where employee.name == "TestEmployee"
+        select employee;
+    io:println(employees);
+
+    record {int id; string name;}[] employeeNames =
+        check from var {id, name, company} in employeeClient->read(include = [empclient:CompanyEntity])
+        order by id
+        select {
+            id: id,
+            name: company is entity:Company ? company.name + ":" + name : name
+        };
+    io:println(employeeNames);
+
+    entity:Employee[] companyEmployees = check from entity:Employee employee in employeeClient->read()
+        where employee?.company?.name == "TestCompany"
+        order by employee?.company?.name, employee.id descending
+        select employee;
+    io:println(companyEmployees);
+
+    entity:Employee[] newEmployees = check from entity:Employee employee in employeeClient->read()
+        where employee.name == "TestEmployee" && employee?.joinedDate?.year == 2022
+        select employee;
+    io:println(newEmployees);
+
+    empclient:CompanyClient companyClient = check new ();
+    record {|string employee; string company;|}[] employeeCompanies =
+        check from var {id, name, company} in employeeClient->read([empclient:CompanyEntity])
+        join entity:Company employer in companyClient->read() on company?.id equals employer.id
+        where employer.name == "TestCompany" && id > 1
+        limit 5
+        select {employee: name, company: employer.name};
+    io:println(employeeCompanies);
+    check companyClient.close();
+
+    check employeeClient.close();
+}
@@ -0,0 +1,408 @@
+// Copyright (c) 2022 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+import ballerinax/mysql;
+import ballerina/time;
+import ballerina/persist;
+import ballerinax/mysql.driver as _;
+import package_07.entity;
+
+configurable string USER = ?;
+configurable string PASSWORD = ?;
+configurable string HOST = ?;
+configurable string DATABASE = ?;
+configurable int PORT = ?;
+
+public client class MedicalNeedClient {
+
+    private final string entityName = "MedicalNeed";
+    private final sql:ParameterizedQuery tableName = `MedicalNeeds`;
+
+    private final map<persist:FieldMetadata> fieldMetadata = {
+        needId: {columnName: "needId", 'type: int, autoGenerated: true},
+        itemId: {columnName: "itemId", 'type: int},
+        beneficiaryId: {columnName: "beneficiaryId", 'type: int},
+        period: {columnName: "period", 'type: time:Civil},
+        urgency: {columnName: "urgency", 'type: string},
+        quantity: {columnName: "quantity", 'type: int}
+    };
+    private string[] keyFields = ["needId"];
+
+    private persist:SQLClient persistClient;
+
+    public function init() returns persist:Error? {
+        mysql:Client|sql:Error dbClient = new (host = HOST, user = USER, password = PASSWORD, database = DATABASE, port = PORT);
+        if dbClient is sql:Error {
+            return <persist:Error>error(dbClient.message());
+        }
+
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata);
+    }
+
+    remote function create(entity:MedicalNeed value) returns entity:MedicalNeed|persist:Error {
+        sql:ExecutionResult result = check self.persistClient.runInsertQuery(value);
+
+        return <entity:MedicalNeed>{
+            needId: <int>result.lastInsertId,
+            beneficiaryId: value.beneficiaryId,
+            itemId: value.itemId,
+            period: value.period,
+            quantity: value.quantity,
+            urgency: value.urgency
+        };
+    }
+
+    remote function readByKey(int key) returns entity:MedicalNeed|persist:Error {
+        return <entity:MedicalNeed>check self.persistClient.runReadByKeyQuery(entity:MedicalNeed, key);
+    }
+
+    remote function read() returns stream<entity:MedicalNeed, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runReadQuery(entity:MedicalNeed);
+        if result is persist:Error {
+            return new stream<entity:MedicalNeed, persist:Error?>(new MedicalNeedStream((), result));
+        } else {
+            return new stream<entity:MedicalNeed, persist:Error?>(new MedicalNeedStream(result));
+        }
+    }
+
+    remote function execute(sql:ParameterizedQuery filterClause, string[] fields = []) returns stream<entity:MedicalNeed, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runExecuteQuery(filterClause, entity:MedicalNeed, fields = fields);
+        if result is persist:Error {
+            return new stream<entity:MedicalNeed, persist:Error?>(new MedicalNeedStream((), result));
+        } else {
+            return new stream<entity:MedicalNeed, persist:Error?>(new MedicalNeedStream(result));
+        }
+    }
+
+    remote function update(entity:MedicalNeed 'object) returns persist:Error? {
+        _ = check self.persistClient.runUpdateQuery('object);
+    }
+
+    remote function delete(entity:MedicalNeed 'object) returns persist:Error? {
+        _ = check self.persistClient.runDeleteQuery('object);
+    }
+
+    public function count(sql:ParameterizedQuery filterClause = ``) returns int|persist:Error {
+        return self.persistClient.runCountQuery(filterClause);
+    }
+
+    public function aggregate(sql:ParameterizedQuery filterClause, persist:AggregateField[] aggregates, string[] groupFields = [])
+    returns stream<record {}, persist:Error?>|persist:Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields);
+    }
+
+    public function close() returns persist:Error? {
+        return self.persistClient.close();
+    }
+}
+
+// The client, generated before the projected fields, the counts and the aggregates were supported by the clients
+public client class MedicalNeedReadClient {
+
+    private final string entityName = "MedicalNeed";
+    private final sql:ParameterizedQuery tableName = `MedicalNeeds`;
+
+    private final map<persist:FieldMetadata> fieldMetadata = {
+        needId: {columnName: "needId", 'type: int, autoGenerated: true},
+        itemId: {columnName: "itemId", 'type: int},
+        beneficiaryId: {columnName: "beneficiaryId", 'type: int},
+        period: {columnName: "period", 'type: time:Civil},
+        urgency: {columnName: "urgency", 'type: string},
+        quantity: {columnName: "quantity", 'type: int}
+    };
+    private string[] keyFields = ["needId"];
+
+    private persist:SQLClient persistClient;
+
+    public function init() returns persist:Error? {
+        mysql:Client|sql:Error dbClient = new (host = HOST, user = USER, password = PASSWORD, database = DATABASE, port = PORT);
+        if dbClient is sql:Error {
+            return <persist:Error>error(dbClient.message());
+        }
+
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata);
+    }
+
+    remote function read() returns stream<entity:MedicalNeed, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runReadQuery(entity:MedicalNeed);
+        if result is persist:Error {
+            return new stream<entity:MedicalNeed, persist:Error?>(new MedicalNeedStream((), result));
+        } else {
+            return new stream<entity:MedicalNeed, persist:Error?>(new MedicalNeedStream(result));
+        }
+    }
+
+    remote function execute(sql:ParameterizedQuery filterClause) returns stream<entity:MedicalNeed, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runExecuteQuery(filterClause, entity:MedicalNeed);
+        if result is persist:Error {
+            return new stream<entity:MedicalNeed, persist:Error?>(new MedicalNeedStream((), result));
+        } else {
+            return new stream<entity:MedicalNeed, persist:Error?>(new MedicalNeedStream(result));
+        }
+    }
+
+    public function close() returns persist:Error? {
+        return self.persistClient.close();
+    }
+}
+
+public class MedicalNeedStream {
+    private stream<anydata, sql:Error?>? anydataStream;
+    private persist:Error? err;
+
+    public isolated function init(stream<anydata, sql:Error?>? anydataStream, persist:Error? err = ()) {
+        self.anydataStream = anydataStream;
+        self.err = err;
+    }
+
+    public isolated function next() returns record {|entity:MedicalNeed value;|}|persist:Error? {
+    if self.err is persist:Error {
+        return self.err;
+    } else if self.anydataStream is stream<anydata, sql:Error?> {
+        var anydataStream = <stream<anydata, sql:Error?>>self.anydataStream;
+        var streamValue = anydataStream.next();
+        if streamValue is () {
+             return streamValue;
+        } else if (streamValue is sql:Error) {
+             return <persist:Error>error(streamValue.message());
+        } else {
+            record {|entity:MedicalNeed value;|} nextRecord = {value: <entity:MedicalNeed>streamValue.value};
+            return nextRecord;
+        }
+    } else {
+         // Unreachable code
+        return ();
+    }
+ }
+
+    public isolated function close() returns persist:Error? {
+        if self.anydataStream is stream<anydata, sql:Error?> {
+            var anydataStream = <stream<anydata, sql:Error?>>self.anydataStream;
+            sql:Error? e = anydataStream.close();
+            if e is sql:Error {
+                return <persist:Error>error(e.message());
+            }
+        }
+    }
+}
+
+public client class EmployeeClient {
+
+    private final string entityName = "Employee";
+    private final sql:ParameterizedQuery tableName = `Employees`;
+
+    private final map<persist:FieldMetadata> fieldMetadata = {
+        id: {columnName: "id", 'type: int},
+        name: {columnName: "name", 'type: string},
+        "company.id": {columnName: "companyId", 'type: int, relation: {entityName: "company", refTable: "Companies", refField: "id"}},
+        "company.name": {'type: string, relation: {entityName: "company", refTable: "Companies", refField: "name"}}
+    };
+    private string[] keyFields = ["id"];
+    private final map<persist:JoinMetadata> joinMetadata = {
+        company: {entity: entity:Company, fieldName: "company", refTable: "Companies", refFields: ["id"], joinColumns: ["companyId"]}
+    };
+
+    private persist:SQLClient persistClient;
+
+    public function init() returns persist:Error? {
+        mysql:Client|sql:Error dbClient = new (host = HOST, user = USER, password = PASSWORD, database = DATABASE, port = PORT);
+        if dbClient is sql:Error {
+            return <persist:Error>error(dbClient.message());
+        }
+
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata, self.joinMetadata);
+    }
+
+    remote function readByKey(int key, EmployeeRelations[] include = []) returns entity:Employee|persist:Error {
+        return <entity:Employee>check self.persistClient.runReadByKeyQuery(entity:Employee, key, include);
+    }
+
+    remote function read(EmployeeRelations[] include = []) returns stream<entity:Employee, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runReadQuery(entity:Employee, include);
+        if result is persist:Error {
+            return new stream<entity:Employee, persist:Error?>(new EmployeeStream((), result));
+        } else {
+            return new stream<entity:Employee, persist:Error?>(new EmployeeStream(result));
+        }
+    }
+
+    remote function execute(sql:ParameterizedQuery filterClause, EmployeeRelations[] include = [], string[] fields = [], EmployeeRelations[] filterRelations = [])
+    returns stream<entity:Employee, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runExecuteQuery(filterClause, entity:Employee, include, fields, filterRelations);
+        if result is persist:Error {
+            return new stream<entity:Employee, persist:Error?>(new EmployeeStream((), result));
+        } else {
+            return new stream<entity:Employee, persist:Error?>(new EmployeeStream(result));
+        }
+    }
+
+    public function count(sql:ParameterizedQuery filterClause = ``, EmployeeRelations[] filterRelations = []) returns int|persist:Error {
+        return self.persistClient.runCountQuery(filterClause, filterRelations);
+    }
+
+    public function aggregate(sql:ParameterizedQuery filterClause, persist:AggregateField[] aggregates, string[] groupFields = [], EmployeeRelations[] filterRelations = [])
+    returns stream<record {}, persist:Error?>|persist:Error {
+        return self.persistClient.runAggregateQuery(filterClause, aggregates, groupFields, filterRelations);
+    }
+
+    public function close() returns persist:Error? {
+        return self.persistClient.close();
+    }
+}
+
+public enum EmployeeRelations {
+    CompanyEntity = "company"
+}
+
+public class EmployeeStream {
+    private stream<anydata, sql:Error?>? anydataStream;
+    private persist:Error? err;
+
+    public isolated function init(stream<anydata, sql:Error?>? anydataStream, persist:Error? err = ()) {
+        self.anydataStream = anydataStream;
+        self.err = err;
+    }
+
+    public isolated function next() returns record {|entity:Employee value;|}|persist:Error? {
+        if self.err is persist:Error {
+            return self.err;
+        } else if self.anydataStream is stream<anydata, sql:Error?> {
+            var anydataStream = <stream<anydata, sql:Error?>>self.anydataStream;
+            var streamValue = anydataStream.next();
+            if streamValue is () {
+                return streamValue;
+            } else if (streamValue is sql:Error) {
+                return <persist:Error>error(streamValue.message());
+            } else {
+                record {|entity:Employee value;|} nextRecord = {value: <entity:Employee>streamValue.value};
+                return nextRecord;
+            }
+        } else {
+            // Unreachable code
+            return ();
+        }
+    }
+
+    public isolated function close() returns persist:Error? {
+        if self.anydataStream is stream<anydata, sql:Error?> {
+            var anydataStream = <stream<anydata, sql:Error?>>self.anydataStream;
+            sql:Error? e = anydataStream.close();
+            if e is sql:Error {
+                return <persist:Error>error(e.message());
+            }
+        }
+    }
+}
+
+public client class CompanyClient {
+
+    private final string entityName = "Company";
+    private final sql:ParameterizedQuery tableName = `Companies`;
+
+    private final map<persist:FieldMetadata> fieldMetadata = {
+        id: {columnName: "id", 'type: int},
+        name: {columnName: "name", 'type: string}
+    };
+    private string[] keyFields = ["id"];
+
+    private persist:SQLClient persistClient;
+
+    public function init() returns persist:Error? {
+        mysql:Client|sql:Error dbClient = new (host = HOST, user = USER, password = PASSWORD, database = DATABASE, port = PORT);
+        if dbClient is sql:Error {
+            return <persist:Error>error(dbClient.message());
+        }
+
+        self.persistClient = check new (dbClient, self.entityName, self.tableName, self.keyFields, self.fieldMetadata);
+    }
+
+    remote function readByKey(int key) returns entity:Company|persist:Error {
+        return <entity:Company>check self.persistClient.runReadByKeyQuery(entity:Company, key);
+    }
+
+    remote function readByKeys(int[] keys) returns stream<entity:Company, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runReadByKeysQuery(entity:Company, keys);
+        if result is persist:Error {
+            return new stream<entity:Company, persist:Error?>(new CompanyStream((), result));
+        } else {
+            return new stream<entity:Company, persist:Error?>(new CompanyStream(result));
+        }
+    }
+
+    remote function read() returns stream<entity:Company, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runReadQuery(entity:Company);
+        if result is persist:Error {
+            return new stream<entity:Company, persist:Error?>(new CompanyStream((), result));
+        } else {
+            return new stream<entity:Company, persist:Error?>(new CompanyStream(result));
+        }
+    }
+
+    remote function execute(sql:ParameterizedQuery filterClause, string[] fields = [])
+    returns stream<entity:Company, persist:Error?> {
+        stream<anydata, sql:Error?>|persist:Error result = self.persistClient.runExecuteQuery(filterClause, entity:Company, fields = fields);
+        if result is persist:Error {
+            return new stream<entity:Company, persist:Error?>(new CompanyStream((), result));
+        } else {
+            return new stream<entity:Company, persist:Error?>(new CompanyStream(result));
+        }
+    }
+
+    public function close() returns persist:Error? {
+        return self.persistClient.close();
+    }
+}
+
+public class CompanyStream {
+    private stream<anydata, sql:Error?>? anydataStream;
+    private persist:Error? err;
+
+    public isolated function init(stream<anydata, sql:Error?>? anydataStream, persist:Error? err = ()) {
+        self.anydataStream = anydataStream;
+        self.err = err;
+    }
+
+    public isolated function next() returns record {|entity:Company value;|}|persist:Error? {
+        if self.err is persist:Error {
+            return self.err;
+        } else if self.anydataStream is stream<anydata, sql:Error?> {
+            var anydataStream = <stream<anydata, sql:Error?>>self.anydataStream;
+            var streamValue = anydataStream.next();
+            if streamValue is () {
+                return streamValue;
+            } else if (streamValue is sql:Error) {
+                return <persist:Error>error(streamValue.message());
+            } else {
+                record {|entity:Company value;|} nextRecord = {value: <entity:Company>streamValue.value};
+                return nextRecord;
+            }
+        } else {
+            // Unreachable code
+            return ();
+        }
+    }
+
+    public isolated function close() returns persist:Error? {
+        if self.anydataStream is stream<anydata, sql:Error?> {
+            var anydataStream = <stream<anydata, sql:Error?>>self.anydataStream;
+            sql:Error? e = anydataStream.close();
+            if e is sql:Error {
+                return <persist:Error>error(e.message());
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+// Copyright (c) 2022 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/persist;
+import ballerina/time;
+
+@persist:Entity {
+    key: ["id"],
+    tableName: "Companies"
+}
+public type Company record {|
+    readonly int id;
+    string name;
+|};
+
+@persist:Entity {
+    key: ["id"],
+    tableName: "Employees"
+}
+public type Employee record {|
+    readonly int id;
+    string name;
+    time:Date joinedDate?;
+
+    @persist:Relation {keyColumns: ["companyId"], reference: ["id"]}
+    Company company?;
+|};
+
+@persist:Entity {
+    key: ["needId"]
+}
+public type MedicalNeed record {|
+    readonly int needId = 1;
+    int? itemId;
+    int beneficiaryId;
+    string period;
+    string urgency;
+    int quantity;
+|};
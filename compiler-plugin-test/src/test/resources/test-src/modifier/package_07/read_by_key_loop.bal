@@ -0,0 +1,68 @@
+// Copyright (c) 2022 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import package_07.'client as empclient;
+import package_07.entity;
+
+public function readCompanies() returns error? {
+    empclient:CompanyClient companyClient = check new ();
+    check printCompanyNames(companyClient, [1, 2, 3]);
+
+    entity:Employee[] employees = [{id: 1, name: "TestEmployee"}];
+    foreach entity:Employee employee in employees {
+        entity:Company company = check companyClient->readByKey(employee.id);
+        io:println(company.name);
+    }
+
+    foreach entity:Employee employee in employees {
+        entity:Company company = check companyClient->readByKey(employee.id);
+        if company.name == "" {
+            break;
+        }
+        io:println(company.name);
+    }
+
+    foreach int companyId in [4, 5] {
+        entity:Company company = check companyClient->readByKey(companyId);
+        io:println(company.name);
+    }
+
+    int[] updatedIds = [6, 7];
+    foreach int companyId in updatedIds {
+        entity:Company company = check companyClient->readByKey(companyId);
+        entity:Company[] companies = check from entity:Company c in companyClient->read() select c;
+        io:println(company.name, companies.length());
+    }
+
+    foreach int companyId in updatedIds {
+        entity:Company company = check companyClient->readByKey(companyId);
+        company.name = company.name.toUpperCase();
+        check updateCompany(companyClient, company);
+    }
+    check companyClient.close();
+}
+
+function updateCompany(empclient:CompanyClient companyClient, entity:Company company) returns error? {
+    io:println(company);
+}
+
+function printCompanyNames(empclient:CompanyClient companyClient, int[] companyIds) returns error? {
+    foreach int companyId in companyIds {
+        entity:Company company = check companyClient->readByKey(companyId);
+        io:println(company.name);
+    }
+}
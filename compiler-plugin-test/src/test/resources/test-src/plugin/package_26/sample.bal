@@ -0,0 +1,58 @@
+// Copyright (c) 2022 WSO2 LLC. (https://www.wso2.com) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import ballerina/persist;
+
+@persist:Entity {
+    key: ["id"]
+}
+public type Post record {|
+    readonly int id;
+    string name;
+|};
+
+client class PostClient {
+
+    remote function readByKey(int key) returns Post|persist:Error {
+        return {id: key, name: "post"};
+    }
+}
+
+public function main() returns error? {
+    PostClient postClient = new;
+    Post post = check postClient->readByKey(1);
+
+    int[] postIds = [1, 2, 3];
+    foreach int postId in postIds {
+        post = check postClient->readByKey(postId);
+    }
+
+    int index = 0;
+    while index < postIds.length() {
+        post = check postClient->readByKey(postIds[index]);
+        index += 1;
+    }
+
+    string[] names = check from int postId in postIds
+        select (check postClient->readByKey(postId)).name;
+
+    Post[] posts = check from int postId in postIds
+        join Post joinedPost in [check postClient->readByKey(1)] on postId equals joinedPost.id
+        limit (check postClient->readByKey(2)).id
+        select joinedPost;
+    io:println(post, names, posts);
+}
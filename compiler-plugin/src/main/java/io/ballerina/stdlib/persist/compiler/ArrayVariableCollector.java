@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.persist.compiler;
+
+import io.ballerina.compiler.syntax.tree.ArrayTypeDescriptorNode;
+import io.ballerina.compiler.syntax.tree.CaptureBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.DefaultableParameterNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.NodeVisitor;
+import io.ballerina.compiler.syntax.tree.RequiredParameterNode;
+import io.ballerina.compiler.syntax.tree.Token;
+import io.ballerina.compiler.syntax.tree.TypedBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.VariableDeclarationNode;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Collects the parameters and the local variables of the visited nodes, which are declared with an array type.
+ * The variables, which are also declared with another type, are excluded, as the declaration in scope cannot be
+ * determined.
+ */
+public class ArrayVariableCollector extends NodeVisitor {
+
+    private final Set<String> arrayVariables = new HashSet<>();
+    private final Set<String> otherVariables = new HashSet<>();
+
+    public Set<String> getArrayVariables() {
+        Set<String> variables = new HashSet<>(arrayVariables);
+        variables.removeAll(otherVariables);
+        return variables;
+    }
+
+    @Override
+    public void visit(RequiredParameterNode requiredParameterNode) {
+        addVariable(requiredParameterNode.paramName(), requiredParameterNode.typeName());
+    }
+
+    @Override
+    public void visit(DefaultableParameterNode defaultableParameterNode) {
+        addVariable(defaultableParameterNode.paramName(), defaultableParameterNode.typeName());
+    }
+
+    @Override
+    public void visit(VariableDeclarationNode variableDeclarationNode) {
+        TypedBindingPatternNode typedBindingPattern = variableDeclarationNode.typedBindingPattern();
+        if (typedBindingPattern.bindingPattern() instanceof CaptureBindingPatternNode) {
+            addVariable(Optional.of(((CaptureBindingPatternNode) typedBindingPattern.bindingPattern()).variableName()),
+                    typedBindingPattern.typeDescriptor());
+        }
+        visitSyntaxNode(variableDeclarationNode);
+    }
+
+    private void addVariable(Optional<Token> variableName, Node typeDescriptor) {
+        if (variableName.isEmpty()) {
+            return;
+        }
+        if (typeDescriptor instanceof ArrayTypeDescriptorNode) {
+            arrayVariables.add(variableName.get().text());
+        } else {
+            otherVariables.add(variableName.get().text());
+        }
+    }
+}
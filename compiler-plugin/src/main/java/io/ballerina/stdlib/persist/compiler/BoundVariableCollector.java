@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2022, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.persist.compiler;
+
+import io.ballerina.compiler.syntax.tree.CaptureBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.FieldBindingPatternVarnameNode;
+import io.ballerina.compiler.syntax.tree.NodeVisitor;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collects the names of the variables bound by the visited binding patterns.
+ */
+public class BoundVariableCollector extends NodeVisitor {
+
+    private final Set<String> variables = new LinkedHashSet<>();
+
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    @Override
+    public void visit(CaptureBindingPatternNode captureBindingPatternNode) {
+        variables.add(captureBindingPatternNode.variableName().text());
+    }
+
+    @Override
+    public void visit(FieldBindingPatternVarnameNode fieldBindingPatternVarnameNode) {
+        variables.add(fieldBindingPatternVarnameNode.variableName().name().text());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.persist.compiler;
+
+import io.ballerina.compiler.api.SemanticModel;
+import io.ballerina.compiler.api.symbols.MethodSymbol;
+import io.ballerina.compiler.api.symbols.ObjectTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeReferenceTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeSymbol;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.NodeVisitor;
+import io.ballerina.compiler.syntax.tree.RemoteMethodCallActionNode;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static io.ballerina.stdlib.persist.compiler.Utils.isPersistentClientRead;
+import static io.ballerina.stdlib.persist.compiler.Utils.isPersistentClientReadByKey;
+
+/**
+ * Collects the methods of the persist clients read by the visited nodes, along with the names of their parameters,
+ * so that only the calls supported by the clients are generated. The clients are identified by the expressions they
+ * are invoked on, hence the methods of the clients invoked on the same expression (e.g. the variables of different
+ * functions) are intersected. The clients, whose types cannot be resolved, are considered to declare no methods.
+ */
+public class ClientMethodCollector extends NodeVisitor {
+
+    private final SemanticModel semanticModel;
+    private final Map<String, Map<String, Set<String>>> clientMethods = new HashMap<>();
+
+    public ClientMethodCollector(SemanticModel semanticModel) {
+        this.semanticModel = semanticModel;
+    }
+
+    public boolean isMethodDeclared(ExpressionNode client, String methodName) {
+        return clientMethods.getOrDefault(getClientName(client), Collections.emptyMap()).containsKey(methodName);
+    }
+
+    public boolean isParameterDeclared(ExpressionNode client, String methodName, String parameterName) {
+        return clientMethods.getOrDefault(getClientName(client), Collections.emptyMap())
+                .getOrDefault(methodName, Collections.emptySet()).contains(parameterName);
+    }
+
+    @Override
+    public void visit(RemoteMethodCallActionNode remoteMethodCallActionNode) {
+        if (isPersistentClientRead(remoteMethodCallActionNode) ||
+                isPersistentClientReadByKey(remoteMethodCallActionNode)) {
+            addClientMethods(remoteMethodCallActionNode.expression());
+        }
+        visitSyntaxNode(remoteMethodCallActionNode);
+    }
+
+    private void addClientMethods(ExpressionNode client) {
+        Map<String, Set<String>> methods = new HashMap<>();
+        TypeSymbol clientType = semanticModel.typeOf(client).orElse(null);
+        while (clientType instanceof TypeReferenceTypeSymbol) {
+            clientType = ((TypeReferenceTypeSymbol) clientType).typeDescriptor();
+        }
+        if (clientType instanceof ObjectTypeSymbol) {
+            for (Map.Entry<String, MethodSymbol> method : ((ObjectTypeSymbol) clientType).methods().entrySet()) {
+                Set<String> parameters = new HashSet<>();
+                method.getValue().typeDescriptor().params().ifPresent(params ->
+                        params.forEach(param -> param.getName().ifPresent(parameters::add)));
+                methods.put(method.getKey(), parameters);
+            }
+        }
+
+        Map<String, Set<String>> declaredMethods = clientMethods.get(getClientName(client));
+        if (declaredMethods == null) {
+            clientMethods.put(getClientName(client), methods);
+            return;
+        }
+        declaredMethods.keySet().retainAll(methods.keySet());
+        declaredMethods.forEach((methodName, parameters) -> parameters.retainAll(methods.get(methodName)));
+    }
+
+    private static String getClientName(ExpressionNode client) {
+        return client.toSourceCode().trim();
+    }
+}
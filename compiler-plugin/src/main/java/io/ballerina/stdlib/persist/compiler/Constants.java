@@ -24,6 +24,8 @@ import io.ballerina.compiler.syntax.tree.SyntaxKind;
 import io.ballerina.compiler.syntax.tree.Token;
 
 import static io.ballerina.compiler.syntax.tree.AbstractNodeFactory.createEmptyMinutiaeList;
+import static io.ballerina.compiler.syntax.tree.AbstractNodeFactory.createMinutiaeList;
+import static io.ballerina.compiler.syntax.tree.AbstractNodeFactory.createWhitespaceMinutiae;
 
 /**
  * Constants for Persist compiler plugin.
@@ -54,15 +56,43 @@ public class Constants {
     public static final String ONE_TO_MANY = "MANY";
     public static final String KEY = "key";
     public static final String UNIQUE_CONSTRAINTS = "uniqueConstraints";
+    public static final String BALLERINA_ORG = "ballerina";
+    public static final String PERSIST_MODULE = "persist";
+    public static final String SQL_MODULE = "sql";
 
     public static final String READ_FUNCTION = "read";
+    public static final String READ_BY_KEY_FUNCTION = "readByKey";
+    public static final String READ_BY_KEYS_FUNCTION = "readByKeys";
+    public static final String READ_BY_KEY_FALLBACK_COMMENT = "// Reads the record not read beforehand by readByKeys()";
     public static final String EXECUTE_FUNCTION = "execute";
+    public static final String COUNT_FUNCTION = "count";
+    public static final String LENGTH_FUNCTION = "length";
+    public static final String INDEX_OF_FUNCTION = "indexOf";
+    public static final String STRING_MODULE_PREFIX = "string";
+    public static final String STARTS_WITH_FUNCTION = "startsWith";
+    public static final String ENDS_WITH_FUNCTION = "endsWith";
+    public static final String INCLUDES_FUNCTION = "includes";
+    public static final String TO_LOWER_CASE_FUNCTION = "toLowerCase";
+    public static final String TO_UPPER_CASE_FUNCTION = "toUpperCase";
+    public static final String AGGREGATE_FUNCTION = "aggregate";
+    public static final String SUM_FUNCTION = "sum";
+    public static final String MIN_FUNCTION = "min";
+    public static final String MAX_FUNCTION = "max";
+    public static final String TO_STRING_FUNCTION = "toString";
+    public static final String CLONE_FUNCTION = "clone";
+    public static final String AGGREGATE_ALIAS = "value";
+    public static final String INCLUDE_PARAMETER = "include";
+    public static final String FIELDS_PARAMETER = "fields";
+    public static final String FILTER_RELATIONS_PARAMETER = "filterRelations";
     public static final String BACKTICK = "`";
     public static final String SPACE = " ";
+    public static final String NEW_LINE = "\n";
+    public static final String INDENTATION = "    ";
     public static final String OPEN_BRACES = "( ";
     public static final String CLOSE_BRACES = ") ";
     public static final String ASCENDING = "ascending";
     public static final String BAL_ESCAPE_TOKEN = "'";
+    public static final String RELATION_COLUMN_SEPARATOR = "__";
 
     /**
      * Constants related to Ballerina types.
@@ -104,6 +134,16 @@ public class Constants {
         public static final String ORDER_BY_ASCENDING = "ASC";
         public static final String ORDER_BY_DECENDING = "DESC";
         public static final String NOT_EQUAL_TOKEN = "<>";
+        public static final String IS_NULL = "IS NULL";
+        public static final String IS_NOT_NULL = "IS NOT NULL";
+        public static final String IN = "IN";
+        public static final String LIKE = "LIKE";
+        public static final String LOWER = "LOWER";
+        public static final String UPPER = "UPPER";
+        public static final String CHAR_LENGTH = "CHAR_LENGTH";
+        public static final String SUM = "SUM";
+        public static final String MIN = "MIN";
+        public static final String MAX = "MAX";
         public static final String AND = "AND";
         public static final String OR = "OR";
     }
@@ -118,6 +158,17 @@ public class Constants {
                 SyntaxKind.CLOSE_BRACE_TOKEN, "}", createEmptyMinutiaeList(), createEmptyMinutiaeList());
         public static final LiteralValueToken BACKTICK_TOKEN = NodeFactory.createLiteralValueToken(
                 SyntaxKind.BACKTICK_TOKEN, BACKTICK, createEmptyMinutiaeList(), createEmptyMinutiaeList());
+        public static final Token LOGICAL_AND_TOKEN = NodeFactory.createToken(SyntaxKind.LOGICAL_AND_TOKEN,
+                createMinutiaeList(createWhitespaceMinutiae(SPACE)),
+                createMinutiaeList(createWhitespaceMinutiae(SPACE)));
+        public static final Token COMMA_TOKEN = NodeFactory.createToken(SyntaxKind.COMMA_TOKEN,
+                createEmptyMinutiaeList(), createMinutiaeList(createWhitespaceMinutiae(SPACE)));
+        public static final Token EQUAL_TOKEN = NodeFactory.createToken(SyntaxKind.EQUAL_TOKEN,
+                createMinutiaeList(createWhitespaceMinutiae(SPACE)),
+                createMinutiaeList(createWhitespaceMinutiae(SPACE)));
+        public static final Token DOT_TOKEN = NodeFactory.createToken(SyntaxKind.DOT_TOKEN);
+        public static final Token OPEN_PAREN_TOKEN = NodeFactory.createToken(SyntaxKind.OPEN_PAREN_TOKEN);
+        public static final Token CLOSE_PAREN_TOKEN = NodeFactory.createToken(SyntaxKind.CLOSE_PAREN_TOKEN);
     }
 
 }
@@ -71,13 +71,14 @@ public enum DiagnosticsCodes {
 
     PERSIST_201("PERSIST_201",
             "Unsupported expression: read() function of persist client does not support this expression", ERROR),
-    PERSIST_202("PERSIST_202",
-            "Unsupported expression: read() function of persist client only supports int value in limit clause",
-            ERROR),
     PERSIST_203("PERSIST_203",
             "Unsupported expression: read() function of persist client only supports selected variables "
                     + "from the 'from clause' in order by clause",
-            ERROR);
+            ERROR),
+    PERSIST_204("PERSIST_204",
+            "Inefficient read: readByKey() function of persist client is invoked for each iteration, "
+                    + "consider reading the records using readByKeys() before the iterations",
+            WARNING);
 
     private final String code;
     private final String message;
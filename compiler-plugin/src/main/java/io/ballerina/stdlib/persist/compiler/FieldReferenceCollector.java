@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.persist.compiler;
+
+import io.ballerina.compiler.syntax.tree.CaptureBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FieldAccessExpressionNode;
+import io.ballerina.compiler.syntax.tree.NameReferenceNode;
+import io.ballerina.compiler.syntax.tree.NodeVisitor;
+import io.ballerina.compiler.syntax.tree.OptionalFieldAccessExpressionNode;
+import io.ballerina.compiler.syntax.tree.SimpleNameReferenceNode;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collects the fields of a record variable, which are accessed within the visited nodes.
+ * If the variable is referred to other than through a field access, all the fields are considered to be used.
+ */
+public class FieldReferenceCollector extends NodeVisitor {
+
+    private final String variableName;
+    private final Set<String> fields = new LinkedHashSet<>();
+    private boolean isAllFieldsUsed = false;
+
+    public FieldReferenceCollector(String variableName) {
+        this.variableName = variableName;
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public boolean isAllFieldsUsed() {
+        return isAllFieldsUsed;
+    }
+
+    @Override
+    public void visit(FieldAccessExpressionNode fieldAccessExpressionNode) {
+        visitFieldAccess(fieldAccessExpressionNode.expression(), fieldAccessExpressionNode.fieldName());
+    }
+
+    @Override
+    public void visit(OptionalFieldAccessExpressionNode optionalFieldAccessExpressionNode) {
+        visitFieldAccess(optionalFieldAccessExpressionNode.expression(), optionalFieldAccessExpressionNode.fieldName());
+    }
+
+    @Override
+    public void visit(SimpleNameReferenceNode simpleNameReferenceNode) {
+        if (simpleNameReferenceNode.name().text().equals(variableName)) {
+            isAllFieldsUsed = true;
+        }
+    }
+
+    @Override
+    public void visit(CaptureBindingPatternNode captureBindingPatternNode) {
+        // The variable is shadowed, hence the field accesses cannot be attributed to the record
+        if (captureBindingPatternNode.variableName().text().equals(variableName)) {
+            isAllFieldsUsed = true;
+        }
+    }
+
+    private void visitFieldAccess(ExpressionNode expression, NameReferenceNode fieldName) {
+        if (expression instanceof SimpleNameReferenceNode &&
+                ((SimpleNameReferenceNode) expression).name().text().equals(variableName) &&
+                fieldName instanceof SimpleNameReferenceNode) {
+            fields.add(((SimpleNameReferenceNode) fieldName).name().text());
+        } else {
+            expression.accept(this);
+        }
+    }
+}
@@ -31,5 +31,7 @@ public class PersistCodeAnalyzer extends CodeAnalyzer {
     public void init(CodeAnalysisContext codeAnalysisContext) {
         codeAnalysisContext.addSyntaxNodeAnalysisTask(new PersistRecordValidator(), SyntaxKind.TYPE_DEFINITION);
         codeAnalysisContext.addSyntaxNodeAnalysisTask(new PersistQueryValidator(), SyntaxKind.QUERY_PIPELINE);
+        codeAnalysisContext.addSyntaxNodeAnalysisTask(new PersistReadByKeyValidator(),
+                SyntaxKind.REMOTE_METHOD_CALL_ACTION);
     }
 }
@@ -21,12 +21,11 @@ package io.ballerina.stdlib.persist.compiler;
 import io.ballerina.compiler.syntax.tree.BindingPatternNode;
 import io.ballerina.compiler.syntax.tree.ExpressionNode;
 import io.ballerina.compiler.syntax.tree.FieldAccessExpressionNode;
-import io.ballerina.compiler.syntax.tree.FieldBindingPatternVarnameNode;
 import io.ballerina.compiler.syntax.tree.FromClauseNode;
 import io.ballerina.compiler.syntax.tree.IntermediateClauseNode;
-import io.ballerina.compiler.syntax.tree.LimitClauseNode;
 import io.ballerina.compiler.syntax.tree.MappingBindingPatternNode;
 import io.ballerina.compiler.syntax.tree.NodeList;
+import io.ballerina.compiler.syntax.tree.OptionalFieldAccessExpressionNode;
 import io.ballerina.compiler.syntax.tree.OrderByClauseNode;
 import io.ballerina.compiler.syntax.tree.OrderKeyNode;
 import io.ballerina.compiler.syntax.tree.QueryPipelineNode;
@@ -42,12 +41,17 @@ import io.ballerina.tools.diagnostics.DiagnosticFactory;
 import io.ballerina.tools.diagnostics.DiagnosticInfo;
 import io.ballerina.tools.diagnostics.DiagnosticSeverity;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_202;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_203;
+import static io.ballerina.stdlib.persist.compiler.Utils.getBoundFields;
+import static io.ballerina.stdlib.persist.compiler.Utils.getBoundVariables;
+import static io.ballerina.stdlib.persist.compiler.Utils.getQueryBoundVariables;
 import static io.ballerina.stdlib.persist.compiler.Utils.isQueryUsingPersistentClient;
+import static io.ballerina.stdlib.persist.compiler.Utils.isReferringToAny;
 
 /**
  * PersistQueryAnalyzer.
@@ -78,28 +82,42 @@ public class PersistQueryValidator implements AnalysisTask<SyntaxNodeAnalysisCon
                 .filter((node) -> node instanceof OrderByClauseNode)
                 .collect(Collectors.toList());
 
-        List<IntermediateClauseNode> limitClauseNodes = intermediateClauseNodes.stream()
-                .filter((node) -> node instanceof LimitClauseNode)
-                .collect(Collectors.toList());
-
         boolean isWhereClauseUsed = whereClauseNodes.size() != 0;
         boolean isOrderByClauseUsed = orderByClauseNodes.size() != 0;
-        boolean isLimitClauseUsed = limitClauseNodes.size() != 0;
 
-        if (!isWhereClauseUsed && !isOrderByClauseUsed && !isLimitClauseUsed) {
+        if (!isWhereClauseUsed && !isOrderByClauseUsed) {
             return;
         }
 
         BindingPatternNode bindingPatternNode = fromClauseNode.typedBindingPattern().bindingPattern();
         if (isWhereClauseUsed) {
-            WhereClauseNode whereClauseNode = (WhereClauseNode) whereClauseNodes.get(0);
-            try {
-                ExpressionBuilder expressionBuilder = new ExpressionBuilder(whereClauseNode.expression(),
-                        bindingPatternNode);
-                ExpressionVisitor expressionVisitor = new ExpressionVisitor();
-                expressionBuilder.build(expressionVisitor);
-            } catch (NotSupportedExpressionException e) {
-                ctx.reportDiagnostic(e.getDiagnostic());
+            List<ExpressionNode> conjuncts = new ArrayList<>();
+            for (IntermediateClauseNode whereClauseNode : whereClauseNodes) {
+                conjuncts.addAll(ExpressionBuilder.getConjuncts(((WhereClauseNode) whereClauseNode).expression()));
+            }
+            // The unsupported conjuncts are filtered in memory if at least one conjunct can be pushed down
+            NotSupportedExpressionException unsupportedExpression = null;
+            boolean isPushdownPossible = false;
+            // The conjuncts referring to the records bound by the other clauses are always filtered in memory
+            Set<String> otherVariables = getQueryBoundVariables(queryPipelineNode);
+            otherVariables.removeAll(getBoundVariables(bindingPatternNode));
+            for (ExpressionNode conjunct : conjuncts) {
+                if (isReferringToAny(conjunct, otherVariables)) {
+                    continue;
+                }
+                try {
+                    ExpressionBuilder expressionBuilder = new ExpressionBuilder(conjunct, bindingPatternNode);
+                    ExpressionVisitor expressionVisitor = new ExpressionVisitor();
+                    expressionBuilder.build(expressionVisitor);
+                    isPushdownPossible = true;
+                } catch (NotSupportedExpressionException e) {
+                    if (unsupportedExpression == null) {
+                        unsupportedExpression = e;
+                    }
+                }
+            }
+            if (!isPushdownPossible && unsupportedExpression != null) {
+                ctx.reportDiagnostic(unsupportedExpression.getDiagnostic());
             }
         }
         if (isOrderByClauseUsed) {
@@ -109,21 +127,14 @@ public class PersistQueryValidator implements AnalysisTask<SyntaxNodeAnalysisCon
                 ExpressionNode expression = orderKeyNodes.get(i).expression();
                 if (expression instanceof SimpleNameReferenceNode) {
                     String fieldName = ((SimpleNameReferenceNode) expression).name().text();
-                    boolean isCorrectField = false;
-                    SeparatedNodeList<BindingPatternNode> bindingPatternNodes =
-                            ((MappingBindingPatternNode) bindingPatternNode).fieldBindingPatterns();
-                    for (BindingPatternNode patternNode : bindingPatternNodes) {
-                        String field = ((FieldBindingPatternVarnameNode) patternNode).variableName().name().text();
-                        if (fieldName.equals(field)) {
-                            isCorrectField = true;
-                        }
-                    }
-                    if (!isCorrectField) {
+                    if (!(bindingPatternNode instanceof MappingBindingPatternNode) ||
+                            !getBoundFields((MappingBindingPatternNode) bindingPatternNode).containsKey(fieldName)) {
                         ctx.reportDiagnostic(DiagnosticFactory.createDiagnostic(
                                 new DiagnosticInfo(PERSIST_203.getCode(), PERSIST_203.getMessage(),
                                         PERSIST_203.getSeverity()), orderKeyNodes.get(i).expression().location()));
                     }
-                } else if (expression instanceof FieldAccessExpressionNode) {
+                } else if (expression instanceof FieldAccessExpressionNode ||
+                        expression instanceof OptionalFieldAccessExpressionNode) {
                     return;
                 } else {
                     ctx.reportDiagnostic(DiagnosticFactory.createDiagnostic(
@@ -132,14 +143,6 @@ public class PersistQueryValidator implements AnalysisTask<SyntaxNodeAnalysisCon
                 }
             }
         }
-        if (isLimitClauseUsed) {
-            LimitClauseNode limitClauseNode = (LimitClauseNode) limitClauseNodes.get(0);
-            if (limitClauseNode.expression() instanceof SimpleNameReferenceNode) {
-                ctx.reportDiagnostic(DiagnosticFactory.createDiagnostic(
-                        new DiagnosticInfo(PERSIST_202.getCode(), PERSIST_202.getMessage(), PERSIST_202.getSeverity()),
-                        limitClauseNode.expression().location()));
-            }
-        }
 
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.persist.compiler;
+
+import io.ballerina.compiler.syntax.tree.FunctionBodyNode;
+import io.ballerina.compiler.syntax.tree.JoinClauseNode;
+import io.ballerina.compiler.syntax.tree.Minutiae;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.QueryPipelineNode;
+import io.ballerina.compiler.syntax.tree.RemoteMethodCallActionNode;
+import io.ballerina.compiler.syntax.tree.StatementNode;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.PackageCompilation;
+import io.ballerina.projects.plugins.AnalysisTask;
+import io.ballerina.projects.plugins.SyntaxNodeAnalysisContext;
+import io.ballerina.tools.diagnostics.DiagnosticFactory;
+import io.ballerina.tools.diagnostics.DiagnosticInfo;
+import io.ballerina.tools.diagnostics.DiagnosticSeverity;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.ballerina.stdlib.persist.compiler.Constants.READ_BY_KEY_FALLBACK_COMMENT;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_204;
+import static io.ballerina.stdlib.persist.compiler.Utils.isPersistentClientReadByKey;
+
+/**
+ * Reports the readByKey() calls of persist clients, which are performed for each iteration of a loop or a query.
+ */
+public class PersistReadByKeyValidator implements AnalysisTask<SyntaxNodeAnalysisContext> {
+
+    // The semantic errors are only checked once for each document of a compilation
+    private final Map<PackageCompilation, Map<DocumentId, Boolean>> documentErrors =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public void perform(SyntaxNodeAnalysisContext ctx) {
+        Map<DocumentId, Boolean> compilationErrors = documentErrors.computeIfAbsent(ctx.compilation(),
+                compilation -> new ConcurrentHashMap<>());
+        boolean hasErrors = compilationErrors.computeIfAbsent(ctx.documentId(),
+                documentId -> ctx.semanticModel().diagnostics().stream().anyMatch(
+                        diagnostic -> diagnostic.diagnosticInfo().severity() == DiagnosticSeverity.ERROR));
+        if (hasErrors) {
+            return;
+        }
+
+        RemoteMethodCallActionNode remoteCall = (RemoteMethodCallActionNode) ctx.node();
+        if (!isPersistentClientReadByKey(remoteCall) || !isIterated(remoteCall) || isReadByKeyFallback(remoteCall)) {
+            return;
+        }
+        ctx.reportDiagnostic(DiagnosticFactory.createDiagnostic(
+                new DiagnosticInfo(PERSIST_204.getCode(), PERSIST_204.getMessage(), PERSIST_204.getSeverity()),
+                remoteCall.location()));
+    }
+
+    private static boolean isIterated(Node node) {
+        Node child = node;
+        Node parent = node.parent();
+        // The join and limit expressions of a query are evaluated once, similar to the expression of the from clause
+        boolean isEvaluatedOnce = false;
+        // The functions defined within the loops are not necessarily invoked for each iteration
+        while (parent != null && !(child instanceof FunctionBodyNode)) {
+            switch (parent.kind()) {
+                case FOREACH_STATEMENT:
+                case QUERY_ACTION:
+                    if (child.kind() == SyntaxKind.BLOCK_STATEMENT) {
+                        return true;
+                    }
+                    break;
+                case WHILE_STATEMENT:
+                    if (child.kind() != SyntaxKind.ON_FAIL_CLAUSE) {
+                        return true;
+                    }
+                    break;
+                case QUERY_EXPRESSION:
+                    if (child.kind() == SyntaxKind.SELECT_CLAUSE) {
+                        return true;
+                    }
+                    break;
+                case JOIN_CLAUSE:
+                    if (child.textRange().equals(((JoinClauseNode) parent).expression().textRange())) {
+                        isEvaluatedOnce = true;
+                    }
+                    break;
+                case LIMIT_CLAUSE:
+                    isEvaluatedOnce = true;
+                    break;
+                case QUERY_PIPELINE:
+                    if (!isEvaluatedOnce &&
+                            !child.textRange().equals(((QueryPipelineNode) parent).fromClause().textRange())) {
+                        return true;
+                    }
+                    isEvaluatedOnce = false;
+                    break;
+                default:
+                    break;
+            }
+            child = parent;
+            parent = parent.parent();
+        }
+        return false;
+    }
+
+    private static boolean isReadByKeyFallback(RemoteMethodCallActionNode remoteCall) {
+        // The records, which are not found among the records read beforehand by a readByKeys() call generated for a
+        // loop, are read by key in a statement marked by the code modifier, hence they are not read for each iteration
+        Node statement = remoteCall;
+        while (statement != null && !(statement instanceof StatementNode)) {
+            statement = statement.parent();
+        }
+        if (statement == null) {
+            return false;
+        }
+        for (Minutiae minutiae : statement.leadingMinutiae()) {
+            if (minutiae.kind() == SyntaxKind.COMMENT_MINUTIAE &&
+                    minutiae.text().equals(READ_BY_KEY_FALLBACK_COMMENT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
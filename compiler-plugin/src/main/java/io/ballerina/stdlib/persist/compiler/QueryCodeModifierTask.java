@@ -18,31 +18,78 @@
 
 package io.ballerina.stdlib.persist.compiler;
 
+import io.ballerina.compiler.api.SemanticModel;
+import io.ballerina.compiler.syntax.tree.AnnotationNode;
+import io.ballerina.compiler.syntax.tree.AssignmentStatementNode;
 import io.ballerina.compiler.syntax.tree.BasicLiteralNode;
+import io.ballerina.compiler.syntax.tree.BinaryExpressionNode;
 import io.ballerina.compiler.syntax.tree.BindingPatternNode;
+import io.ballerina.compiler.syntax.tree.BlockStatementNode;
+import io.ballerina.compiler.syntax.tree.BracedExpressionNode;
+import io.ballerina.compiler.syntax.tree.BreakStatementNode;
 import io.ballerina.compiler.syntax.tree.CaptureBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.CheckExpressionNode;
+import io.ballerina.compiler.syntax.tree.CompoundAssignmentStatementNode;
+import io.ballerina.compiler.syntax.tree.ConditionalExpressionNode;
 import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FailStatementNode;
 import io.ballerina.compiler.syntax.tree.FieldAccessExpressionNode;
+import io.ballerina.compiler.syntax.tree.FieldBindingPatternFullNode;
 import io.ballerina.compiler.syntax.tree.FieldBindingPatternVarnameNode;
+import io.ballerina.compiler.syntax.tree.ForEachStatementNode;
 import io.ballerina.compiler.syntax.tree.FromClauseNode;
+import io.ballerina.compiler.syntax.tree.FunctionArgumentNode;
+import io.ballerina.compiler.syntax.tree.FunctionBodyBlockNode;
+import io.ballerina.compiler.syntax.tree.FunctionCallExpressionNode;
+import io.ballerina.compiler.syntax.tree.IfElseStatementNode;
+import io.ballerina.compiler.syntax.tree.ImportDeclarationNode;
 import io.ballerina.compiler.syntax.tree.IntermediateClauseNode;
+import io.ballerina.compiler.syntax.tree.JoinClauseNode;
 import io.ballerina.compiler.syntax.tree.LimitClauseNode;
+import io.ballerina.compiler.syntax.tree.ListConstructorExpressionNode;
 import io.ballerina.compiler.syntax.tree.MappingBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.MappingConstructorExpressionNode;
+import io.ballerina.compiler.syntax.tree.MappingFieldNode;
+import io.ballerina.compiler.syntax.tree.MethodCallExpressionNode;
+import io.ballerina.compiler.syntax.tree.MinutiaeList;
+import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.NamedArgumentNode;
 import io.ballerina.compiler.syntax.tree.Node;
 import io.ballerina.compiler.syntax.tree.NodeFactory;
 import io.ballerina.compiler.syntax.tree.NodeList;
+import io.ballerina.compiler.syntax.tree.NodeParser;
+import io.ballerina.compiler.syntax.tree.NodeVisitor;
+import io.ballerina.compiler.syntax.tree.NonTerminalNode;
+import io.ballerina.compiler.syntax.tree.OptionalFieldAccessExpressionNode;
+import io.ballerina.compiler.syntax.tree.OptionalTypeDescriptorNode;
 import io.ballerina.compiler.syntax.tree.OrderByClauseNode;
 import io.ballerina.compiler.syntax.tree.OrderKeyNode;
+import io.ballerina.compiler.syntax.tree.PanicStatementNode;
 import io.ballerina.compiler.syntax.tree.PositionalArgumentNode;
+import io.ballerina.compiler.syntax.tree.QualifiedNameReferenceNode;
+import io.ballerina.compiler.syntax.tree.QueryActionNode;
+import io.ballerina.compiler.syntax.tree.QueryExpressionNode;
 import io.ballerina.compiler.syntax.tree.QueryPipelineNode;
+import io.ballerina.compiler.syntax.tree.RecordFieldNode;
+import io.ballerina.compiler.syntax.tree.RecordFieldWithDefaultValueNode;
+import io.ballerina.compiler.syntax.tree.RecordTypeDescriptorNode;
 import io.ballerina.compiler.syntax.tree.RemoteMethodCallActionNode;
+import io.ballerina.compiler.syntax.tree.RestArgumentNode;
+import io.ballerina.compiler.syntax.tree.ReturnStatementNode;
 import io.ballerina.compiler.syntax.tree.SeparatedNodeList;
 import io.ballerina.compiler.syntax.tree.SimpleNameReferenceNode;
+import io.ballerina.compiler.syntax.tree.SpecificFieldNode;
+import io.ballerina.compiler.syntax.tree.StartActionNode;
+import io.ballerina.compiler.syntax.tree.StatementNode;
 import io.ballerina.compiler.syntax.tree.SyntaxKind;
 import io.ballerina.compiler.syntax.tree.SyntaxTree;
 import io.ballerina.compiler.syntax.tree.Token;
 import io.ballerina.compiler.syntax.tree.TreeModifier;
+import io.ballerina.compiler.syntax.tree.TypeDefinitionNode;
+import io.ballerina.compiler.syntax.tree.TypeDescriptorNode;
+import io.ballerina.compiler.syntax.tree.TypedBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.VariableDeclarationNode;
 import io.ballerina.compiler.syntax.tree.WhereClauseNode;
 import io.ballerina.projects.Document;
 import io.ballerina.projects.DocumentId;
@@ -55,19 +102,71 @@ import io.ballerina.stdlib.persist.compiler.expression.ExpressionBuilder;
 import io.ballerina.stdlib.persist.compiler.expression.ExpressionVisitor;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static io.ballerina.compiler.syntax.tree.AbstractNodeFactory.createSeparatedNodeList;
+import static io.ballerina.stdlib.persist.compiler.Constants.AGGREGATE_ALIAS;
+import static io.ballerina.stdlib.persist.compiler.Constants.AGGREGATE_FUNCTION;
 import static io.ballerina.stdlib.persist.compiler.Constants.ASCENDING;
+import static io.ballerina.stdlib.persist.compiler.Constants.BALLERINA_ORG;
+import static io.ballerina.stdlib.persist.compiler.Constants.BAL_ESCAPE_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.BallerinaTypes.DECIMAL;
+import static io.ballerina.stdlib.persist.compiler.Constants.BallerinaTypes.FLOAT;
+import static io.ballerina.stdlib.persist.compiler.Constants.BallerinaTypes.INT;
+import static io.ballerina.stdlib.persist.compiler.Constants.CLONE_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.COUNT_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.ENTITY;
 import static io.ballerina.stdlib.persist.compiler.Constants.EXECUTE_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.FIELDS_PARAMETER;
+import static io.ballerina.stdlib.persist.compiler.Constants.FILTER_RELATIONS_PARAMETER;
+import static io.ballerina.stdlib.persist.compiler.Constants.INCLUDE_PARAMETER;
+import static io.ballerina.stdlib.persist.compiler.Constants.INDENTATION;
+import static io.ballerina.stdlib.persist.compiler.Constants.KEY;
+import static io.ballerina.stdlib.persist.compiler.Constants.LENGTH_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.MAX_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.MIN_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.NEW_LINE;
+import static io.ballerina.stdlib.persist.compiler.Constants.PERSIST_MODULE;
+import static io.ballerina.stdlib.persist.compiler.Constants.READ_BY_KEYS_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.READ_BY_KEY_FALLBACK_COMMENT;
 import static io.ballerina.stdlib.persist.compiler.Constants.SPACE;
 import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.LIMIT;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.MAX;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.MIN;
 import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.ORDERBY;
 import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.ORDER_BY_ASCENDING;
 import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.ORDER_BY_DECENDING;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.SUM;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQL_MODULE;
+import static io.ballerina.stdlib.persist.compiler.Constants.SUM_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.TO_STRING_FUNCTION;
 import static io.ballerina.stdlib.persist.compiler.Constants.TokenNodes.BACKTICK_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.TokenNodes.CLOSE_PAREN_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.TokenNodes.COMMA_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.TokenNodes.DOT_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.TokenNodes.EQUAL_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.TokenNodes.INTERPOLATION_END_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.TokenNodes.INTERPOLATION_START_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.TokenNodes.LOGICAL_AND_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.TokenNodes.OPEN_PAREN_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Utils.getArrayVariables;
+import static io.ballerina.stdlib.persist.compiler.Utils.getBoundFields;
+import static io.ballerina.stdlib.persist.compiler.Utils.getBoundVariables;
+import static io.ballerina.stdlib.persist.compiler.Utils.getQueryBoundVariables;
+import static io.ballerina.stdlib.persist.compiler.Utils.isPersistentClientRead;
+import static io.ballerina.stdlib.persist.compiler.Utils.isPersistentClientReadByKey;
 import static io.ballerina.stdlib.persist.compiler.Utils.isQueryUsingPersistentClient;
+import static io.ballerina.stdlib.persist.compiler.Utils.isReferringToAny;
 
 /**
  * Code Modifier task for stream invoking.
@@ -77,24 +176,57 @@ public class QueryCodeModifierTask implements ModifierTask<SourceModifierContext
     @Override
     public void modify(SourceModifierContext ctx) {
         Package pkg = ctx.currentPackage();
+        Map<String, TypeDefinitionNode> entities = getEntities(pkg);
+        Map<String, List<String>> entityKeys = getEntityKeys(entities);
+        Map<String, Set<String>> entityRelations = getEntityRelations(entities);
 
         for (ModuleId moduleId : pkg.moduleIds()) {
             Module module = pkg.module(moduleId);
+            SemanticModel semanticModel = ctx.compilation().getSemanticModel(moduleId);
             for (DocumentId documentId : module.documentIds()) {
-                ctx.modifySourceFile(getUpdatedSyntaxTree(module, documentId).textDocument(), documentId);
+                ctx.modifySourceFile(getUpdatedSyntaxTree(module, documentId, semanticModel, entityKeys,
+                        entityRelations).textDocument(), documentId);
             }
             for (DocumentId documentId : module.testDocumentIds()) {
-                ctx.modifyTestSourceFile(getUpdatedSyntaxTree(module, documentId).textDocument(), documentId);
+                ctx.modifyTestSourceFile(getUpdatedSyntaxTree(module, documentId, semanticModel, entityKeys,
+                        entityRelations).textDocument(), documentId);
             }
         }
     }
 
-    private SyntaxTree getUpdatedSyntaxTree(Module module, DocumentId documentId) {
+    private SyntaxTree getUpdatedSyntaxTree(Module module, DocumentId documentId, SemanticModel semanticModel,
+                                            Map<String, List<String>> entityKeys,
+                                            Map<String, Set<String>> entityRelations) {
 
         Document document = module.document(documentId);
         ModulePartNode rootNode = document.syntaxTree().rootNode();
 
-        QueryConstructModifier queryConstructModifier = new QueryConstructModifier();
+        // The methods of the clients are resolved before the document is modified, as only the original nodes have
+        // their types resolved
+        ClientMethodCollector clientMethods = new ClientMethodCollector(semanticModel);
+        rootNode.accept(clientMethods);
+
+        // The records read by key in loops are read beforehand, using a single readByKeys() call
+        rootNode = (ModulePartNode) rootNode.apply(new ReadByKeyLoopModifier(entityKeys, clientMethods));
+
+        // Counting the records of a query is rewritten before the query itself is modified
+        CountQueryCollector countQueryCollector = new CountQueryCollector(entityRelations, clientMethods);
+        rootNode.accept(countQueryCollector);
+        for (Map.Entry<MethodCallExpressionNode, ExpressionNode> countQuery :
+                countQueryCollector.getCountQueries().entrySet()) {
+            rootNode = rootNode.replace(countQuery.getKey(), countQuery.getValue());
+        }
+
+        // The lang library aggregates of a query are rewritten in the same way
+        AggregateQueryCollector aggregateQueryCollector = new AggregateQueryCollector(entityRelations,
+                clientMethods);
+        rootNode.accept(aggregateQueryCollector);
+        for (Map.Entry<CheckExpressionNode, ExpressionNode> aggregateQuery :
+                aggregateQueryCollector.getAggregateQueries().entrySet()) {
+            rootNode = rootNode.replace(aggregateQuery.getKey(), aggregateQuery.getValue());
+        }
+
+        QueryConstructModifier queryConstructModifier = new QueryConstructModifier(entityRelations, clientMethods);
         ModulePartNode newRoot = (ModulePartNode) rootNode.apply(queryConstructModifier);
 
         return document.syntaxTree().modifyWith(newRoot);
@@ -102,53 +234,202 @@ public class QueryCodeModifierTask implements ModifierTask<SourceModifierContext
 
     private static class QueryConstructModifier extends TreeModifier {
 
+        private final Map<String, Set<String>> entityRelations;
+        private final ClientMethodCollector clientMethods;
+
+        QueryConstructModifier(Map<String, Set<String>> entityRelations, ClientMethodCollector clientMethods) {
+            this.entityRelations = entityRelations;
+            this.clientMethods = clientMethods;
+        }
+
         @Override
         public QueryPipelineNode transform(QueryPipelineNode queryPipelineNode) {
+            // The records of the joined persist clients are filtered by their own queries, hence the conjuncts
+            // pushed down to them are removed before the records of the from clause are processed
+            Node queryNode = queryPipelineNode.parent();
+            // The variables are resolved before the pipeline is modified, as the modified nodes have no parents
+            Set<String> arrayVariables = getArrayVariables(queryPipelineNode);
+            QueryPipelineNode joinedPipelineNode = processJoinClauses(queryPipelineNode, queryNode, arrayVariables);
+            return processFromClause(joinedPipelineNode, queryNode, arrayVariables);
+        }
+
+        /**
+         * Filters and projects the records read by the persist clients of the inner join clauses. The joins are not
+         * performed by the database, as the records of each client are still read by a separate query and joined by
+         * the query of the pipeline.
+         */
+        private QueryPipelineNode processJoinClauses(QueryPipelineNode queryPipelineNode, Node queryNode,
+                                                     Set<String> arrayVariables) {
+            NodeList<IntermediateClauseNode> intermediateClauseNodes = queryPipelineNode.intermediateClauses();
+            Set<String> boundVariables = getQueryBoundVariables(queryPipelineNode);
+            Map<Integer, List<ExpressionNode>> residualConjuncts = getWhereClauseConjuncts(intermediateClauseNodes);
+            Set<Integer> modifiedWhereClauses = new TreeSet<>(Collections.reverseOrder());
+
+            NodeList<IntermediateClauseNode> processedClauses = intermediateClauseNodes;
+            for (int i = 0; i < intermediateClauseNodes.size(); i++) {
+                if (!(intermediateClauseNodes.get(i) instanceof JoinClauseNode)) {
+                    continue;
+                }
+                JoinClauseNode joinClauseNode = (JoinClauseNode) intermediateClauseNodes.get(i);
+                // The records of an outer join are retained even if there is no match, hence they are not filtered
+                if (joinClauseNode.outerKeyword().isPresent() || !isPersistentClientRead(joinClauseNode.expression()) ||
+                        !isExecuteSupported((RemoteMethodCallActionNode) joinClauseNode.expression())) {
+                    continue;
+                }
+                RemoteMethodCallActionNode readCall = (RemoteMethodCallActionNode) joinClauseNode.expression();
+                BindingPatternNode bindingPatternNode = joinClauseNode.typedBindingPattern().bindingPattern();
+                Set<String> relationFields = getFilterableRelationFields(readCall,
+                        joinClauseNode.typedBindingPattern());
+                Set<String> joinedVariables = getBoundVariables(bindingPatternNode);
+                Set<String> otherVariables = new HashSet<>(boundVariables);
+                otherVariables.removeAll(joinedVariables);
+
+                // Only the conjuncts following the join, which refer to none but the joined record, are pushed down
+                List<ExpressionNode> pushedConjuncts = new ArrayList<>();
+                for (Map.Entry<Integer, List<ExpressionNode>> whereClause : residualConjuncts.entrySet()) {
+                    if (whereClause.getKey() < i) {
+                        continue;
+                    }
+                    for (ExpressionNode conjunct : whereClause.getValue()) {
+                        if (isReferringToAny(conjunct, joinedVariables) &&
+                                !isReferringToAny(conjunct, otherVariables) &&
+                                isSupportedExpression(conjunct, bindingPatternNode, relationFields, arrayVariables)) {
+                            pushedConjuncts.add(conjunct);
+                        }
+                    }
+                }
+
+                List<Node> referringNodes = new ArrayList<>();
+                for (int j = 0; j < intermediateClauseNodes.size(); j++) {
+                    if (j != i) {
+                        referringNodes.add(intermediateClauseNodes.get(j));
+                    }
+                }
+                referringNodes.add(joinClauseNode.joinOnCondition());
+                List<String> projectedFields = getProjectedFields(readCall, queryNode, referringNodes,
+                        bindingPatternNode);
+                if (pushedConjuncts.isEmpty() && projectedFields.isEmpty()) {
+                    continue;
+                }
+
+                List<Node> parameterizedQuery = new ArrayList<>();
+                parameterizedQuery.add(Utils.getStringLiteralToken(SPACE));
+                Set<String> filterRelations = new TreeSet<>();
+                if (!pushedConjuncts.isEmpty()) {
+                    try {
+                        parameterizedQuery.addAll(processWhereClause(joinConjuncts(pushedConjuncts),
+                                bindingPatternNode, relationFields, arrayVariables, filterRelations));
+                    } catch (NotSupportedExpressionException e) {
+                        continue;
+                    }
+                }
+                for (Map.Entry<Integer, List<ExpressionNode>> whereClause : residualConjuncts.entrySet()) {
+                    if (whereClause.getValue().removeAll(pushedConjuncts)) {
+                        modifiedWhereClauses.add(whereClause.getKey());
+                    }
+                }
+                processedClauses = processedClauses.set(i, joinClauseNode.modify(
+                        joinClauseNode.outerKeyword().orElse(null),
+                        joinClauseNode.joinKeyword(),
+                        joinClauseNode.typedBindingPattern(),
+                        joinClauseNode.inKeyword(),
+                        createExecuteCall(readCall, parameterizedQuery, projectedFields, filterRelations),
+                        joinClauseNode.joinOnCondition()
+                ));
+            }
+
+            if (processedClauses == intermediateClauseNodes) {
+                return queryPipelineNode;
+            }
+            // The where clauses are replaced in the reverse order, so that the indices of the others remain valid
+            for (int whereClauseIndex : modifiedWhereClauses) {
+                WhereClauseNode whereClause = (WhereClauseNode) intermediateClauseNodes.get(whereClauseIndex);
+                List<ExpressionNode> conjuncts = residualConjuncts.get(whereClauseIndex);
+                processedClauses = conjuncts.isEmpty() ? processedClauses.remove(whereClauseIndex) :
+                        processedClauses.set(whereClauseIndex, createResidualWhereClause(whereClause, conjuncts));
+            }
+            return queryPipelineNode.modify(queryPipelineNode.fromClause(), processedClauses);
+        }
+
+        private QueryPipelineNode processFromClause(QueryPipelineNode queryPipelineNode, Node queryNode,
+                                                    Set<String> arrayVariables) {
 
             FromClauseNode fromClauseNode = queryPipelineNode.fromClause();
             // verify if node invokes persist client read() method
-            if (!isQueryUsingPersistentClient(fromClauseNode)) {
+            if (!isQueryUsingPersistentClient(fromClauseNode) ||
+                    !isExecuteSupported((RemoteMethodCallActionNode) fromClauseNode.expression())) {
                 return queryPipelineNode;
             }
+            RemoteMethodCallActionNode readCall = (RemoteMethodCallActionNode) fromClauseNode.expression();
 
             // Check if the query contains where/ orderby / limit clause
             NodeList<IntermediateClauseNode> intermediateClauseNodes = queryPipelineNode.intermediateClauses();
-            List<IntermediateClauseNode> whereClauseNode = intermediateClauseNodes.stream()
-                    .filter((node) -> node instanceof WhereClauseNode)
-                    .collect(Collectors.toList());
-
-            List<IntermediateClauseNode> orderByClauseNode = intermediateClauseNodes.stream()
-                    .filter((node) -> node instanceof OrderByClauseNode)
-                    .collect(Collectors.toList());
+            Map<Integer, List<ExpressionNode>> whereClauseConjuncts = getWhereClauseConjuncts(intermediateClauseNodes);
+            int limitClauseIndex = intermediateClauseNodes.size();
+            int orderByClauseIndex = -1;
+            for (int i = intermediateClauseNodes.size() - 1; i >= 0; i--) {
+                if (intermediateClauseNodes.get(i) instanceof LimitClauseNode) {
+                    limitClauseIndex = i;
+                } else if (intermediateClauseNodes.get(i) instanceof OrderByClauseNode) {
+                    orderByClauseIndex = i;
+                }
+            }
 
-            List<IntermediateClauseNode> limitClauseNode = intermediateClauseNodes.stream()
-                    .filter((node) -> node instanceof LimitClauseNode)
-                    .collect(Collectors.toList());
+            // The where and order by clauses following the limit clause are applied to the limited records in memory
+            boolean isWhereClauseUsed = !whereClauseConjuncts.isEmpty();
+            boolean isOrderByClauseUsed = orderByClauseIndex != -1 && orderByClauseIndex < limitClauseIndex;
+            boolean isLimitClauseUsed = limitClauseIndex != intermediateClauseNodes.size();
 
-            boolean isWhereClauseUsed = whereClauseNode.size() != 0;
-            boolean isOrderByClauseUsed = orderByClauseNode.size() != 0;
-            boolean isLimitClauseUsed = limitClauseNode.size() != 0;
+            // Only the fields referenced by the query are retrieved, when they can be determined
+            List<String> projectedFields = getProjectedFields(readCall, queryNode,
+                    new ArrayList<>(intermediateClauseNodes), fromClauseNode.typedBindingPattern().bindingPattern());
 
-            if (!isWhereClauseUsed && !isOrderByClauseUsed && !isLimitClauseUsed) {
+            if (!isWhereClauseUsed && !isOrderByClauseUsed && !isLimitClauseUsed && projectedFields.isEmpty()) {
                 return queryPipelineNode;
             }
 
             List<Node> parameterizedQuery = new ArrayList<>();
             parameterizedQuery.add(Utils.getStringLiteralToken(SPACE));
+            Set<String> relationFields = getFilterableRelationFields(readCall, fromClauseNode.typedBindingPattern());
+            Set<String> filterRelations = new TreeSet<>();
 
+            // The conjuncts of the where clauses, which cannot be pushed down, are retained as residual where clauses
             if (isWhereClauseUsed) {
+                BindingPatternNode bindingPatternNode = fromClauseNode.typedBindingPattern().bindingPattern();
+                // The conjuncts referring to the records bound by the other clauses are evaluated in memory
+                Set<String> otherVariables = getQueryBoundVariables(queryPipelineNode);
+                otherVariables.removeAll(getBoundVariables(bindingPatternNode));
+                List<ExpressionNode> pushedConjuncts = new ArrayList<>();
+                for (List<ExpressionNode> conjuncts : whereClauseConjuncts.values()) {
+                    for (ExpressionNode conjunct : new ArrayList<>(conjuncts)) {
+                        if (!isReferringToAny(conjunct, otherVariables) &&
+                                isSupportedExpression(conjunct, bindingPatternNode, relationFields, arrayVariables)) {
+                            pushedConjuncts.add(conjunct);
+                            conjuncts.remove(conjunct);
+                        }
+                    }
+                }
+                if (pushedConjuncts.isEmpty()) {
+                    return queryPipelineNode;
+                }
+
+                // A single where clause, which is fully pushed down, is pushed down as it is
+                ExpressionNode pushedExpression = joinConjuncts(pushedConjuncts);
+                if (whereClauseConjuncts.size() == 1 && whereClauseConjuncts.values().iterator().next().isEmpty()) {
+                    pushedExpression = ((WhereClauseNode) intermediateClauseNodes.get(
+                            whereClauseConjuncts.keySet().iterator().next())).expression();
+                }
                 try {
-                    List<Node> whereClause = processWhereClause(((WhereClauseNode) whereClauseNode.get(0)),
-                            fromClauseNode.typedBindingPattern().bindingPattern());
-                    parameterizedQuery.addAll(whereClause);
+                    parameterizedQuery.addAll(processWhereClause(pushedExpression, bindingPatternNode, relationFields,
+                            arrayVariables, filterRelations));
                 } catch (NotSupportedExpressionException e) {
-                    // Need to
                     return queryPipelineNode;
                 }
             }
             if (isOrderByClauseUsed) {
-                Node orderByClause = processOrderByClause(((OrderByClauseNode) orderByClauseNode.get(0)),
-                        fromClauseNode.typedBindingPattern().bindingPattern());
+                Node orderByClause = processOrderByClause(
+                        ((OrderByClauseNode) intermediateClauseNodes.get(orderByClauseIndex)),
+                        fromClauseNode.typedBindingPattern().bindingPattern(), relationFields, filterRelations);
                 if (orderByClause != null) {
                     parameterizedQuery.add(orderByClause);
                 } else {
@@ -156,64 +437,41 @@ public class QueryCodeModifierTask implements ModifierTask<SourceModifierContext
                     return queryPipelineNode;
                 }
             }
+            // The limit cannot be applied before any residual where clause filters the records, or before the
+            // join and from clauses change the number of records
+            boolean isFilteredInMemory = whereClauseConjuncts.values().stream()
+                    .anyMatch(conjuncts -> !conjuncts.isEmpty());
+            isLimitClauseUsed = isLimitClauseUsed && !isFilteredInMemory &&
+                    intermediateClauseNodes.stream().noneMatch(node ->
+                            node instanceof JoinClauseNode || node instanceof FromClauseNode);
             if (isLimitClauseUsed) {
-                Node limitClause = processLimitClause(((LimitClauseNode) limitClauseNode.get(0)));
+                List<Node> limitClause = processLimitClause(
+                        (LimitClauseNode) intermediateClauseNodes.get(limitClauseIndex));
                 if (limitClause != null) {
-                    parameterizedQuery.add(limitClause);
+                    parameterizedQuery.addAll(limitClause);
                 } else {
                     // If we cannot process limit clause, query syntax is left as it is
                     return queryPipelineNode;
                 }
             }
 
-
-            PositionalArgumentNode firstArgument = NodeFactory.createPositionalArgumentNode(
-                    NodeFactory.createTemplateExpressionNode(
-                            SyntaxKind.RAW_TEMPLATE_EXPRESSION, null, BACKTICK_TOKEN,
-                            createSeparatedNodeList(parameterizedQuery), BACKTICK_TOKEN
-                    )
-            );
-
-            RemoteMethodCallActionNode remoteCall = (RemoteMethodCallActionNode) fromClauseNode.expression();
             FromClauseNode modifiedFromClause = fromClauseNode.modify(
                     fromClauseNode.fromKeyword(),
                     fromClauseNode.typedBindingPattern(),
                     fromClauseNode.inKeyword(),
-                    NodeFactory.createRemoteMethodCallActionNode(
-                            remoteCall.expression(),
-                            remoteCall.rightArrowToken(),
-                            NodeFactory.createSimpleNameReferenceNode(
-                                    Utils.getStringLiteralToken(EXECUTE_FUNCTION)
-                            ),
-                            remoteCall.openParenToken(),
-                            createSeparatedNodeList(firstArgument),
-                            remoteCall.closeParenToken()
-                    )
+                    createExecuteCall(readCall, parameterizedQuery, projectedFields, filterRelations)
             );
 
+            // The clauses are removed in the reverse order, so that the indices of the others remain valid
             NodeList<IntermediateClauseNode> processedClauses = intermediateClauseNodes;
-            if (isWhereClauseUsed) {
-                for (int i = 0; i < processedClauses.size(); i++) {
-                    if (processedClauses.get(i) instanceof WhereClauseNode) {
-                        processedClauses = processedClauses.remove(i);
-                        break;
-                    }
-                }
-            }
-            if (isOrderByClauseUsed) {
-                for (int i = 0; i < processedClauses.size(); i++) {
-                    if (processedClauses.get(i) instanceof OrderByClauseNode) {
-                        processedClauses = processedClauses.remove(i);
-                        break;
-                    }
-                }
-            }
-            if (isLimitClauseUsed) {
-                for (int i = 0; i < processedClauses.size(); i++) {
-                    if (processedClauses.get(i) instanceof LimitClauseNode) {
-                        processedClauses = processedClauses.remove(i);
-                        break;
-                    }
+            for (int i = intermediateClauseNodes.size() - 1; i >= 0; i--) {
+                if (whereClauseConjuncts.containsKey(i)) {
+                    List<ExpressionNode> conjuncts = whereClauseConjuncts.get(i);
+                    processedClauses = conjuncts.isEmpty() ? processedClauses.remove(i) : processedClauses.set(i,
+                            createResidualWhereClause((WhereClauseNode) intermediateClauseNodes.get(i), conjuncts));
+                } else if ((isOrderByClauseUsed && i == orderByClauseIndex) ||
+                        (isLimitClauseUsed && i == limitClauseIndex)) {
+                    processedClauses = processedClauses.remove(i);
                 }
             }
 
@@ -223,18 +481,183 @@ public class QueryCodeModifierTask implements ModifierTask<SourceModifierContext
             );
         }
 
-        private List<Node> processWhereClause(WhereClauseNode whereClauseNode,
-                                              BindingPatternNode bindingPatternNode)
+        private boolean isExecuteSupported(RemoteMethodCallActionNode readCall) {
+            // The relations to be included are passed on to the execute() method, hence it should accept them
+            return readCall.arguments().isEmpty() ||
+                    clientMethods.isParameterDeclared(readCall.expression(), EXECUTE_FUNCTION, INCLUDE_PARAMETER);
+        }
+
+        private Set<String> getFilterableRelationFields(RemoteMethodCallActionNode readCall,
+                                                        TypedBindingPatternNode typedBindingPatternNode) {
+            // The relations referred to by the filters are only joined if the execute() method accepts them
+            if (!clientMethods.isParameterDeclared(readCall.expression(), EXECUTE_FUNCTION,
+                    FILTER_RELATIONS_PARAMETER)) {
+                return Collections.emptySet();
+            }
+            return getRelationFields(entityRelations, typedBindingPatternNode);
+        }
+
+        private RemoteMethodCallActionNode createExecuteCall(RemoteMethodCallActionNode remoteCall,
+                                                             List<Node> parameterizedQuery,
+                                                             List<String> projectedFields,
+                                                             Set<String> filterRelations) {
+            PositionalArgumentNode firstArgument = NodeFactory.createPositionalArgumentNode(
+                    NodeFactory.createTemplateExpressionNode(
+                            SyntaxKind.RAW_TEMPLATE_EXPRESSION, null, BACKTICK_TOKEN,
+                            createSeparatedNodeList(parameterizedQuery), BACKTICK_TOKEN
+                    )
+            );
+            // The relations to be included are passed on as they are
+            List<Node> arguments = new ArrayList<>();
+            arguments.add(firstArgument);
+            for (FunctionArgumentNode argument : remoteCall.arguments()) {
+                arguments.add(COMMA_TOKEN);
+                arguments.add(argument);
+            }
+            if (!projectedFields.isEmpty()) {
+                String fieldsList = projectedFields.stream()
+                        .map(field -> "\"" + field + "\"")
+                        .collect(Collectors.joining(", ", "[", "]"));
+                arguments.add(COMMA_TOKEN);
+                arguments.add(NodeFactory.createNamedArgumentNode(
+                        NodeFactory.createSimpleNameReferenceNode(Utils.getStringLiteralToken(FIELDS_PARAMETER)),
+                        EQUAL_TOKEN, NodeParser.parseExpression(fieldsList)));
+            }
+            if (!filterRelations.isEmpty()) {
+                arguments.add(COMMA_TOKEN);
+                arguments.add(createFilterRelationsArgument(filterRelations));
+            }
+            return NodeFactory.createRemoteMethodCallActionNode(
+                    remoteCall.expression(),
+                    remoteCall.rightArrowToken(),
+                    NodeFactory.createSimpleNameReferenceNode(
+                            Utils.getStringLiteralToken(EXECUTE_FUNCTION)
+                    ),
+                    remoteCall.openParenToken(),
+                    createSeparatedNodeList(arguments),
+                    remoteCall.closeParenToken()
+            );
+        }
+
+        private WhereClauseNode createResidualWhereClause(WhereClauseNode whereClause,
+                                                          List<ExpressionNode> residualConjuncts) {
+            ExpressionNode residualExpression = joinConjuncts(residualConjuncts);
+            // Retains the line break, which followed the original where clause
+            Token lastToken = residualExpression.lastToken();
+            residualExpression = residualExpression.replace(lastToken, lastToken.modify(
+                    lastToken.leadingMinutiae(), whereClause.expression().lastToken().trailingMinutiae()));
+            return whereClause.modify(whereClause.whereKeyword(), residualExpression);
+        }
+
+        private List<String> getProjectedFields(RemoteMethodCallActionNode readCall, Node queryNode,
+                                                List<Node> referringNodes, BindingPatternNode bindingPatternNode) {
+            if (!clientMethods.isParameterDeclared(readCall.expression(), EXECUTE_FUNCTION, FIELDS_PARAMETER)) {
+                return Collections.emptyList();
+            }
+            List<String> fields = new ArrayList<>();
+            if (bindingPatternNode instanceof MappingBindingPatternNode) {
+                for (BindingPatternNode patternNode :
+                        ((MappingBindingPatternNode) bindingPatternNode).fieldBindingPatterns()) {
+                    if (patternNode instanceof FieldBindingPatternVarnameNode) {
+                        fields.add(((FieldBindingPatternVarnameNode) patternNode).variableName().name().text());
+                    } else if (patternNode instanceof FieldBindingPatternFullNode) {
+                        fields.add(((FieldBindingPatternFullNode) patternNode).variableName().name().text());
+                    } else {
+                        // The rest binding pattern binds all the remaining fields
+                        return Collections.emptyList();
+                    }
+                }
+            } else if (bindingPatternNode instanceof CaptureBindingPatternNode) {
+                String variableName = ((CaptureBindingPatternNode) bindingPatternNode).variableName().text();
+                FieldReferenceCollector collector = new FieldReferenceCollector(variableName);
+                if (queryNode instanceof QueryExpressionNode) {
+                    ((QueryExpressionNode) queryNode).selectClause().accept(collector);
+                    ((QueryExpressionNode) queryNode).onConflictClause().ifPresent(clause -> clause.accept(collector));
+                } else if (queryNode instanceof QueryActionNode) {
+                    ((QueryActionNode) queryNode).blockStatement().accept(collector);
+                } else {
+                    return Collections.emptyList();
+                }
+                referringNodes.forEach(node -> node.accept(collector));
+                if (collector.isAllFieldsUsed()) {
+                    return Collections.emptyList();
+                }
+                fields.addAll(collector.getFields());
+            }
+            return fields.stream()
+                    .map(field -> field.startsWith(BAL_ESCAPE_TOKEN) ? field.substring(1) : field)
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Builds the SQL filter of the expression. The relations, whose columns are referred to by the filter, are
+         * added to the given filter relations, as they should be joined by the persist client.
+         */
+        private static List<Node> processWhereClause(ExpressionNode expressionNode,
+                                                     BindingPatternNode bindingPatternNode,
+                                                     Set<String> relationFields, Set<String> arrayVariables,
+                                                     Set<String> filterRelations)
                 throws NotSupportedExpressionException {
-            ExpressionBuilder expressionBuilder = new ExpressionBuilder(whereClauseNode.expression(),
-                    bindingPatternNode);
+            ExpressionBuilder expressionBuilder = new ExpressionBuilder(expressionNode, bindingPatternNode,
+                    relationFields, arrayVariables);
             ExpressionVisitor expressionVisitor = new ExpressionVisitor();
             expressionBuilder.build(expressionVisitor);
+            filterRelations.addAll(expressionBuilder.getReferredRelations());
             return expressionVisitor.getExpression();
         }
 
-        private Node processOrderByClause(OrderByClauseNode orderByClauseNode,
-                                          BindingPatternNode bindingPatternNode) {
+        private static boolean isSupportedExpression(ExpressionNode expressionNode,
+                                                     BindingPatternNode bindingPatternNode,
+                                                     Set<String> relationFields, Set<String> arrayVariables) {
+            try {
+                processWhereClause(expressionNode, bindingPatternNode, relationFields, arrayVariables,
+                        new HashSet<>());
+                return true;
+            } catch (NotSupportedExpressionException e) {
+                return false;
+            }
+        }
+
+        private static ExpressionNode joinConjuncts(List<ExpressionNode> conjuncts) {
+            ExpressionNode expression = getConjunctOperand(conjuncts.get(0));
+            for (int i = 1; i < conjuncts.size(); i++) {
+                expression = NodeFactory.createBinaryExpressionNode(SyntaxKind.BINARY_EXPRESSION, expression,
+                        LOGICAL_AND_TOKEN, getConjunctOperand(conjuncts.get(i)));
+            }
+            return expression;
+        }
+
+        // The conjuncts, whose operators have a lower precedence than `&&`, are braced when they are joined
+        private static ExpressionNode getConjunctOperand(ExpressionNode conjunct) {
+            if (conjunct instanceof ConditionalExpressionNode || (conjunct instanceof BinaryExpressionNode &&
+                    ((BinaryExpressionNode) conjunct).operator().kind() == SyntaxKind.LOGICAL_OR_TOKEN)) {
+                return NodeFactory.createBracedExpressionNode(SyntaxKind.BRACED_EXPRESSION, OPEN_PAREN_TOKEN,
+                        conjunct, CLOSE_PAREN_TOKEN);
+            }
+            return conjunct;
+        }
+
+        /**
+         * Returns the conjuncts of the where clauses by the indices of the clauses. The where clauses following
+         * a limit clause filter the limited records, hence they are not included.
+         */
+        private static Map<Integer, List<ExpressionNode>> getWhereClauseConjuncts(
+                NodeList<IntermediateClauseNode> intermediateClauseNodes) {
+            Map<Integer, List<ExpressionNode>> whereClauseConjuncts = new TreeMap<>();
+            for (int i = 0; i < intermediateClauseNodes.size(); i++) {
+                IntermediateClauseNode clause = intermediateClauseNodes.get(i);
+                if (clause instanceof LimitClauseNode) {
+                    break;
+                } else if (clause instanceof WhereClauseNode) {
+                    whereClauseConjuncts.put(i, new ArrayList<>(
+                            ExpressionBuilder.getConjuncts(((WhereClauseNode) clause).expression())));
+                }
+            }
+            return whereClauseConjuncts;
+        }
+
+        private Node processOrderByClause(OrderByClauseNode orderByClauseNode, BindingPatternNode bindingPatternNode,
+                                          Set<String> relationFields, Set<String> filterRelations) {
             StringBuilder orderByClause = new StringBuilder(ORDERBY).append(SPACE);
             SeparatedNodeList<OrderKeyNode> orderKeyNodes = orderByClauseNode.orderKey();
             for (int i = 0; i < orderKeyNodes.size(); i++) {
@@ -242,19 +665,16 @@ public class QueryCodeModifierTask implements ModifierTask<SourceModifierContext
                     orderByClause.append(", ");
                 }
                 ExpressionNode expression = orderKeyNodes.get(i).expression();
-                if (expression instanceof FieldAccessExpressionNode) {
-                    FieldAccessExpressionNode fieldAccessNode = (FieldAccessExpressionNode) expression;
-                    if (!(bindingPatternNode instanceof CaptureBindingPatternNode)) {
-                        // If this is not capture pattern there is compilation error
+                if (expression instanceof FieldAccessExpressionNode ||
+                        expression instanceof OptionalFieldAccessExpressionNode) {
+                    ExpressionBuilder expressionBuilder = new ExpressionBuilder(expression, bindingPatternNode,
+                            relationFields, Collections.emptySet());
+                    String columnName = expressionBuilder.getColumnName();
+                    if (columnName == null) {
                         return null;
                     }
-                    String bindingVariableName = ((CaptureBindingPatternNode) bindingPatternNode).variableName().text();
-                    String recordName = ((SimpleNameReferenceNode) fieldAccessNode.expression()).name().text();
-                    if (!bindingVariableName.equals(recordName)) {
-                        return null;
-                    }
-                    String fieldName = ((SimpleNameReferenceNode) fieldAccessNode.fieldName()).name().text();
-                    orderByClause.append(fieldName);
+                    filterRelations.addAll(expressionBuilder.getReferredRelations());
+                    orderByClause.append(columnName);
                 } else if (expression instanceof SimpleNameReferenceNode) {
                     String fieldName = ((SimpleNameReferenceNode) expression).name().text();
 
@@ -262,19 +682,11 @@ public class QueryCodeModifierTask implements ModifierTask<SourceModifierContext
                         // If this is not mapping pattern there is compilation error
                         return null;
                     }
-                    boolean isCorrectField = false;
-                    SeparatedNodeList<BindingPatternNode> bindingPatternNodes =
-                            ((MappingBindingPatternNode) bindingPatternNode).fieldBindingPatterns();
-                    for (BindingPatternNode patternNode : bindingPatternNodes) {
-                        String field = ((FieldBindingPatternVarnameNode) patternNode).variableName().name().text();
-                        if (fieldName.equals(field)) {
-                            isCorrectField = true;
-                        }
-                    }
-                    if (!isCorrectField) {
+                    String boundField = getBoundFields((MappingBindingPatternNode) bindingPatternNode).get(fieldName);
+                    if (boundField == null) {
                         return null;
                     }
-                    orderByClause.append(fieldName);
+                    orderByClause.append(boundField);
                 } else {
                     // Persistent client does not support order by using parameters
                     return null;
@@ -293,15 +705,858 @@ public class QueryCodeModifierTask implements ModifierTask<SourceModifierContext
             return Utils.getStringLiteralToken(orderByClause.toString());
         }
 
-        private Node processLimitClause(LimitClauseNode limitClauseNode) {
+        private List<Node> processLimitClause(LimitClauseNode limitClauseNode) {
             ExpressionNode limitByExpression = limitClauseNode.expression();
-            if (limitByExpression instanceof BasicLiteralNode &&
-                    limitByExpression.kind() == SyntaxKind.NUMERIC_LITERAL) {
+            if (limitByExpression instanceof BasicLiteralNode) {
+                if (limitByExpression.kind() != SyntaxKind.NUMERIC_LITERAL) {
+                    return null;
+                }
                 String limitClause = LIMIT + SPACE + ((BasicLiteralNode) limitByExpression).literalToken().text();
-                return Utils.getStringLiteralToken(limitClause);
+                return List.of(Utils.getStringLiteralToken(limitClause));
+            }
+            // The limit expression cannot refer to the variables bound by the query, hence it is passed as a parameter
+            ExpressionNode limitParameter = NodeParser.parseExpression(limitByExpression.toSourceCode().trim());
+            return List.of(Utils.getStringLiteralToken(LIMIT + SPACE), NodeFactory.createInterpolationNode(
+                    INTERPOLATION_START_TOKEN, limitParameter, INTERPOLATION_END_TOKEN));
+        }
+    }
+
+    /**
+     * Returns the persist entities of the package by their names. The entities, whose names are not unique within
+     * the package, are not included.
+     */
+    private static Map<String, TypeDefinitionNode> getEntities(Package pkg) {
+        Map<String, TypeDefinitionNode> entities = new HashMap<>();
+        Set<String> duplicateEntities = new HashSet<>();
+        for (ModuleId moduleId : pkg.moduleIds()) {
+            Module module = pkg.module(moduleId);
+            for (DocumentId documentId : module.documentIds()) {
+                ModulePartNode rootNode = module.document(documentId).syntaxTree().rootNode();
+                for (ModuleMemberDeclarationNode member : rootNode.members()) {
+                    if (!(member instanceof TypeDefinitionNode) ||
+                            getEntityConfig((TypeDefinitionNode) member) == null) {
+                        continue;
+                    }
+                    TypeDefinitionNode typeDefinitionNode = (TypeDefinitionNode) member;
+                    String entityName = typeDefinitionNode.typeName().text().trim();
+                    if (entities.containsKey(entityName)) {
+                        duplicateEntities.add(entityName);
+                    }
+                    entities.put(entityName, typeDefinitionNode);
+                }
+            }
+        }
+        duplicateEntities.forEach(entities::remove);
+        return entities;
+    }
+
+    private static MappingConstructorExpressionNode getEntityConfig(TypeDefinitionNode typeDefinitionNode) {
+        if (typeDefinitionNode.metadata().isEmpty()) {
+            return null;
+        }
+        for (AnnotationNode annotation : typeDefinitionNode.metadata().get().annotations()) {
+            if (annotation.annotReference().toSourceCode().trim().equals(ENTITY) &&
+                    annotation.annotValue().isPresent()) {
+                return annotation.annotValue().get();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key fields of the persist entities by the names of the entities.
+     */
+    private static Map<String, List<String>> getEntityKeys(Map<String, TypeDefinitionNode> entities) {
+        Map<String, List<String>> entityKeys = new HashMap<>();
+        entities.forEach((entityName, typeDefinitionNode) ->
+                entityKeys.put(entityName, getKeyFields(getEntityConfig(typeDefinitionNode))));
+        return entityKeys;
+    }
+
+    /**
+     * Returns the relation fields of the persist entities, which refer to a single related entity, by the names of
+     * the entities. Only these relations are joined by the persist clients to filter the records, hence the fields
+     * of the other record fields (e.g. `e.joinedDate.year`) are not referred to as the columns of the relations.
+     */
+    private static Map<String, Set<String>> getEntityRelations(Map<String, TypeDefinitionNode> entities) {
+        Map<String, Set<String>> entityRelations = new HashMap<>();
+        entities.forEach((entityName, typeDefinitionNode) -> {
+            Set<String> relationFields = new HashSet<>();
+            if (typeDefinitionNode.typeDescriptor() instanceof RecordTypeDescriptorNode) {
+                for (Node field : ((RecordTypeDescriptorNode) typeDefinitionNode.typeDescriptor()).fields()) {
+                    Node fieldType;
+                    Token fieldName;
+                    if (field instanceof RecordFieldNode) {
+                        fieldType = ((RecordFieldNode) field).typeName();
+                        fieldName = ((RecordFieldNode) field).fieldName();
+                    } else if (field instanceof RecordFieldWithDefaultValueNode) {
+                        fieldType = ((RecordFieldWithDefaultValueNode) field).typeName();
+                        fieldName = ((RecordFieldWithDefaultValueNode) field).fieldName();
+                    } else {
+                        continue;
+                    }
+                    String typeName = getTypeName(fieldType);
+                    if (typeName != null && entities.containsKey(typeName)) {
+                        String name = fieldName.text();
+                        relationFields.add(name.startsWith(BAL_ESCAPE_TOKEN) ? name.substring(1) : name);
+                    }
+                }
+            }
+            entityRelations.put(entityName, relationFields);
+        });
+        return entityRelations;
+    }
+
+    /**
+     * Returns the relation fields of the entity of the records bound by a from or join clause. The entity is not
+     * known if the type of the records is not given (e.g. `var`), hence none of the relations are referred to.
+     */
+    private static Set<String> getRelationFields(Map<String, Set<String>> entityRelations,
+                                                 TypedBindingPatternNode typedBindingPatternNode) {
+        String entityName = getTypeName(typedBindingPatternNode.typeDescriptor());
+        if (entityName == null) {
+            return Collections.emptySet();
+        }
+        return entityRelations.getOrDefault(entityName, Collections.emptySet());
+    }
+
+    private static String getTypeName(Node typeDescriptor) {
+        if (typeDescriptor instanceof OptionalTypeDescriptorNode) {
+            return getTypeName(((OptionalTypeDescriptorNode) typeDescriptor).typeDescriptor());
+        } else if (typeDescriptor instanceof SimpleNameReferenceNode) {
+            return ((SimpleNameReferenceNode) typeDescriptor).name().text().trim();
+        } else if (typeDescriptor instanceof QualifiedNameReferenceNode) {
+            return ((QualifiedNameReferenceNode) typeDescriptor).identifier().text().trim();
+        }
+        return null;
+    }
+
+    private static NamedArgumentNode createFilterRelationsArgument(Set<String> filterRelations) {
+        String relationsList = filterRelations.stream()
+                .map(relation -> "\"" + relation + "\"")
+                .collect(Collectors.joining(", ", "[", "]"));
+        return NodeFactory.createNamedArgumentNode(
+                NodeFactory.createSimpleNameReferenceNode(Utils.getStringLiteralToken(FILTER_RELATIONS_PARAMETER)),
+                EQUAL_TOKEN, NodeParser.parseExpression(relationsList));
+    }
+
+    private static List<String> getKeyFields(MappingConstructorExpressionNode entityConfig) {
+        List<String> keyFields = new ArrayList<>();
+        for (MappingFieldNode mappingFieldNode : entityConfig.fields()) {
+            if (!(mappingFieldNode instanceof SpecificFieldNode)) {
+                continue;
+            }
+            SpecificFieldNode fieldNode = (SpecificFieldNode) mappingFieldNode;
+            if (fieldNode.fieldName().toSourceCode().trim().equals(KEY) && fieldNode.valueExpr().isPresent() &&
+                    fieldNode.valueExpr().get() instanceof ListConstructorExpressionNode) {
+                for (Node keyField : ((ListConstructorExpressionNode) fieldNode.valueExpr().get()).expressions()) {
+                    keyFields.add(Utils.eliminateDoubleQuotes(keyField.toSourceCode().trim()));
+                }
+            }
+        }
+        return keyFields;
+    }
+
+    /**
+     * Returns the relation fields of the entities, which may be referred to by the filters passed on to the given
+     * method of the client. The relations are only joined to filter the records if the method accepts them.
+     */
+    private static Map<String, Set<String>> getFilterableRelations(ClientMethodCollector clientMethods,
+                                                                   RemoteMethodCallActionNode readCall,
+                                                                   String methodName,
+                                                                   Map<String, Set<String>> entityRelations) {
+        return clientMethods.isParameterDeclared(readCall.expression(), methodName, FILTER_RELATIONS_PARAMETER) ?
+                entityRelations : Collections.emptyMap();
+    }
+
+    /**
+     * Returns the filter of a persist client query, which only has where and order by clauses, if its where clauses
+     * can be fully pushed down. The order by clauses are dropped, hence the filter is only used to aggregate the
+     * records. The relations referred to by the filter are added to the given filter relations.
+     */
+    private static List<Node> getUnorderedFilterClause(QueryPipelineNode queryPipelineNode,
+                                                       Map<String, Set<String>> entityRelations,
+                                                       Set<String> filterRelations) {
+        List<Node> parameterizedQuery = new ArrayList<>();
+        parameterizedQuery.add(Utils.getStringLiteralToken(SPACE));
+        List<ExpressionNode> whereExpressions = new ArrayList<>();
+        for (IntermediateClauseNode clause : queryPipelineNode.intermediateClauses()) {
+            if (clause instanceof WhereClauseNode) {
+                whereExpressions.add(((WhereClauseNode) clause).expression());
+            } else if (!(clause instanceof OrderByClauseNode)) {
+                return null;
+            }
+        }
+        if (whereExpressions.isEmpty()) {
+            return parameterizedQuery;
+        }
+
+        // The where clauses filter the records in turn, hence they are pushed down as a single conjunction
+        ExpressionNode filterExpression = whereExpressions.get(0);
+        if (whereExpressions.size() > 1) {
+            List<ExpressionNode> conjuncts = new ArrayList<>();
+            whereExpressions.forEach(expression -> conjuncts.addAll(ExpressionBuilder.getConjuncts(expression)));
+            filterExpression = QueryConstructModifier.joinConjuncts(conjuncts);
+        }
+        try {
+            parameterizedQuery.addAll(QueryConstructModifier.processWhereClause(filterExpression,
+                    queryPipelineNode.fromClause().typedBindingPattern().bindingPattern(),
+                    getRelationFields(entityRelations, queryPipelineNode.fromClause().typedBindingPattern()),
+                    getArrayVariables(queryPipelineNode), filterRelations));
+        } catch (NotSupportedExpressionException e) {
+            return null;
+        }
+        return parameterizedQuery;
+    }
+
+    /**
+     * Collects the lengths of persist client queries, which can be computed using an SQL `COUNT(*)`,
+     * along with the `count()` calls replacing them.
+     */
+    private static class CountQueryCollector extends NodeVisitor {
+
+        private final Map<MethodCallExpressionNode, ExpressionNode> countQueries = new LinkedHashMap<>();
+        private final Map<String, Set<String>> entityRelations;
+        private final ClientMethodCollector clientMethods;
+
+        CountQueryCollector(Map<String, Set<String>> entityRelations, ClientMethodCollector clientMethods) {
+            this.entityRelations = entityRelations;
+            this.clientMethods = clientMethods;
+        }
+
+        public Map<MethodCallExpressionNode, ExpressionNode> getCountQueries() {
+            return countQueries;
+        }
+
+        @Override
+        public void visit(MethodCallExpressionNode methodCallExpressionNode) {
+            ExpressionNode countExpression = getCountExpression(methodCallExpressionNode);
+            if (countExpression != null) {
+                countQueries.put(methodCallExpressionNode, countExpression);
             } else {
+                visitSyntaxNode(methodCallExpressionNode);
+            }
+        }
+
+        private ExpressionNode getCountExpression(MethodCallExpressionNode methodCallExpressionNode) {
+            if (!methodCallExpressionNode.methodName().toSourceCode().trim().equals(LENGTH_FUNCTION) ||
+                    methodCallExpressionNode.arguments().size() != 0 ||
+                    !(methodCallExpressionNode.expression() instanceof BracedExpressionNode)) {
+                return null;
+            }
+            BracedExpressionNode bracedExpression = (BracedExpressionNode) methodCallExpressionNode.expression();
+            if (!(bracedExpression.expression() instanceof CheckExpressionNode)) {
+                return null;
+            }
+            CheckExpressionNode checkExpression = (CheckExpressionNode) bracedExpression.expression();
+            if (!(checkExpression.expression() instanceof QueryExpressionNode)) {
+                return null;
+            }
+            QueryExpressionNode queryExpression = (QueryExpressionNode) checkExpression.expression();
+            FromClauseNode fromClauseNode = queryExpression.queryPipeline().fromClause();
+            if (queryExpression.queryConstructType().isPresent() || queryExpression.onConflictClause().isPresent() ||
+                    !isQueryUsingPersistentClient(fromClauseNode) ||
+                    !isCountableSelect(queryExpression.selectClause().expression())) {
+                return null;
+            }
+            RemoteMethodCallActionNode remoteCall = (RemoteMethodCallActionNode) fromClauseNode.expression();
+            if (!clientMethods.isMethodDeclared(remoteCall.expression(), COUNT_FUNCTION)) {
+                return null;
+            }
+
+            // The order of the records does not affect the count, hence only the where clauses are processed
+            Set<String> filterRelations = new TreeSet<>();
+            List<Node> parameterizedQuery = getUnorderedFilterClause(queryExpression.queryPipeline(),
+                    getFilterableRelations(clientMethods, remoteCall, COUNT_FUNCTION, entityRelations),
+                    filterRelations);
+            if (parameterizedQuery == null) {
+                return null;
+            }
+            List<Node> arguments = new ArrayList<>();
+            arguments.add(NodeFactory.createPositionalArgumentNode(NodeFactory.createTemplateExpressionNode(
+                    SyntaxKind.RAW_TEMPLATE_EXPRESSION, null, BACKTICK_TOKEN,
+                    createSeparatedNodeList(parameterizedQuery), BACKTICK_TOKEN)));
+            if (!filterRelations.isEmpty()) {
+                arguments.add(COMMA_TOKEN);
+                arguments.add(createFilterRelationsArgument(filterRelations));
+            }
+
+            MethodCallExpressionNode countCall = NodeFactory.createMethodCallExpressionNode(
+                    remoteCall.expression(),
+                    DOT_TOKEN,
+                    NodeFactory.createSimpleNameReferenceNode(Utils.getStringLiteralToken(COUNT_FUNCTION)),
+                    OPEN_PAREN_TOKEN,
+                    createSeparatedNodeList(arguments),
+                    CLOSE_PAREN_TOKEN
+            );
+            return bracedExpression.modify(
+                    bracedExpression.kind(),
+                    bracedExpression.openParen(),
+                    checkExpression.modify(checkExpression.kind(), checkExpression.checkKeyword(), countCall),
+                    methodCallExpressionNode.closeParenToken()
+            );
+        }
+
+        private boolean isCountableSelect(ExpressionNode selectExpression) {
+            // The select expression is not evaluated when the records are counted, hence it should not fail
+            return selectExpression instanceof SimpleNameReferenceNode ||
+                    selectExpression instanceof FieldAccessExpressionNode ||
+                    selectExpression instanceof BasicLiteralNode;
+        }
+    }
+
+    /**
+     * Collects the lang library aggregates (e.g. `int:sum`) of the fields selected by persist client queries, which
+     * can be computed using SQL aggregate functions, along with the aggregate queries replacing the client queries.
+     * The aggregate query selects at most a single value, hence the lang library function computes the same result.
+     * Only queries selecting a field of the record as is (e.g. `select e.salary`) are aggregated.
+     */
+    private static class AggregateQueryCollector extends NodeVisitor {
+
+        private static final Map<String, String> AGGREGATE_FUNCTIONS = Map.of(
+                SUM_FUNCTION, SUM, MIN_FUNCTION, MIN, MAX_FUNCTION, MAX);
+        private static final List<String> NUMERIC_TYPES = List.of(INT, FLOAT, DECIMAL);
+
+        private final Map<CheckExpressionNode, ExpressionNode> aggregateQueries = new LinkedHashMap<>();
+        private final Map<String, Set<String>> entityRelations;
+        private final ClientMethodCollector clientMethods;
+
+        AggregateQueryCollector(Map<String, Set<String>> entityRelations, ClientMethodCollector clientMethods) {
+            this.entityRelations = entityRelations;
+            this.clientMethods = clientMethods;
+        }
+
+        public Map<CheckExpressionNode, ExpressionNode> getAggregateQueries() {
+            return aggregateQueries;
+        }
+
+        @Override
+        public void visit(FunctionCallExpressionNode functionCallExpressionNode) {
+            SeparatedNodeList<FunctionArgumentNode> arguments = functionCallExpressionNode.arguments();
+            ExpressionNode aggregateQuery = getAggregateQuery(functionCallExpressionNode);
+            if (aggregateQuery != null) {
+                aggregateQueries.put((CheckExpressionNode) ((RestArgumentNode) arguments.get(arguments.size() - 1))
+                        .expression(), aggregateQuery);
+            } else {
+                visitSyntaxNode(functionCallExpressionNode);
+            }
+        }
+
+        private ExpressionNode getAggregateQuery(FunctionCallExpressionNode functionCallExpressionNode) {
+            if (!(functionCallExpressionNode.functionName() instanceof QualifiedNameReferenceNode)) {
+                return null;
+            }
+            QualifiedNameReferenceNode functionName =
+                    (QualifiedNameReferenceNode) functionCallExpressionNode.functionName();
+            String typeName = functionName.modulePrefix().text();
+            String aggregateFunction = AGGREGATE_FUNCTIONS.get(functionName.identifier().text());
+            if (!NUMERIC_TYPES.contains(typeName) || aggregateFunction == null) {
+                return null;
+            }
+            SeparatedNodeList<FunctionArgumentNode> arguments = functionCallExpressionNode.arguments();
+            if (arguments.size() == 0 || !(arguments.get(arguments.size() - 1) instanceof RestArgumentNode)) {
+                return null;
+            }
+            ExpressionNode restExpression = ((RestArgumentNode) arguments.get(arguments.size() - 1)).expression();
+            if (!(restExpression instanceof CheckExpressionNode) ||
+                    !(((CheckExpressionNode) restExpression).expression() instanceof QueryExpressionNode)) {
+                return null;
+            }
+            CheckExpressionNode checkExpression = (CheckExpressionNode) restExpression;
+            QueryExpressionNode queryExpression = (QueryExpressionNode) checkExpression.expression();
+            FromClauseNode fromClauseNode = queryExpression.queryPipeline().fromClause();
+            if (queryExpression.queryConstructType().isPresent() || queryExpression.onConflictClause().isPresent() ||
+                    !isQueryUsingPersistentClient(fromClauseNode)) {
+                return null;
+            }
+            RemoteMethodCallActionNode remoteCall = (RemoteMethodCallActionNode) fromClauseNode.expression();
+            if (!clientMethods.isMethodDeclared(remoteCall.expression(), AGGREGATE_FUNCTION)) {
+                return null;
+            }
+            String fieldName = getSelectedField(queryExpression.selectClause().expression(),
+                    fromClauseNode.typedBindingPattern().bindingPattern());
+            Set<String> filterRelations = new TreeSet<>();
+            List<Node> parameterizedQuery = getUnorderedFilterClause(queryExpression.queryPipeline(),
+                    getFilterableRelations(clientMethods, remoteCall, AGGREGATE_FUNCTION, entityRelations),
+                    filterRelations);
+            if (fieldName == null || parameterizedQuery == null) {
+                return null;
+            }
+
+            // The record variable of the query is reused for the rows, as it does not conflict with the variables
+            BindingPatternNode bindingPatternNode = fromClauseNode.typedBindingPattern().bindingPattern();
+            String rowVariable = bindingPatternNode instanceof CaptureBindingPatternNode ?
+                    ((CaptureBindingPatternNode) bindingPatternNode).variableName().text() : fieldName;
+            String filterClause = NodeFactory.createTemplateExpressionNode(SyntaxKind.RAW_TEMPLATE_EXPRESSION, null,
+                    BACKTICK_TOKEN, createSeparatedNodeList(parameterizedQuery), BACKTICK_TOKEN).toSourceCode();
+            String checkKeyword = checkExpression.checkKeyword().text();
+            String aggregateValue = rowVariable + "[\"" + AGGREGATE_ALIAS + "\"]";
+            String aggregateQuery = checkKeyword + " from record {} " + rowVariable + " in " + checkKeyword + " " +
+                    remoteCall.expression().toSourceCode().trim() + "." + AGGREGATE_FUNCTION + "(" + filterClause +
+                    ", [{'function: \"" + aggregateFunction + "\", fieldName: \"" +
+                    (fieldName.startsWith(BAL_ESCAPE_TOKEN) ? fieldName.substring(1) : fieldName) +
+                    "\", alias: \"" + AGGREGATE_ALIAS + "\"}]" + (filterRelations.isEmpty() ? "" : ", " +
+                    createFilterRelationsArgument(filterRelations).toSourceCode()) + ") where " + aggregateValue +
+                    " != () select <" +
+                    typeName + ">" + aggregateValue;
+            return NodeParser.parseExpression(aggregateQuery);
+        }
+
+        private String getSelectedField(ExpressionNode selectExpression, BindingPatternNode bindingPatternNode) {
+            if (selectExpression instanceof FieldAccessExpressionNode &&
+                    bindingPatternNode instanceof CaptureBindingPatternNode) {
+                FieldAccessExpressionNode fieldAccessExpression = (FieldAccessExpressionNode) selectExpression;
+                String variableName = ((CaptureBindingPatternNode) bindingPatternNode).variableName().text();
+                if (fieldAccessExpression.expression() instanceof SimpleNameReferenceNode &&
+                        ((SimpleNameReferenceNode) fieldAccessExpression.expression()).name().text()
+                                .equals(variableName) &&
+                        fieldAccessExpression.fieldName() instanceof SimpleNameReferenceNode) {
+                    return ((SimpleNameReferenceNode) fieldAccessExpression.fieldName()).name().text();
+                }
+            } else if (selectExpression instanceof SimpleNameReferenceNode &&
+                    bindingPatternNode instanceof MappingBindingPatternNode) {
+                String variableName = ((SimpleNameReferenceNode) selectExpression).name().text();
+                return getBoundFields((MappingBindingPatternNode) bindingPatternNode).get(variableName);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Reads the records of the foreach loops, which read a record by key using a persist client for each iteration,
+     * beforehand using a single readByKeys() call. Only the loops over the array variables are modified, whose first
+     * statement reads the record using the keys of the iterated values, and whose remaining statements neither
+     * invoke other functions, which may write the records, nor modify the records read, nor exit the loop early.
+     * The records, which are not read beforehand, are still read by key, hence the iterations are not affected.
+     */
+    private static class ReadByKeyLoopModifier extends TreeModifier {
+
+        private final Map<String, List<String>> entityKeys;
+        private final ClientMethodCollector clientMethods;
+        // The variables declared for the loops modified, which should not be declared again in the same document
+        private final Set<String> hoistedNames = new HashSet<>();
+
+        ReadByKeyLoopModifier(Map<String, List<String>> entityKeys, ClientMethodCollector clientMethods) {
+            this.entityKeys = entityKeys;
+            this.clientMethods = clientMethods;
+        }
+
+        @Override
+        public FunctionBodyBlockNode transform(FunctionBodyBlockNode functionBodyBlockNode) {
+            return functionBodyBlockNode.modify()
+                    .withStatements(getHoistedStatements(functionBodyBlockNode.statements()))
+                    .apply();
+        }
+
+        @Override
+        public BlockStatementNode transform(BlockStatementNode blockStatementNode) {
+            return blockStatementNode.modify()
+                    .withStatements(getHoistedStatements(blockStatementNode.statements()))
+                    .apply();
+        }
+
+        private NodeList<StatementNode> getHoistedStatements(NodeList<StatementNode> statements) {
+            List<StatementNode> hoistedStatements = new ArrayList<>();
+            for (StatementNode statement : statements) {
+                List<StatementNode> hoistedLoop = statement instanceof ForEachStatementNode ?
+                        getHoistedLoop((ForEachStatementNode) statement) : null;
+                if (hoistedLoop != null) {
+                    hoistedStatements.addAll(hoistedLoop);
+                } else {
+                    hoistedStatements.add(modifyNode(statement));
+                }
+            }
+            return NodeFactory.createNodeList(hoistedStatements);
+        }
+
+        private List<StatementNode> getHoistedLoop(ForEachStatementNode forEachStatementNode) {
+            // The records cannot be read beforehand if the failures are handled by the loop itself
+            if (forEachStatementNode.onFailClause().isPresent() ||
+                    !(forEachStatementNode.typedBindingPattern().bindingPattern() instanceof
+                            CaptureBindingPatternNode) ||
+                    !(forEachStatementNode.actionOrExpressionNode() instanceof SimpleNameReferenceNode) ||
+                    !getArrayVariables(forEachStatementNode).contains(
+                            ((SimpleNameReferenceNode) forEachStatementNode.actionOrExpressionNode()).name().text())) {
+                return null;
+            }
+            String loopVariable = ((CaptureBindingPatternNode) forEachStatementNode.typedBindingPattern()
+                    .bindingPattern()).variableName().text();
+            NodeList<StatementNode> statements = forEachStatementNode.blockStatement().statements();
+            if (statements.isEmpty() || !(statements.get(0) instanceof VariableDeclarationNode)) {
+                return null;
+            }
+            VariableDeclarationNode declaration = (VariableDeclarationNode) statements.get(0);
+            TypedBindingPatternNode typedBindingPattern = declaration.typedBindingPattern();
+            if (!(typedBindingPattern.bindingPattern() instanceof CaptureBindingPatternNode) ||
+                    declaration.initializer().isEmpty() ||
+                    declaration.initializer().get().kind() != SyntaxKind.CHECK_ACTION) {
+                return null;
+            }
+            CheckExpressionNode checkAction = (CheckExpressionNode) declaration.initializer().get();
+            if (!(checkAction.expression() instanceof RemoteMethodCallActionNode)) {
+                return null;
+            }
+            RemoteMethodCallActionNode remoteCall = (RemoteMethodCallActionNode) checkAction.expression();
+            if (!isPersistentClientReadByKey(remoteCall) ||
+                    !(remoteCall.expression() instanceof SimpleNameReferenceNode) ||
+                    !(remoteCall.arguments().get(0) instanceof PositionalArgumentNode) ||
+                    !clientMethods.isMethodDeclared(remoteCall.expression(), READ_BY_KEYS_FUNCTION) ||
+                    (remoteCall.arguments().size() == 2 && !clientMethods.isParameterDeclared(
+                            remoteCall.expression(), READ_BY_KEYS_FUNCTION, INCLUDE_PARAMETER))) {
+                return null;
+            }
+            ExpressionNode keyExpression = ((PositionalArgumentNode) remoteCall.arguments().get(0)).expression();
+            String entityName = getTypeName(typedBindingPattern.typeDescriptor());
+            List<String> keyFields = entityName == null ? null : entityKeys.get(entityName);
+            if (!isLoopVariableAccess(keyExpression, loopVariable) || keyFields == null || keyFields.size() != 1) {
+                return null;
+            }
+
+            // The records read beforehand are stale if the rest of the loop may write them, hence the loop is only
+            // modified if it does not invoke any function, other than those of the standard library. The loop is not
+            // modified either if it may exit early, as the records of the skipped iterations would be read needlessly.
+            // Since all the iterations are performed, only the errors of reading the records beforehand are returned
+            // earlier, before the first iteration instead of the iteration reading the record.
+            String variableName = ((CaptureBindingPatternNode) typedBindingPattern.bindingPattern())
+                    .variableName().text();
+            ModulePartNode rootNode = forEachStatementNode.syntaxTree().rootNode();
+            LoopSideEffectCollector sideEffectCollector = new LoopSideEffectCollector(variableName,
+                    getStandardLibraryPrefixes(rootNode));
+            for (int i = 1; i < statements.size(); i++) {
+                statements.get(i).accept(sideEffectCollector);
+            }
+            String recordsName = variableName + "Records";
+            String recordName = variableName + "Record";
+            String source = rootNode.toSourceCode();
+            if (sideEffectCollector.hasSideEffects() || sideEffectCollector.isExitedEarly() ||
+                    hoistedNames.contains(recordsName) || isIdentifierUsed(source, recordsName) ||
+                    isIdentifierUsed(source, recordName)) {
                 return null;
             }
+            hoistedNames.add(recordsName);
+
+            // The keys of the iterated values are selected by a query, which iterates the same array as the loop
+            TypeDescriptorNode typeDescriptor = withoutMinutiae(typedBindingPattern.typeDescriptor());
+            ExpressionNode key = withoutMinutiae(keyExpression);
+            List<Node> arguments = new ArrayList<>();
+            arguments.add(NodeFactory.createPositionalArgumentNode(NodeFactory.createQueryExpressionNode(null,
+                    NodeFactory.createQueryPipelineNode(NodeFactory.createFromClauseNode(
+                            createToken(SyntaxKind.FROM_KEYWORD, "", SPACE),
+                            withoutMinutiae(forEachStatementNode.typedBindingPattern()),
+                            createToken(SyntaxKind.IN_KEYWORD, SPACE, SPACE),
+                            withoutMinutiae((SimpleNameReferenceNode) forEachStatementNode.actionOrExpressionNode())),
+                            NodeFactory.createEmptyNodeList()),
+                    NodeFactory.createSelectClauseNode(createToken(SyntaxKind.SELECT_KEYWORD, SPACE, SPACE), key),
+                    null)));
+            if (remoteCall.arguments().size() == 2) {
+                arguments.add(COMMA_TOKEN);
+                arguments.add(withoutMinutiae(remoteCall.arguments().get(1)));
+            }
+            RemoteMethodCallActionNode readByKeysCall = NodeFactory.createRemoteMethodCallActionNode(
+                    withoutMinutiae(remoteCall.expression()),
+                    createToken(SyntaxKind.RIGHT_ARROW_TOKEN, "", ""),
+                    createVariable(READ_BY_KEYS_FUNCTION),
+                    OPEN_PAREN_TOKEN,
+                    createSeparatedNodeList(arguments),
+                    createToken(SyntaxKind.CLOSE_PAREN_TOKEN, "", SPACE));
+            ListConstructorExpressionNode keyRecordPair = NodeFactory.createListConstructorExpressionNode(
+                    createToken(SyntaxKind.OPEN_BRACKET_TOKEN, "", ""),
+                    createSeparatedNodeList(createToStringCall(NodeFactory.createFieldAccessExpressionNode(
+                            createVariable(variableName), DOT_TOKEN, createVariable(keyFields.get(0)))),
+                            COMMA_TOKEN, createVariable(variableName)),
+                    createToken(SyntaxKind.CLOSE_BRACKET_TOKEN, "", ""));
+            VariableDeclarationNode prefetch = NodeFactory.createVariableDeclarationNode(
+                    NodeFactory.createEmptyNodeList(),
+                    null,
+                    NodeFactory.createTypedBindingPatternNode(
+                            NodeFactory.createMapTypeDescriptorNode(createToken(SyntaxKind.MAP_KEYWORD, "", ""),
+                                    NodeFactory.createTypeParameterNode(createToken(SyntaxKind.LT_TOKEN, "", ""),
+                                            typeDescriptor, createToken(SyntaxKind.GT_TOKEN, "", SPACE))),
+                            createCaptureBindingPattern(recordsName)),
+                    EQUAL_TOKEN,
+                    NodeFactory.createCheckExpressionNode(SyntaxKind.CHECK_EXPRESSION,
+                            createToken(checkAction.checkKeyword().kind(), "", SPACE),
+                            NodeFactory.createQueryExpressionNode(
+                                    NodeFactory.createQueryConstructTypeNode(
+                                            createToken(SyntaxKind.MAP_KEYWORD, "", SPACE), null),
+                                    NodeFactory.createQueryPipelineNode(NodeFactory.createFromClauseNode(
+                                            createToken(SyntaxKind.FROM_KEYWORD, "", SPACE),
+                                            NodeFactory.createTypedBindingPatternNode(
+                                                    withMinutiae(typeDescriptor, "", SPACE),
+                                                    createCaptureBindingPattern(variableName)),
+                                            createToken(SyntaxKind.IN_KEYWORD, SPACE, SPACE),
+                                            readByKeysCall),
+                                            NodeFactory.createEmptyNodeList()),
+                                    NodeFactory.createSelectClauseNode(
+                                            createToken(SyntaxKind.SELECT_KEYWORD, "", SPACE), keyRecordPair),
+                                    null)),
+                    createToken(SyntaxKind.SEMICOLON_TOKEN, "", ""));
+
+            // The records are cloned, as the iterations with the same key would otherwise share the same record
+            VariableDeclarationNode lookup = NodeFactory.createVariableDeclarationNode(
+                    NodeFactory.createEmptyNodeList(),
+                    null,
+                    NodeFactory.createTypedBindingPatternNode(
+                            NodeFactory.createOptionalTypeDescriptorNode(typeDescriptor,
+                                    createToken(SyntaxKind.QUESTION_MARK_TOKEN, "", SPACE)),
+                            createCaptureBindingPattern(recordName)),
+                    EQUAL_TOKEN,
+                    NodeFactory.createMethodCallExpressionNode(
+                            NodeFactory.createIndexedExpressionNode(createVariable(recordsName),
+                                    createToken(SyntaxKind.OPEN_BRACKET_TOKEN, "", ""),
+                                    createSeparatedNodeList(createToStringCall(key)),
+                                    createToken(SyntaxKind.CLOSE_BRACKET_TOKEN, "", "")),
+                            DOT_TOKEN, createVariable(CLONE_FUNCTION), OPEN_PAREN_TOKEN,
+                            createSeparatedNodeList(), CLOSE_PAREN_TOKEN),
+                    createToken(SyntaxKind.SEMICOLON_TOKEN, "", ""));
+            VariableDeclarationNode variableDeclaration = NodeFactory.createVariableDeclarationNode(
+                    NodeFactory.createEmptyNodeList(),
+                    declaration.finalKeyword().map(keyword -> createToken(keyword.kind(), "", SPACE)).orElse(null),
+                    NodeFactory.createTypedBindingPatternNode(withMinutiae(typeDescriptor, "", SPACE),
+                            createCaptureBindingPattern(variableName)),
+                    null,
+                    null,
+                    createToken(SyntaxKind.SEMICOLON_TOKEN, "", ""));
+
+            // The readByKey() call of the fallback is marked, so that it is not reported as a call performed for each
+            // iteration, as it only reads the records missing among the records read beforehand
+            String indentation = getIndentation(declaration.leadingMinutiae());
+            String blockIndentation = indentation + INDENTATION;
+            MinutiaeList fallbackMinutiae = NodeFactory.createMinutiaeList(
+                    NodeFactory.createWhitespaceMinutiae(blockIndentation),
+                    NodeFactory.createCommentMinutiae(READ_BY_KEY_FALLBACK_COMMENT),
+                    NodeFactory.createEndOfLineMinutiae(NEW_LINE),
+                    NodeFactory.createWhitespaceMinutiae(blockIndentation));
+            IfElseStatementNode ifElseStatement = NodeFactory.createIfElseStatementNode(
+                    createToken(SyntaxKind.IF_KEYWORD, "", SPACE),
+                    NodeFactory.createTypeTestExpressionNode(createVariable(recordName),
+                            createToken(SyntaxKind.IS_KEYWORD, SPACE, SPACE), withMinutiae(typeDescriptor, "", SPACE)),
+                    createBlock(withMinutiae(createAssignment(variableName, createVariable(recordName)),
+                            blockIndentation, NEW_LINE), indentation, SPACE),
+                    NodeFactory.createElseBlockNode(createToken(SyntaxKind.ELSE_KEYWORD, "", SPACE),
+                            createBlock(withMinutiae(createAssignment(variableName, withoutMinutiae(checkAction)),
+                                    fallbackMinutiae, createMinutiae(NEW_LINE)), indentation, "")),
+                    null);
+
+            List<StatementNode> loopStatements = new ArrayList<>();
+            loopStatements.add(withMinutiae(lookup, declaration.leadingMinutiae(), createMinutiae(NEW_LINE)));
+            loopStatements.add(withMinutiae(variableDeclaration, indentation, NEW_LINE));
+            loopStatements.add(withMinutiae(ifElseStatement, createMinutiae(indentation),
+                    declaration.semicolonToken().trailingMinutiae()));
+            for (int i = 1; i < statements.size(); i++) {
+                loopStatements.add(statements.get(i));
+            }
+            ForEachStatementNode hoistedLoop = forEachStatementNode.modify()
+                    .withBlockStatement(forEachStatementNode.blockStatement().modify()
+                            .withStatements(NodeFactory.createNodeList(loopStatements))
+                            .apply())
+                    .apply();
+            // The comments preceding the loop are retained before the records read beforehand
+            return List.of(
+                    withMinutiae(prefetch, forEachStatementNode.leadingMinutiae(), createMinutiae(NEW_LINE)),
+                    withMinutiae(hoistedLoop, createMinutiae(getIndentation(forEachStatementNode.leadingMinutiae())),
+                            forEachStatementNode.trailingMinutiae()));
+        }
+
+        private MethodCallExpressionNode createToStringCall(ExpressionNode expression) {
+            return NodeFactory.createMethodCallExpressionNode(expression, DOT_TOKEN,
+                    createVariable(TO_STRING_FUNCTION), OPEN_PAREN_TOKEN, createSeparatedNodeList(),
+                    CLOSE_PAREN_TOKEN);
+        }
+
+        private AssignmentStatementNode createAssignment(String variableName, ExpressionNode expression) {
+            return NodeFactory.createAssignmentStatementNode(createVariable(variableName), EQUAL_TOKEN, expression,
+                    createToken(SyntaxKind.SEMICOLON_TOKEN, "", ""));
+        }
+
+        private BlockStatementNode createBlock(StatementNode statement, String indentation,
+                                               String closeBraceTrailingMinutiae) {
+            return NodeFactory.createBlockStatementNode(createToken(SyntaxKind.OPEN_BRACE_TOKEN, "", NEW_LINE),
+                    NodeFactory.createNodeList(statement),
+                    createToken(SyntaxKind.CLOSE_BRACE_TOKEN, indentation, closeBraceTrailingMinutiae));
+        }
+
+        private CaptureBindingPatternNode createCaptureBindingPattern(String name) {
+            return NodeFactory.createCaptureBindingPatternNode(NodeFactory.createIdentifierToken(name));
+        }
+
+        private SimpleNameReferenceNode createVariable(String name) {
+            return NodeFactory.createSimpleNameReferenceNode(NodeFactory.createIdentifierToken(name));
+        }
+
+        private Token createToken(SyntaxKind kind, String leadingMinutiae, String trailingMinutiae) {
+            return NodeFactory.createToken(kind, createMinutiae(leadingMinutiae), createMinutiae(trailingMinutiae));
+        }
+
+        private MinutiaeList createMinutiae(String whitespace) {
+            if (whitespace.isEmpty()) {
+                return NodeFactory.createEmptyMinutiaeList();
+            }
+            return whitespace.equals(NEW_LINE) ? NodeFactory.createMinutiaeList(
+                    NodeFactory.createEndOfLineMinutiae(NEW_LINE)) :
+                    NodeFactory.createMinutiaeList(NodeFactory.createWhitespaceMinutiae(whitespace));
+        }
+
+        private <T extends NonTerminalNode> T withoutMinutiae(T node) {
+            return withMinutiae(node, "", "");
+        }
+
+        private <T extends NonTerminalNode> T withMinutiae(T node, String leadingMinutiae, String trailingMinutiae) {
+            return withMinutiae(node, createMinutiae(leadingMinutiae), createMinutiae(trailingMinutiae));
+        }
+
+        private <T extends NonTerminalNode> T withMinutiae(T node, MinutiaeList leadingMinutiae,
+                                                           MinutiaeList trailingMinutiae) {
+            Token firstToken = node.firstToken();
+            T modifiedNode = node.replace(firstToken, firstToken.modify(leadingMinutiae,
+                    firstToken.trailingMinutiae()));
+            Token lastToken = modifiedNode.lastToken();
+            return modifiedNode.replace(lastToken, lastToken.modify(lastToken.leadingMinutiae(), trailingMinutiae));
+        }
+
+        private Set<String> getStandardLibraryPrefixes(ModulePartNode rootNode) {
+            Set<String> prefixes = new HashSet<>();
+            for (ImportDeclarationNode importNode : rootNode.imports()) {
+                String moduleName = importNode.moduleName().get(importNode.moduleName().size() - 1).text();
+                // The persist and sql modules are excluded, as their functions may write the records
+                if (importNode.orgName().isEmpty() ||
+                        !importNode.orgName().get().orgName().text().equals(BALLERINA_ORG) ||
+                        moduleName.equals(PERSIST_MODULE) || moduleName.equals(SQL_MODULE)) {
+                    continue;
+                }
+                prefixes.add(importNode.prefix().map(prefix -> prefix.prefix().text()).orElse(moduleName));
+            }
+            return prefixes;
+        }
+
+        private boolean isLoopVariableAccess(ExpressionNode expression, String loopVariable) {
+            if (expression instanceof FieldAccessExpressionNode) {
+                return isLoopVariableAccess(((FieldAccessExpressionNode) expression).expression(), loopVariable);
+            }
+            return expression instanceof SimpleNameReferenceNode &&
+                    ((SimpleNameReferenceNode) expression).name().text().equals(loopVariable);
+        }
+
+        private String getTypeName(Node typeDescriptor) {
+            if (typeDescriptor instanceof SimpleNameReferenceNode) {
+                return ((SimpleNameReferenceNode) typeDescriptor).name().text();
+            } else if (typeDescriptor instanceof QualifiedNameReferenceNode) {
+                return ((QualifiedNameReferenceNode) typeDescriptor).identifier().text();
+            }
+            return null;
+        }
+
+        private boolean isIdentifierUsed(String source, String identifier) {
+            return Pattern.compile("\\b" + Pattern.quote(identifier) + "\\b").matcher(source).find();
+        }
+
+        private String getIndentation(MinutiaeList minutiaeList) {
+            String minutiae = getMinutiae(minutiaeList);
+            return minutiae.substring(minutiae.lastIndexOf('\n') + 1);
+        }
+
+        private String getMinutiae(MinutiaeList minutiaeList) {
+            StringBuilder minutiae = new StringBuilder();
+            minutiaeList.forEach(minutia -> minutiae.append(minutia.text()));
+            return minutiae.toString();
+        }
+    }
+
+    /**
+     * Checks whether the visited statements of a loop may write the records of a persist client, or modify the record
+     * read by key. The functions of the standard library modules, other than persist and sql, are not considered to
+     * write the records. Also checks whether the visited statements may exit the loop before its last iteration.
+     */
+    private static class LoopSideEffectCollector extends NodeVisitor {
+
+        private final String variableName;
+        private final Set<String> standardLibraryPrefixes;
+        private boolean hasSideEffects = false;
+        private boolean isExitedEarly = false;
+
+        LoopSideEffectCollector(String variableName, Set<String> standardLibraryPrefixes) {
+            this.variableName = variableName;
+            this.standardLibraryPrefixes = standardLibraryPrefixes;
+        }
+
+        public boolean hasSideEffects() {
+            return hasSideEffects;
+        }
+
+        public boolean isExitedEarly() {
+            return isExitedEarly;
+        }
+
+        @Override
+        public void visit(BreakStatementNode breakStatementNode) {
+            isExitedEarly = true;
+        }
+
+        @Override
+        public void visit(ReturnStatementNode returnStatementNode) {
+            isExitedEarly = true;
+        }
+
+        @Override
+        public void visit(FailStatementNode failStatementNode) {
+            isExitedEarly = true;
+        }
+
+        @Override
+        public void visit(PanicStatementNode panicStatementNode) {
+            isExitedEarly = true;
+        }
+
+        @Override
+        public void visit(CheckExpressionNode checkExpressionNode) {
+            // Both the check and checkpanic expressions exit the loop on errors
+            isExitedEarly = true;
+        }
+
+        @Override
+        public void visit(RemoteMethodCallActionNode remoteMethodCallActionNode) {
+            hasSideEffects = true;
+        }
+
+        @Override
+        public void visit(MethodCallExpressionNode methodCallExpressionNode) {
+            hasSideEffects = true;
+        }
+
+        @Override
+        public void visit(StartActionNode startActionNode) {
+            hasSideEffects = true;
+        }
+
+        @Override
+        public void visit(FunctionCallExpressionNode functionCallExpressionNode) {
+            Node functionName = functionCallExpressionNode.functionName();
+            if (!(functionName instanceof QualifiedNameReferenceNode) || !standardLibraryPrefixes.contains(
+                    ((QualifiedNameReferenceNode) functionName).modulePrefix().text())) {
+                hasSideEffects = true;
+                return;
+            }
+            visitSyntaxNode(functionCallExpressionNode);
+        }
+
+        @Override
+        public void visit(AssignmentStatementNode assignmentStatementNode) {
+            visitAssignment(assignmentStatementNode.varRef());
+            visitSyntaxNode(assignmentStatementNode);
+        }
+
+        @Override
+        public void visit(CompoundAssignmentStatementNode compoundAssignmentStatementNode) {
+            visitAssignment(compoundAssignmentStatementNode.lhsExpression());
+            visitSyntaxNode(compoundAssignmentStatementNode);
+        }
+
+        private void visitAssignment(Node lhsExpression) {
+            // Only the local variables, other than the record read, may be assigned
+            if (!(lhsExpression instanceof SimpleNameReferenceNode) ||
+                    ((SimpleNameReferenceNode) lhsExpression).name().text().equals(variableName)) {
+                hasSideEffects = true;
+            }
         }
     }
 }
@@ -18,10 +18,28 @@
 
 package io.ballerina.stdlib.persist.compiler;
 
+import io.ballerina.compiler.syntax.tree.BindingPatternNode;
+import io.ballerina.compiler.syntax.tree.CaptureBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FieldBindingPatternFullNode;
+import io.ballerina.compiler.syntax.tree.FieldBindingPatternVarnameNode;
 import io.ballerina.compiler.syntax.tree.FromClauseNode;
+import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.FunctionArgumentNode;
+import io.ballerina.compiler.syntax.tree.IntermediateClauseNode;
+import io.ballerina.compiler.syntax.tree.JoinClauseNode;
+import io.ballerina.compiler.syntax.tree.LetClauseNode;
+import io.ballerina.compiler.syntax.tree.ListConstructorExpressionNode;
 import io.ballerina.compiler.syntax.tree.LiteralValueToken;
+import io.ballerina.compiler.syntax.tree.MappingBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.NamedArgumentNode;
+import io.ballerina.compiler.syntax.tree.Node;
 import io.ballerina.compiler.syntax.tree.NodeFactory;
+import io.ballerina.compiler.syntax.tree.PositionalArgumentNode;
+import io.ballerina.compiler.syntax.tree.QueryPipelineNode;
 import io.ballerina.compiler.syntax.tree.RemoteMethodCallActionNode;
+import io.ballerina.compiler.syntax.tree.SeparatedNodeList;
+import io.ballerina.compiler.syntax.tree.SimpleNameReferenceNode;
 import io.ballerina.compiler.syntax.tree.SyntaxKind;
 import io.ballerina.projects.plugins.SyntaxNodeAnalysisContext;
 import io.ballerina.tools.diagnostics.DiagnosticFactory;
@@ -29,7 +47,14 @@ import io.ballerina.tools.diagnostics.DiagnosticInfo;
 import io.ballerina.tools.diagnostics.DiagnosticSeverity;
 import io.ballerina.tools.diagnostics.Location;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 import static io.ballerina.compiler.syntax.tree.AbstractNodeFactory.createEmptyMinutiaeList;
+import static io.ballerina.stdlib.persist.compiler.Constants.INCLUDE_PARAMETER;
+import static io.ballerina.stdlib.persist.compiler.Constants.READ_BY_KEY_FUNCTION;
 import static io.ballerina.stdlib.persist.compiler.Constants.READ_FUNCTION;
 
 /**
@@ -53,20 +78,116 @@ public class Utils {
     }
 
     public static boolean isQueryUsingPersistentClient(FromClauseNode fromClauseNode) {
+        return isPersistentClientRead(fromClauseNode.expression());
+    }
 
-        // From clause should contain remote call invocation
-        if (fromClauseNode.expression() instanceof RemoteMethodCallActionNode) {
-            RemoteMethodCallActionNode remoteCall = (RemoteMethodCallActionNode) fromClauseNode.expression();
+    public static boolean isPersistentClientRead(ExpressionNode expressionNode) {
+
+        // Expression should be a remote call invocation
+        if (expressionNode instanceof RemoteMethodCallActionNode) {
+            RemoteMethodCallActionNode remoteCall = (RemoteMethodCallActionNode) expressionNode;
             String functionName = remoteCall.methodName().name().text();
 
             // Remote function name should be read
             if (functionName.trim().equals(READ_FUNCTION)) {
 
-                // Function should be invoked with no arguments
-                int argumentsCount = remoteCall.arguments().size();
-                return argumentsCount == 0;
+                // Function should be invoked with no arguments or only with the relations to be included
+                SeparatedNodeList<FunctionArgumentNode> arguments = remoteCall.arguments();
+                return arguments.size() == 0 || (arguments.size() == 1 && isIncludeArgument(arguments.get(0)));
             }
         }
         return false;
     }
+
+    public static boolean isPersistentClientReadByKey(RemoteMethodCallActionNode remoteCall) {
+        // Function should be invoked with the key and optionally with the relations to be included
+        SeparatedNodeList<FunctionArgumentNode> arguments = remoteCall.arguments();
+        return remoteCall.methodName().name().text().trim().equals(READ_BY_KEY_FUNCTION) &&
+                (arguments.size() == 1 || (arguments.size() == 2 && isIncludeArgument(arguments.get(1))));
+    }
+
+    /**
+     * Returns the names of the variables bound by the from, join and let clauses of a query pipeline.
+     */
+    public static Set<String> getQueryBoundVariables(QueryPipelineNode queryPipelineNode) {
+        BoundVariableCollector collector = new BoundVariableCollector();
+        queryPipelineNode.fromClause().typedBindingPattern().accept(collector);
+        for (IntermediateClauseNode clause : queryPipelineNode.intermediateClauses()) {
+            if (clause instanceof FromClauseNode) {
+                ((FromClauseNode) clause).typedBindingPattern().accept(collector);
+            } else if (clause instanceof JoinClauseNode) {
+                ((JoinClauseNode) clause).typedBindingPattern().accept(collector);
+            } else if (clause instanceof LetClauseNode) {
+                ((LetClauseNode) clause).letVarDeclarations()
+                        .forEach(declaration -> declaration.typedBindingPattern().accept(collector));
+            }
+        }
+        return collector.getVariables();
+    }
+
+    /**
+     * Returns the fields bound to variables by a mapping binding pattern, keyed by the names of the variables.
+     * The fields bound by nested binding patterns and the rest binding pattern are not included.
+     */
+    public static Map<String, String> getBoundFields(MappingBindingPatternNode mappingBindingPatternNode) {
+        Map<String, String> boundFields = new LinkedHashMap<>();
+        for (BindingPatternNode patternNode : mappingBindingPatternNode.fieldBindingPatterns()) {
+            if (patternNode instanceof FieldBindingPatternVarnameNode) {
+                String field = ((FieldBindingPatternVarnameNode) patternNode).variableName().name().text();
+                boundFields.put(field, field);
+            } else if (patternNode instanceof FieldBindingPatternFullNode) {
+                FieldBindingPatternFullNode fullNode = (FieldBindingPatternFullNode) patternNode;
+                if (fullNode.bindingPattern() instanceof CaptureBindingPatternNode) {
+                    boundFields.put(((CaptureBindingPatternNode) fullNode.bindingPattern()).variableName().text(),
+                            fullNode.variableName().name().text());
+                }
+            }
+        }
+        return boundFields;
+    }
+
+    /**
+     * Returns the parameters and the local variables of the function enclosing a node, which are declared with an
+     * array type.
+     */
+    public static Set<String> getArrayVariables(Node node) {
+        Node parent = node.parent();
+        while (parent != null && !(parent instanceof FunctionDefinitionNode)) {
+            parent = parent.parent();
+        }
+        if (parent == null) {
+            return Collections.emptySet();
+        }
+        ArrayVariableCollector arrayVariableCollector = new ArrayVariableCollector();
+        parent.accept(arrayVariableCollector);
+        return arrayVariableCollector.getArrayVariables();
+    }
+
+    public static Set<String> getBoundVariables(Node bindingNode) {
+        BoundVariableCollector collector = new BoundVariableCollector();
+        bindingNode.accept(collector);
+        return collector.getVariables();
+    }
+
+    public static boolean isReferringToAny(Node node, Set<String> variableNames) {
+        for (String variableName : variableNames) {
+            FieldReferenceCollector collector = new FieldReferenceCollector(variableName);
+            node.accept(collector);
+            if (collector.isAllFieldsUsed() || !collector.getFields().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIncludeArgument(FunctionArgumentNode argument) {
+        if (argument instanceof NamedArgumentNode) {
+            return ((NamedArgumentNode) argument).argumentName().name().text().equals(INCLUDE_PARAMETER);
+        }
+        if (argument instanceof PositionalArgumentNode) {
+            ExpressionNode expression = ((PositionalArgumentNode) argument).expression();
+            return expression instanceof ListConstructorExpressionNode || expression instanceof SimpleNameReferenceNode;
+        }
+        return false;
+    }
 }
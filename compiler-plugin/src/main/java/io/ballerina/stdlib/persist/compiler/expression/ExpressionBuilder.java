@@ -25,12 +25,21 @@ import io.ballerina.compiler.syntax.tree.CaptureBindingPatternNode;
 import io.ballerina.compiler.syntax.tree.ChildNodeList;
 import io.ballerina.compiler.syntax.tree.ExpressionNode;
 import io.ballerina.compiler.syntax.tree.FieldAccessExpressionNode;
-import io.ballerina.compiler.syntax.tree.FieldBindingPatternVarnameNode;
+import io.ballerina.compiler.syntax.tree.FunctionArgumentNode;
+import io.ballerina.compiler.syntax.tree.FunctionCallExpressionNode;
 import io.ballerina.compiler.syntax.tree.LiteralValueToken;
 import io.ballerina.compiler.syntax.tree.MappingBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.MethodCallExpressionNode;
+import io.ballerina.compiler.syntax.tree.NameReferenceNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.OptionalFieldAccessExpressionNode;
+import io.ballerina.compiler.syntax.tree.PositionalArgumentNode;
+import io.ballerina.compiler.syntax.tree.QualifiedNameReferenceNode;
 import io.ballerina.compiler.syntax.tree.SeparatedNodeList;
 import io.ballerina.compiler.syntax.tree.SimpleNameReferenceNode;
 import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.Token;
+import io.ballerina.compiler.syntax.tree.UnaryExpressionNode;
 import io.ballerina.stdlib.persist.compiler.DiagnosticsCodes;
 import io.ballerina.stdlib.persist.compiler.NotSupportedExpressionException;
 import io.ballerina.tools.diagnostics.Diagnostic;
@@ -38,7 +47,26 @@ import io.ballerina.tools.diagnostics.DiagnosticFactory;
 import io.ballerina.tools.diagnostics.DiagnosticInfo;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.ballerina.stdlib.persist.compiler.Constants.BAL_ESCAPE_TOKEN;
+import static io.ballerina.stdlib.persist.compiler.Constants.ENDS_WITH_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.INCLUDES_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.INDEX_OF_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.LENGTH_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.RELATION_COLUMN_SEPARATOR;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.CHAR_LENGTH;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.LOWER;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.UPPER;
+import static io.ballerina.stdlib.persist.compiler.Constants.STARTS_WITH_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.STRING_MODULE_PREFIX;
+import static io.ballerina.stdlib.persist.compiler.Constants.TO_LOWER_CASE_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Constants.TO_UPPER_CASE_FUNCTION;
+import static io.ballerina.stdlib.persist.compiler.Utils.getBoundFields;
 
 /**
  * Builder class to process where clause.
@@ -47,20 +75,44 @@ public class ExpressionBuilder {
     private final ExpressionNode expressionNode;
     private boolean isCaptureBindingPattern = false;
     private String bindingVariableName = "";
-    private List<String> fieldNames = new ArrayList<>();
+    private Map<String, String> boundFields = new HashMap<>();
+    private final Set<String> relationFields;
+    private final Set<String> arrayVariables;
+    private final Set<String> referredRelations = new HashSet<>();
 
+    /**
+     * Creates a builder, which does not know the relations of the entity and the types of the variables. The fields
+     * of the record fields (e.g. `e.company.name`) are assumed to refer to the related entities and the receivers of
+     * `indexOf` calls are assumed to be arrays, hence it is only used to validate the expressions.
+     *
+     * @param expression         the expression to be built
+     * @param bindingPatternNode the binding pattern of the records of the entity
+     */
     public ExpressionBuilder(ExpressionNode expression, BindingPatternNode bindingPatternNode) {
+        this(expression, bindingPatternNode, null, null);
+    }
+
+    /**
+     * Creates a builder, which only refers to the columns of the given relations of the entity. The fields of the
+     * other record fields (e.g. `e.joinedDate.year`) are not columns, hence they are not supported.
+     * The membership tests (e.g. `ids.indexOf(e.id) != ()`) are only supported if the receiver is declared as an
+     * array, as the `indexOf` function of a string finds a substring instead.
+     *
+     * @param expression         the expression to be built
+     * @param bindingPatternNode the binding pattern of the records of the entity
+     * @param relationFields     the fields of the entity, which refer to the joinable related entities
+     * @param arrayVariables     the variables in scope, which are declared as arrays
+     */
+    public ExpressionBuilder(ExpressionNode expression, BindingPatternNode bindingPatternNode,
+                             Set<String> relationFields, Set<String> arrayVariables) {
         this.expressionNode = expression;
+        this.relationFields = relationFields;
+        this.arrayVariables = arrayVariables;
         if (bindingPatternNode instanceof CaptureBindingPatternNode) {
             this.isCaptureBindingPattern = true;
             this.bindingVariableName = ((CaptureBindingPatternNode) bindingPatternNode).variableName().text();
         } else if (bindingPatternNode instanceof MappingBindingPatternNode) {
-            SeparatedNodeList<BindingPatternNode> bindingPatternNodes =
-                    ((MappingBindingPatternNode) bindingPatternNode).fieldBindingPatterns();
-            for (BindingPatternNode patternNode : bindingPatternNodes) {
-                String field = ((FieldBindingPatternVarnameNode) patternNode).variableName().name().text();
-                fieldNames.add(field);
-            }
+            this.boundFields = getBoundFields((MappingBindingPatternNode) bindingPatternNode);
         }
     }
 
@@ -68,10 +120,452 @@ public class ExpressionBuilder {
         buildVariableExecutors(expressionNode, expressionVisitor);
     }
 
+    /**
+     * Returns the column referred to by the expression of the builder.
+     *
+     * @return the column name or `null` if the expression is not a field of the entity or of a related entity
+     */
+    public String getColumnName() {
+        return getColumnName(expressionNode);
+    }
+
+    /**
+     * Returns the relations, whose columns are referred to by the expression built so far. These relations should
+     * be joined by the persist client to evaluate the expression.
+     *
+     * @return the names of the referred relation fields
+     */
+    public Set<String> getReferredRelations() {
+        return referredRelations;
+    }
+
+    /**
+     * Returns the column referred to by a field access of the binding variable (e.g. `e.name`) or of a field of the
+     * mapping binding pattern. The fields of a related entity (e.g. `e.company.name` or `e?.company?.name`) refer to
+     * the columns of the joined relation, which are named as `company__name`. The fields of the other record fields
+     * are evaluated in memory.
+     *
+     * @param expression the field access expression
+     * @return the column name or `null` if the expression is not a field of the entity or of a related entity
+     */
+    private String getColumnName(ExpressionNode expression) {
+        List<String> path = new ArrayList<>();
+        ExpressionNode current = expression;
+        while (current instanceof FieldAccessExpressionNode || current instanceof OptionalFieldAccessExpressionNode) {
+            NameReferenceNode fieldName;
+            if (current instanceof FieldAccessExpressionNode) {
+                fieldName = ((FieldAccessExpressionNode) current).fieldName();
+                current = ((FieldAccessExpressionNode) current).expression();
+            } else {
+                fieldName = ((OptionalFieldAccessExpressionNode) current).fieldName();
+                current = ((OptionalFieldAccessExpressionNode) current).expression();
+            }
+            if (!(fieldName instanceof SimpleNameReferenceNode)) {
+                return null;
+            }
+            path.add(0, unescape(((SimpleNameReferenceNode) fieldName).name().text()));
+        }
+        if (!(current instanceof SimpleNameReferenceNode)) {
+            return null;
+        }
+        String rootName = ((SimpleNameReferenceNode) current).name().text();
+        if (this.isCaptureBindingPattern) {
+            if (!bindingVariableName.equals(rootName)) {
+                return null;
+            }
+        } else if (boundFields.containsKey(rootName)) {
+            path.add(0, unescape(boundFields.get(rootName)));
+        } else {
+            return null;
+        }
+
+        if (path.size() == 1) {
+            return path.get(0);
+        } else if (path.size() == 2 && (relationFields == null || relationFields.contains(path.get(0)))) {
+            // Only the relations of the entity are joined, hence the relations of the related entities are not
+            referredRelations.add(path.get(0));
+            return path.get(0) + RELATION_COLUMN_SEPARATOR + path.get(1);
+        }
+        return null;
+    }
+
+    /**
+     * Builds an arithmetic expression. The sub-expressions, which do not refer to the fields, are evaluated by
+     * Ballerina and passed as a single parameter (e.g. `e.ts > base + 3600` is pushed down as
+     * `ts > ${base + 3600}`), so that the fields are compared as they are. The constant sub-expressions are folded.
+     *
+     * @param expression        the arithmetic expression
+     * @param expressionVisitor the expression visitor
+     */
+    private void buildArithmeticExecutors(ExpressionNode expression, ExpressionVisitor expressionVisitor)
+            throws NotSupportedExpressionException {
+        if (isParameterExpression(expression)) {
+            Long constant = foldConstant(expression);
+            if (constant != null) {
+                expressionVisitor.visitArithmeticConstant(constant.toString());
+            } else {
+                expressionVisitor.beginVisitBalExpression(expression);
+                expressionVisitor.endVisitBalExpression(expression);
+            }
+        } else if (expression instanceof BracedExpressionNode) {
+            expressionVisitor.beginVisitBraces();
+            buildArithmeticExecutors(((BracedExpressionNode) expression).expression(), expressionVisitor);
+            expressionVisitor.endVisitBraces();
+        } else if (expression instanceof UnaryExpressionNode && isArithmeticExpression(expression)) {
+            UnaryExpressionNode unaryExpression = (UnaryExpressionNode) expression;
+            expressionVisitor.visitArithmeticOperator(unaryExpression.unaryOperator().kind());
+            buildArithmeticExecutors(unaryExpression.expression(), expressionVisitor);
+        } else if (expression instanceof BinaryExpressionNode && isArithmeticExpression(expression)) {
+            BinaryExpressionNode binaryExpression = (BinaryExpressionNode) expression;
+            SyntaxKind operator = binaryExpression.operator().kind();
+            if (operator == SyntaxKind.SLASH_TOKEN) {
+                // The division of integers is truncated by Ballerina, but not by SQL
+                throw new NotSupportedExpressionException("Unsupported division of fields in where clause");
+            } else if (operator == SyntaxKind.PLUS_TOKEN && !isNumericExpression(binaryExpression.lhsExpr()) &&
+                    !isNumericExpression(binaryExpression.rhsExpr())) {
+                // The strings are concatenated by `+` in Ballerina, but not in SQL
+                throw new NotSupportedExpressionException("Unsupported addition of fields in where clause");
+            }
+            buildArithmeticExecutors(binaryExpression.lhsExpr(), expressionVisitor);
+            expressionVisitor.visitArithmeticOperator(operator);
+            buildArithmeticExecutors(binaryExpression.rhsExpr(), expressionVisitor);
+        } else {
+            buildVariableExecutors(expression, expressionVisitor);
+        }
+    }
+
+    private static boolean isArithmeticExpression(ExpressionNode expression) {
+        if (expression instanceof BracedExpressionNode) {
+            return isArithmeticExpression(((BracedExpressionNode) expression).expression());
+        } else if (expression instanceof UnaryExpressionNode) {
+            SyntaxKind operator = ((UnaryExpressionNode) expression).unaryOperator().kind();
+            return operator == SyntaxKind.MINUS_TOKEN || operator == SyntaxKind.PLUS_TOKEN;
+        } else if (expression instanceof BinaryExpressionNode) {
+            switch (((BinaryExpressionNode) expression).operator().kind()) {
+                case PLUS_TOKEN:
+                case MINUS_TOKEN:
+                case ASTERISK_TOKEN:
+                case SLASH_TOKEN:
+                case PERCENT_TOKEN:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        return false;
+    }
+
+    // The operators other than `+` are only applicable to numbers
+    private static boolean isNumericExpression(ExpressionNode expression) {
+        if (expression instanceof BasicLiteralNode) {
+            return expression.kind() == SyntaxKind.NUMERIC_LITERAL;
+        } else if (expression instanceof BracedExpressionNode) {
+            return isNumericExpression(((BracedExpressionNode) expression).expression());
+        } else if (expression instanceof BinaryExpressionNode &&
+                ((BinaryExpressionNode) expression).operator().kind() == SyntaxKind.PLUS_TOKEN) {
+            return isNumericExpression(((BinaryExpressionNode) expression).lhsExpr()) ||
+                    isNumericExpression(((BinaryExpressionNode) expression).rhsExpr());
+        }
+        return isArithmeticExpression(expression);
+    }
+
+    // The arithmetic expressions of the literals and the variables, which are not bound by the query
+    private boolean isParameterExpression(ExpressionNode expression) {
+        if (expression instanceof BracedExpressionNode) {
+            return isParameterExpression(((BracedExpressionNode) expression).expression());
+        } else if (expression instanceof UnaryExpressionNode && isArithmeticExpression(expression)) {
+            return isParameterExpression(((UnaryExpressionNode) expression).expression());
+        } else if (expression instanceof BinaryExpressionNode && isArithmeticExpression(expression)) {
+            return isParameterExpression(((BinaryExpressionNode) expression).lhsExpr()) &&
+                    isParameterExpression(((BinaryExpressionNode) expression).rhsExpr());
+        }
+        return isParameter(expression);
+    }
+
+    /**
+     * Folds an additive or multiplicative expression of integer literals. The divisions and the remainders are not
+     * folded, hence they are evaluated by Ballerina as parameters. The expressions, which would panic when evaluated
+     * (e.g. due to an overflow), are not folded either.
+     *
+     * @param expression the arithmetic expression
+     * @return the value of the expression or `null` if it cannot be folded
+     */
+    private static Long foldConstant(ExpressionNode expression) {
+        try {
+            if (expression instanceof BasicLiteralNode) {
+                Token literalToken = ((BasicLiteralNode) expression).literalToken();
+                if (literalToken.kind() == SyntaxKind.DECIMAL_INTEGER_LITERAL_TOKEN) {
+                    return Long.parseLong(literalToken.text());
+                } else if (literalToken.kind() == SyntaxKind.HEX_INTEGER_LITERAL_TOKEN) {
+                    return Long.parseLong(literalToken.text().substring(2), 16);
+                }
+            } else if (expression instanceof BracedExpressionNode) {
+                return foldConstant(((BracedExpressionNode) expression).expression());
+            } else if (expression instanceof UnaryExpressionNode) {
+                Long operand = foldConstant(((UnaryExpressionNode) expression).expression());
+                if (operand == null) {
+                    return null;
+                }
+                SyntaxKind operator = ((UnaryExpressionNode) expression).unaryOperator().kind();
+                return operator == SyntaxKind.MINUS_TOKEN ? Long.valueOf(Math.negateExact(operand)) :
+                        operator == SyntaxKind.PLUS_TOKEN ? operand : null;
+            } else if (expression instanceof BinaryExpressionNode) {
+                Long lhs = foldConstant(((BinaryExpressionNode) expression).lhsExpr());
+                Long rhs = foldConstant(((BinaryExpressionNode) expression).rhsExpr());
+                if (lhs == null || rhs == null) {
+                    return null;
+                }
+                switch (((BinaryExpressionNode) expression).operator().kind()) {
+                    case PLUS_TOKEN:
+                        return Math.addExact(lhs, rhs);
+                    case MINUS_TOKEN:
+                        return Math.subtractExact(lhs, rhs);
+                    case ASTERISK_TOKEN:
+                        return Math.multiplyExact(lhs, rhs);
+                    default:
+                        return null;
+                }
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Builds the string functions, which have an SQL equivalent. The pattern matching functions are translated to
+     * `LIKE` predicates, whose wildcard characters in the pattern are escaped by the SQL query.
+     *
+     * @param expressionNode    the method call or the function call of the `lang.string` module
+     * @param expressionVisitor the expression visitor
+     */
+    private void buildStringFunctionExecutors(ExpressionNode expressionNode, ExpressionVisitor expressionVisitor)
+            throws NotSupportedExpressionException {
+        String columnExpression = getColumnExpression(expressionNode);
+        if (columnExpression != null) {
+            expressionVisitor.beginVisitStoreVariable(columnExpression);
+            expressionVisitor.endVisitStoreVariable(columnExpression);
+            return;
+        }
+
+        String functionName = getStringFunctionName(expressionNode);
+        List<ExpressionNode> operands = getStringFunctionOperands(expressionNode);
+        if (functionName == null || operands == null || operands.size() != 2 ||
+                !isParameter(operands.get(1))) {
+            throw new NotSupportedExpressionException("Unsupported function call in where clause");
+        }
+        String operandExpression = getColumnExpression(operands.get(0));
+        if (operandExpression == null) {
+            throw new NotSupportedExpressionException("Unsupported function call in where clause");
+        }
+        boolean isPrefixWildcard;
+        boolean isSuffixWildcard;
+        switch (functionName) {
+            case STARTS_WITH_FUNCTION:
+                isPrefixWildcard = false;
+                isSuffixWildcard = true;
+                break;
+            case ENDS_WITH_FUNCTION:
+                isPrefixWildcard = true;
+                isSuffixWildcard = false;
+                break;
+            case INCLUDES_FUNCTION:
+                isPrefixWildcard = true;
+                isSuffixWildcard = true;
+                break;
+            default:
+                throw new NotSupportedExpressionException("Unsupported function call in where clause");
+        }
+        expressionVisitor.beginVisitStoreVariable(operandExpression);
+        expressionVisitor.endVisitStoreVariable(operandExpression);
+        expressionVisitor.beginVisitLike(isPrefixWildcard);
+        buildVariableExecutors(operands.get(1), expressionVisitor);
+        expressionVisitor.endVisitLike(isSuffixWildcard);
+    }
+
+    /**
+     * Returns the SQL expression of a field, to which the `lang.string` functions with an SQL equivalent
+     * may be applied (e.g. `e.name.toLowerCase()` is `LOWER(name)`).
+     *
+     * @param expression the field or the function call
+     * @return the SQL expression or `null` if the expression does not have an SQL equivalent
+     */
+    private String getColumnExpression(ExpressionNode expression) {
+        String columnName = getOperandColumnName(expression);
+        if (columnName != null) {
+            return columnName;
+        }
+        String functionName = getStringFunctionName(expression);
+        List<ExpressionNode> operands = getStringFunctionOperands(expression);
+        if (functionName == null || operands == null || operands.size() != 1) {
+            return null;
+        }
+        String operandExpression = getColumnExpression(operands.get(0));
+        if (operandExpression == null) {
+            return null;
+        }
+        switch (functionName) {
+            case TO_LOWER_CASE_FUNCTION:
+                return LOWER + "(" + operandExpression + ")";
+            case TO_UPPER_CASE_FUNCTION:
+                return UPPER + "(" + operandExpression + ")";
+            case LENGTH_FUNCTION:
+                // The length of a string is the number of its code points, rather than the number of its bytes
+                return CHAR_LENGTH + "(" + operandExpression + ")";
+            default:
+                return null;
+        }
+    }
+
+    // `e.name.startsWith(prefix)` and `string:startsWith(e.name, prefix)` are handled alike
+    private static String getStringFunctionName(ExpressionNode expression) {
+        if (expression instanceof MethodCallExpressionNode) {
+            NameReferenceNode methodName = ((MethodCallExpressionNode) expression).methodName();
+            return methodName instanceof SimpleNameReferenceNode ?
+                    ((SimpleNameReferenceNode) methodName).name().text() : null;
+        } else if (expression instanceof FunctionCallExpressionNode) {
+            NameReferenceNode functionName = ((FunctionCallExpressionNode) expression).functionName();
+            if (functionName instanceof QualifiedNameReferenceNode &&
+                    ((QualifiedNameReferenceNode) functionName).modulePrefix().text().equals(STRING_MODULE_PREFIX)) {
+                return ((QualifiedNameReferenceNode) functionName).identifier().text();
+            }
+        }
+        return null;
+    }
+
+    private static List<ExpressionNode> getStringFunctionOperands(ExpressionNode expression) {
+        List<ExpressionNode> operands = new ArrayList<>();
+        SeparatedNodeList<FunctionArgumentNode> arguments;
+        if (expression instanceof MethodCallExpressionNode) {
+            operands.add(((MethodCallExpressionNode) expression).expression());
+            arguments = ((MethodCallExpressionNode) expression).arguments();
+        } else if (expression instanceof FunctionCallExpressionNode) {
+            arguments = ((FunctionCallExpressionNode) expression).arguments();
+        } else {
+            return null;
+        }
+        for (FunctionArgumentNode argument : arguments) {
+            if (!(argument instanceof PositionalArgumentNode)) {
+                return null;
+            }
+            operands.add(((PositionalArgumentNode) argument).expression());
+        }
+        return operands;
+    }
+
+    /**
+     * Returns the field compared by the disjuncts of an expression (i.e. the operands of the top-level `||`
+     * operators), if all of them compare the same field with a value using `==`.
+     *
+     * @param expression the disjunction
+     * @param values     the list to which the values compared with the field are added
+     * @return the column name or `null` if the expression is not a disjunction of equalities of the same field
+     */
+    private String getEqualityDisjunctColumn(ExpressionNode expression, List<ExpressionNode> values) {
+        ExpressionNode innerExpression = expression;
+        if (expression instanceof BracedExpressionNode) {
+            innerExpression = ((BracedExpressionNode) expression).expression();
+        }
+        if (!(innerExpression instanceof BinaryExpressionNode)) {
+            return null;
+        }
+        BinaryExpressionNode binaryExpression = (BinaryExpressionNode) innerExpression;
+        if (binaryExpression.operator().kind() == SyntaxKind.LOGICAL_OR_TOKEN) {
+            String lhsColumn = getEqualityDisjunctColumn(binaryExpression.lhsExpr(), values);
+            String rhsColumn = getEqualityDisjunctColumn(binaryExpression.rhsExpr(), values);
+            return lhsColumn != null && lhsColumn.equals(rhsColumn) ? lhsColumn : null;
+        } else if (binaryExpression.operator().kind() != SyntaxKind.DOUBLE_EQUAL_TOKEN) {
+            return null;
+        }
+        String lhsColumn = getOperandColumnName(binaryExpression.lhsExpr());
+        String rhsColumn = getOperandColumnName(binaryExpression.rhsExpr());
+        if (lhsColumn != null && isParameter(binaryExpression.rhsExpr())) {
+            values.add(binaryExpression.rhsExpr());
+            return lhsColumn;
+        } else if (rhsColumn != null && isParameter(binaryExpression.lhsExpr())) {
+            values.add(binaryExpression.lhsExpr());
+            return rhsColumn;
+        }
+        return null;
+    }
+
+    private boolean isMembershipTest(Node indexOfCall, Node nilLiteral) {
+        if (!isNilLiteral(nilLiteral) || !(indexOfCall instanceof MethodCallExpressionNode)) {
+            return false;
+        }
+        MethodCallExpressionNode methodCall = (MethodCallExpressionNode) indexOfCall;
+        return methodCall.methodName().toSourceCode().trim().equals(INDEX_OF_FUNCTION) &&
+                methodCall.expression() instanceof SimpleNameReferenceNode && isParameter(methodCall.expression()) &&
+                (arrayVariables == null || arrayVariables.contains(
+                        ((SimpleNameReferenceNode) methodCall.expression()).name().text())) &&
+                methodCall.arguments().size() == 1 &&
+                methodCall.arguments().get(0) instanceof PositionalArgumentNode &&
+                getOperandColumnName(((PositionalArgumentNode) methodCall.arguments().get(0)).expression()) != null;
+    }
+
+    private String getOperandColumnName(ExpressionNode operand) {
+        if (operand instanceof FieldAccessExpressionNode || operand instanceof OptionalFieldAccessExpressionNode) {
+            return getColumnName(operand);
+        } else if (operand instanceof SimpleNameReferenceNode && !this.isCaptureBindingPattern) {
+            String referencedName = ((SimpleNameReferenceNode) operand).name().text();
+            return boundFields.containsKey(referencedName) ? unescape(boundFields.get(referencedName)) : null;
+        }
+        return null;
+    }
+
+    // The literals and the variables, which are not bound by the query, are passed as parameters
+    private boolean isParameter(ExpressionNode operand) {
+        if (operand instanceof BasicLiteralNode) {
+            return !isNilLiteral(operand);
+        } else if (operand instanceof SimpleNameReferenceNode) {
+            String referencedName = ((SimpleNameReferenceNode) operand).name().text();
+            return this.isCaptureBindingPattern ? !bindingVariableName.equals(referencedName) :
+                    !boundFields.containsKey(referencedName);
+        }
+        return false;
+    }
+
+    private static boolean isNilLiteral(Node node) {
+        return node.kind() == SyntaxKind.NIL_LITERAL || node.kind() == SyntaxKind.NULL_LITERAL;
+    }
+
+    private static String unescape(String name) {
+        return name.startsWith(BAL_ESCAPE_TOKEN) ? name.substring(1) : name;
+    }
+
+    /**
+     * Splits an expression into its top-level conjuncts (i.e. the operands of the top-level `&&` operators).
+     * The operands of `&&` operators within braces are also split, as the braces do not change their meaning.
+     *
+     * @param expression the where clause expression
+     * @return the conjuncts of the expression
+     */
+    public static List<ExpressionNode> getConjuncts(ExpressionNode expression) {
+        List<ExpressionNode> conjuncts = new ArrayList<>();
+        addConjuncts(expression, conjuncts);
+        return conjuncts;
+    }
+
+    private static void addConjuncts(ExpressionNode expression, List<ExpressionNode> conjuncts) {
+        ExpressionNode innerExpression = expression;
+        if (expression instanceof BracedExpressionNode) {
+            innerExpression = ((BracedExpressionNode) expression).expression();
+        }
+        if (innerExpression instanceof BinaryExpressionNode &&
+                ((BinaryExpressionNode) innerExpression).operator().kind() == SyntaxKind.LOGICAL_AND_TOKEN) {
+            addConjuncts(((BinaryExpressionNode) innerExpression).lhsExpr(), conjuncts);
+            addConjuncts(((BinaryExpressionNode) innerExpression).rhsExpr(), conjuncts);
+        } else {
+            conjuncts.add(expression);
+        }
+    }
+
     private void buildVariableExecutors(ExpressionNode expressionNode, ExpressionVisitor expressionVisitor)
             throws NotSupportedExpressionException {
         try {
-            if (expressionNode instanceof BinaryExpressionNode) {
+            if (isArithmeticExpression(expressionNode)) {
+                buildArithmeticExecutors(expressionNode, expressionVisitor);
+            } else if (expressionNode instanceof BinaryExpressionNode) {
                 // Simple Compare
                 ChildNodeList expressionChildren = expressionNode.children();
                 SyntaxKind tokenKind = expressionChildren.get(1).kind();
@@ -85,6 +579,21 @@ public class ExpressionBuilder {
                     buildVariableExecutors((ExpressionNode) expressionChildren.get(2), expressionVisitor);
                     expressionVisitor.endVisitAndRightOperand();
                     expressionVisitor.endVisitAnd();
+                } else if (tokenKind == SyntaxKind.LOGICAL_OR_TOKEN &&
+                        getEqualityDisjunctColumn(expressionNode, new ArrayList<>()) != null) {
+                    // `e.status == "A" || e.status == "B"` is pushed down as `status IN ("A", "B")`
+                    List<ExpressionNode> values = new ArrayList<>();
+                    String columnName = getEqualityDisjunctColumn(expressionNode, values);
+                    expressionVisitor.beginVisitStoreVariable(columnName);
+                    expressionVisitor.endVisitStoreVariable(columnName);
+                    expressionVisitor.beginVisitIn();
+                    for (int i = 0; i < values.size(); i++) {
+                        if (i > 0) {
+                            expressionVisitor.visitInValueSeparator();
+                        }
+                        buildVariableExecutors(values.get(i), expressionVisitor);
+                    }
+                    expressionVisitor.endVisitIn();
                 } else if (tokenKind == SyntaxKind.LOGICAL_OR_TOKEN) {
                     expressionVisitor.beginVisitOr();
                     expressionVisitor.beginVisitOrLeftOperand();
@@ -94,6 +603,28 @@ public class ExpressionBuilder {
                     buildVariableExecutors((ExpressionNode) expressionChildren.get(2), expressionVisitor);
                     expressionVisitor.endVisitOrRightOperand();
                     expressionVisitor.endVisitOr();
+                } else if (tokenKind == SyntaxKind.NOT_EQUAL_TOKEN &&
+                        (isMembershipTest(expressionChildren.get(0), expressionChildren.get(2)) ||
+                                isMembershipTest(expressionChildren.get(2), expressionChildren.get(0)))) {
+                    // `ids.indexOf(e.id) != ()` is pushed down as `id IN (${ids})`. The array is expanded at runtime
+                    MethodCallExpressionNode indexOfCall = (MethodCallExpressionNode)
+                            (expressionChildren.get(0) instanceof MethodCallExpressionNode ?
+                                    expressionChildren.get(0) : expressionChildren.get(2));
+                    String columnName = getOperandColumnName(
+                            ((PositionalArgumentNode) indexOfCall.arguments().get(0)).expression());
+                    expressionVisitor.beginVisitStoreVariable(columnName);
+                    expressionVisitor.endVisitStoreVariable(columnName);
+                    expressionVisitor.beginVisitIn();
+                    buildVariableExecutors(indexOfCall.expression(), expressionVisitor);
+                    expressionVisitor.endVisitIn();
+                } else if ((tokenKind == SyntaxKind.DOUBLE_EQUAL_TOKEN || tokenKind == SyntaxKind.NOT_EQUAL_TOKEN) &&
+                        (isNilLiteral(expressionChildren.get(0)) || isNilLiteral(expressionChildren.get(2)))) {
+                    // `= NULL` never matches, hence the nil comparisons are translated to `IS NULL` / `IS NOT NULL`
+                    ExpressionNode operand = (ExpressionNode) (isNilLiteral(expressionChildren.get(0)) ?
+                            expressionChildren.get(2) : expressionChildren.get(0));
+                    expressionVisitor.beginVisitNilCompare(tokenKind);
+                    buildVariableExecutors(operand, expressionVisitor);
+                    expressionVisitor.endVisitNilCompare(tokenKind);
                 } else {
                     expressionVisitor.beginVisitCompare(tokenKind);
                     expressionVisitor.beginVisitCompareLeftOperand(tokenKind);
@@ -108,18 +639,14 @@ public class ExpressionBuilder {
                 expressionVisitor.beginVisitBraces();
                 buildVariableExecutors(((BracedExpressionNode) expressionNode).expression(), expressionVisitor);
                 expressionVisitor.endVisitBraces();
-            } else if (expressionNode instanceof FieldAccessExpressionNode) {
-                // Bracketed Multi Expression
-                String fieldAccessName = ((SimpleNameReferenceNode) expressionNode.children().get(0)).name().text();
-                if (this.isCaptureBindingPattern &&
-                        bindingVariableName.equals(fieldAccessName)) {
-                    expressionVisitor.beginVisitStoreVariable(
-                            ((SimpleNameReferenceNode) expressionNode.children().get(2)).name().text());
-                    expressionVisitor.endVisitStoreVariable(
-                            ((SimpleNameReferenceNode) expressionNode.children().get(2)).name().text());
-                } else {
+            } else if (expressionNode instanceof FieldAccessExpressionNode ||
+                    expressionNode instanceof OptionalFieldAccessExpressionNode) {
+                String columnName = getColumnName(expressionNode);
+                if (columnName == null) {
                     throw new NotSupportedExpressionException("Unsupported field access in where clause");
                 }
+                expressionVisitor.beginVisitStoreVariable(columnName);
+                expressionVisitor.endVisitStoreVariable(columnName);
             } else if (expressionNode instanceof SimpleNameReferenceNode) {
                 String referencedName = ((SimpleNameReferenceNode) expressionNode).name().text();
                 if (this.isCaptureBindingPattern) {
@@ -127,15 +654,19 @@ public class ExpressionBuilder {
                     expressionVisitor.endVisitBalVariable(referencedName);
                 } else {
                     // Mapping constructor
-                    if (fieldNames.contains(referencedName)) {
-                        expressionVisitor.beginVisitStoreVariable(referencedName);
-                        expressionVisitor.endVisitStoreVariable(referencedName);
+                    if (boundFields.containsKey(referencedName)) {
+                        String fieldName = boundFields.get(referencedName);
+                        expressionVisitor.beginVisitStoreVariable(fieldName);
+                        expressionVisitor.endVisitStoreVariable(fieldName);
                     } else {
                         // todo Here wrong reference name cannot be identified as error
                         expressionVisitor.beginVisitBalVariable(referencedName);
                         expressionVisitor.endVisitBalVariable(referencedName);
                     }
                 }
+            } else if (expressionNode instanceof MethodCallExpressionNode ||
+                    expressionNode instanceof FunctionCallExpressionNode) {
+                buildStringFunctionExecutors(expressionNode, expressionVisitor);
             } else if (expressionNode instanceof BasicLiteralNode) {
                 LiteralValueToken literalValueToken = (LiteralValueToken) expressionNode.children().get(0);
                 expressionVisitor.beginVisitConstant(literalValueToken.text(), literalValueToken.kind());
@@ -20,6 +20,7 @@ package io.ballerina.stdlib.persist.compiler.expression;
 import io.ballerina.compiler.syntax.tree.ExpressionNode;
 import io.ballerina.compiler.syntax.tree.Node;
 import io.ballerina.compiler.syntax.tree.NodeFactory;
+import io.ballerina.compiler.syntax.tree.NodeParser;
 import io.ballerina.compiler.syntax.tree.SyntaxKind;
 import io.ballerina.stdlib.persist.compiler.NotSupportedExpressionException;
 import io.ballerina.stdlib.persist.compiler.Utils;
@@ -33,6 +34,10 @@ import static io.ballerina.stdlib.persist.compiler.Constants.CLOSE_BRACES;
 import static io.ballerina.stdlib.persist.compiler.Constants.OPEN_BRACES;
 import static io.ballerina.stdlib.persist.compiler.Constants.SPACE;
 import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.AND;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.IN;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.IS_NOT_NULL;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.IS_NULL;
+import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.LIKE;
 import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.NOT_EQUAL_TOKEN;
 import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.OR;
 import static io.ballerina.stdlib.persist.compiler.Constants.SQLKeyWords.WHERE;
@@ -108,12 +113,10 @@ public class ExpressionVisitor {
             case GT_EQUAL_TOKEN:
             case LT_TOKEN:
             case LT_EQUAL_TOKEN:
-            case PERCENT_TOKEN:
             case DOUBLE_EQUAL_TOKEN:
             case NOT_EQUAL_TOKEN:
                 break;
             default:
-                // todo Need to verify if +,-,/,* is an LHS/RHS. Not supported only if it is the entire operation
                 throw new NotSupportedExpressionException(operator.stringValue() + " not supported!");
         }
     }
@@ -132,7 +135,6 @@ public class ExpressionVisitor {
             case GT_EQUAL_TOKEN:
             case LT_TOKEN:
             case LT_EQUAL_TOKEN:
-            case PERCENT_TOKEN:
                 this.expression.append(operator.stringValue()).append(SPACE);
                 break;
             case DOUBLE_EQUAL_TOKEN:
@@ -154,6 +156,60 @@ public class ExpressionVisitor {
 
     }
 
+    void beginVisitNilCompare(SyntaxKind operator) {
+
+    }
+
+    void endVisitNilCompare(SyntaxKind operator) {
+        this.expression.append(operator == SyntaxKind.DOUBLE_EQUAL_TOKEN ? IS_NULL : IS_NOT_NULL).append(SPACE);
+    }
+
+    /*In*/
+    void beginVisitIn() {
+        this.expression.append(IN).append(SPACE).append(OPEN_BRACES);
+    }
+
+    void visitInValueSeparator() {
+        this.expression.append(",").append(SPACE);
+    }
+
+    void endVisitIn() {
+        this.expression.append(CLOSE_BRACES);
+    }
+
+    /*Arithmetic*/
+    void visitArithmeticOperator(SyntaxKind operator) {
+        if (this.expression.charAt(this.expression.length() - 1) != ' ') {
+            this.expression.append(SPACE);
+        }
+        this.expression.append(operator.stringValue()).append(SPACE);
+    }
+
+    void visitArithmeticConstant(String value) {
+        this.expression.append(value).append(SPACE);
+    }
+
+    /*Like*/
+    void beginVisitLike(boolean isPrefixWildcard) {
+        this.expression.append(LIKE).append(" CONCAT(");
+        if (isPrefixWildcard) {
+            this.expression.append("'%', ");
+        }
+        // The wildcard characters and the escape character of the pattern are escaped. An explicit escape character,
+        // which is not a backslash, is used so that the pattern does not depend on the `NO_BACKSLASH_ESCAPES` mode.
+        // `LIKE` compares the values using the collation of the column, which is usually case-insensitive, unlike
+        // the Ballerina string functions, hence the results may include values that differ only in their case.
+        this.expression.append("REPLACE(REPLACE(REPLACE(");
+    }
+
+    void endVisitLike(boolean isSuffixWildcard) {
+        this.expression.append(", '!', '!!'), '%', '!%'), '_', '!_')");
+        if (isSuffixWildcard) {
+            this.expression.append(", '%'");
+        }
+        this.expression.append(CLOSE_BRACES).append(" ESCAPE '!'");
+    }
+
     public void beginVisitBraces() {
         this.expression.append(OPEN_BRACES);
     }
@@ -202,4 +258,16 @@ public class ExpressionVisitor {
 
     }
 
+    void beginVisitBalExpression(ExpressionNode expressionNode) {
+        whereExpressionNodes.add(Utils.getStringLiteralToken(this.expression.toString()));
+        whereExpressionNodes.add(NodeFactory.createInterpolationNode(INTERPOLATION_START_TOKEN,
+                NodeParser.parseExpression(expressionNode.toSourceCode().trim()), INTERPOLATION_END_TOKEN));
+        this.expression.setLength(0);
+        this.expression.append(SPACE);
+    }
+
+    void endVisitBalExpression(ExpressionNode expressionNode) {
+
+    }
+
 }
@@ -0,0 +1,92 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Module;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BTypedesc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput and the per-call allocation of {@link Utils#convertToArray(BTypedesc, BArray)}.
+ * Run with `./gradlew :persist-native:jmh` (the `gc` profiler reports the allocation rate per operation).
+ *
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConvertToArrayBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int recordCount;
+
+    private BTypedesc recordTypedesc;
+    private BArray records;
+
+    @Setup
+    public void setup() {
+        Module module = new Module("persist_benchmark", "entities", "1.0.0");
+        RecordType recordType = TypeCreator.createRecordType("Employee", module, 0, true, 0);
+        recordTypedesc = ValueCreator.createTypedescValue(recordType);
+
+        records = ValueCreator.createArrayValue(TypeCreator.createArrayType(recordType));
+        for (int i = 0; i < recordCount; i++) {
+            records.append(ValueCreator.createMapValue(recordType));
+        }
+    }
+
+    @Benchmark
+    public BArray convertToArray() {
+        return Utils.convertToArray(recordTypedesc, records);
+    }
+
+    @Benchmark
+    public BArray convertToArrayWithoutCaching() {
+        // The implementation prior to caching the array type and presizing the returned array
+        ArrayType arrayType = TypeCreator.createArrayType(recordTypedesc.getDescribingType());
+        BArray returnArray = ValueCreator.createArrayValue(arrayType);
+        for (Object element : records.getValues()) {
+            if (element == null) {
+                break;
+            }
+            returnArray.append(element);
+        }
+        return returnArray;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Module;
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.flags.SymbolFlags;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.Field;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the rows retrieved from the database to values of an entity record type. The field descriptors of the
+ * record type are resolved once and reused for every row.
+ *
+ * @since 1.0.0
+ */
+class RecordMapper {
+
+    private final Module module;
+    private final String recordName;
+    private final ArrayType arrayType;
+    private final String[] fieldNames;
+    private final BString[] fieldKeys;
+    private final Type[] fieldTypes;
+    private final boolean[] requiredFields;
+
+    RecordMapper(Type describingType) {
+        RecordType recordType = (RecordType) TypeUtils.getReferredType(describingType);
+        this.module = recordType.getPackage();
+        this.recordName = recordType.getName();
+        this.arrayType = Utils.getArrayType(describingType);
+
+        Map<String, Field> fields = recordType.getFields();
+        this.fieldNames = new String[fields.size()];
+        this.fieldKeys = new BString[fields.size()];
+        this.fieldTypes = new Type[fields.size()];
+        this.requiredFields = new boolean[fields.size()];
+        int index = 0;
+        for (Field field : fields.values()) {
+            this.fieldNames[index] = field.getFieldName();
+            this.fieldKeys[index] = StringUtils.fromString(field.getFieldName());
+            this.fieldTypes[index] = TypeUtils.getReferredType(field.getFieldType());
+            this.requiredFields[index] = !SymbolFlags.isFlagOn(field.getFlags(), SymbolFlags.OPTIONAL);
+            index++;
+        }
+    }
+
+    ArrayType getArrayType() {
+        return arrayType;
+    }
+
+    String getRecordName() {
+        return recordName;
+    }
+
+    /**
+     * Creates a record value from a row.
+     *
+     * @param row the row retrieved from the database
+     * @return the record value, or null if a required field is missing in the row or a value of the row cannot be
+     * directly assigned to its field
+     */
+    BMap<BString, Object> map(BMap<BString, Object> row) {
+        Map<String, Object> values = new HashMap<>(fieldNames.length);
+        for (int i = 0; i < fieldNames.length; i++) {
+            if (!row.containsKey(fieldKeys[i])) {
+                if (requiredFields[i]) {
+                    return null;
+                }
+                continue;
+            }
+            Object value = row.get(fieldKeys[i]);
+            if (!isDirectlyAssignable(fieldTypes[i], value)) {
+                return null;
+            }
+            values.put(fieldNames[i], value);
+        }
+        return ValueCreator.createRecordValue(module, recordName, values);
+    }
+
+    private static boolean isDirectlyAssignable(Type fieldType, Object value) {
+        if (value == null) {
+            return fieldType.isNilable();
+        }
+        if (fieldType.getTag() == TypeTags.UNION_TAG) {
+            for (Type memberType : ((UnionType) fieldType).getMemberTypes()) {
+                if (isDirectlyAssignable(TypeUtils.getReferredType(memberType), value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int valueTypeTag = TypeUtils.getType(value).getTag();
+        switch (fieldType.getTag()) {
+            case TypeTags.INT_TAG:
+            case TypeTags.FLOAT_TAG:
+            case TypeTags.DECIMAL_TAG:
+            case TypeTags.STRING_TAG:
+            case TypeTags.BOOLEAN_TAG:
+                return valueTypeTag == fieldType.getTag();
+            default:
+                // Other values (e.g. time records) are converted by `cloneWithType` in the Ballerina side
+                return false;
+        }
+    }
+}
@@ -18,30 +18,169 @@
 
 package io.ballerina.stdlib.persist;
 
+import io.ballerina.runtime.api.creators.ErrorCreator;
 import io.ballerina.runtime.api.creators.TypeCreator;
 import io.ballerina.runtime.api.creators.ValueCreator;
 import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
 import io.ballerina.runtime.api.values.BTypedesc;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * This class has the utility methods.
  *
  * @since 1.0.0
  */
 public class Utils {
+
+    private static final Map<Type, ArrayType> ARRAY_TYPES = new ConcurrentHashMap<>();
+    private static final Map<Type, RecordMapper> RECORD_MAPPERS = new ConcurrentHashMap<>();
+
     private Utils() {
     }
 
+    /**
+     * Converts an array of records to an array of the given record type.
+     *
+     * @param recordType the record type of the elements of the returned array
+     * @param arr        the array of records
+     * @return the array of the given record type
+     */
     public static BArray convertToArray(BTypedesc recordType, BArray arr) {
-        ArrayType array = TypeCreator.createArrayType(recordType.getDescribingType());
-        BArray returnArray = ValueCreator.createArrayValue(array);
-        for (Object element: arr.getValues()) {
-            if (element == null) {
-                break;
+        Object[] values = Arrays.copyOf(arr.getValues(), arr.size());
+        return ValueCreator.createArrayValue(values, getArrayType(recordType.getDescribingType()));
+    }
+
+    /**
+     * Maps the rows retrieved from the database to an array of the given record type in a single pass.
+     *
+     * @param recordType the record type of the elements of the returned array
+     * @param rows       the rows retrieved from the database
+     * @return the array of records, or an error if a value cannot be directly assigned to its field
+     */
+    @SuppressWarnings("unchecked")
+    public static Object convertToRecordArray(BTypedesc recordType, BArray rows) {
+        RecordMapper recordMapper = RECORD_MAPPERS.computeIfAbsent(recordType.getDescribingType(),
+                RecordMapper::new);
+        Object[] records = new Object[rows.size()];
+        for (int i = 0; i < records.length; i++) {
+            BMap<BString, Object> record = recordMapper.map((BMap<BString, Object>) rows.getRefValue(i));
+            if (record == null) {
+                return ErrorCreator.createError(StringUtils.fromString(
+                        "Unable to directly map the retrieved values to '" + recordMapper.getRecordName() + "'."));
+            }
+            records[i] = record;
+        }
+        return ValueCreator.createArrayValue(records, recordMapper.getArrayType());
+    }
+
+    /**
+     * Resolves the columns and values of the SQL `SET` clauses of an update in a single pass over the record.
+     * The nested records of the relations are walked in place instead of being flattened into intermediate records.
+     *
+     * @param record        the record to be updated
+     * @param original      the original record, whose unchanged values are skipped, or nil
+     * @param updateColumns the column of each field, or the columns of the fields of each relation
+     * @param columnNames   the array to which the names of the columns to be updated are appended
+     * @param values        the array to which the values of the columns to be updated are appended
+     * @return the path of a field, which does not exist in the entity, or nil
+     */
+    @SuppressWarnings("unchecked")
+    public static Object getUpdateColumns(BMap<BString, Object> record, Object original,
+                                          BMap<BString, Object> updateColumns, BArray columnNames, BArray values) {
+        BMap<BString, Object> originalRecord = original instanceof BMap ? (BMap<BString, Object>) original : null;
+        for (Map.Entry<BString, Object> field : record.entrySet()) {
+            BString fieldName = field.getKey();
+            if (!updateColumns.containsKey(fieldName)) {
+                return fieldName;
+            }
+
+            Object column = updateColumns.get(fieldName);
+            Object originalValue = originalRecord == null ? null : originalRecord.get(fieldName);
+            if (column instanceof BMap && field.getValue() instanceof BMap) {
+                BMap<BString, Object> relationColumns = (BMap<BString, Object>) column;
+                BMap<BString, Object> relationRecord = (BMap<BString, Object>) field.getValue();
+                BMap<BString, Object> originalRelationRecord = null;
+                if (originalValue instanceof BMap) {
+                    originalRelationRecord = (BMap<BString, Object>) originalValue;
+                }
+                for (Map.Entry<BString, Object> relationField : relationRecord.entrySet()) {
+                    if (!relationColumns.containsKey(relationField.getKey())) {
+                        return StringUtils.fromString(fieldName.getValue() + "." + relationField.getKey().getValue());
+                    }
+                    addUpdateColumn(relationColumns.get(relationField.getKey()), relationField.getValue(),
+                            originalRelationRecord, relationField.getKey(), columnNames, values);
+                }
+            } else if (column instanceof BMap && field.getValue() == null) {
+                if (originalRecord != null && originalRecord.containsKey(fieldName) && originalValue == null) {
+                    continue;
+                }
+                // Clearing a relation clears the columns, which refer to the related record
+                BMap<BString, Object> relationColumns = (BMap<BString, Object>) column;
+                for (Map.Entry<BString, Object> relationColumn : relationColumns.entrySet()) {
+                    addUpdateColumn(relationColumn.getValue(), null, null, relationColumn.getKey(), columnNames,
+                            values);
+                }
+            } else if (column instanceof BString) {
+                addUpdateColumn(column, field.getValue(), originalRecord, fieldName, columnNames, values);
+            }
+        }
+        return null;
+    }
+
+    private static void addUpdateColumn(Object column, Object value, BMap<BString, Object> originalRecord,
+                                        BString fieldName, BArray columnNames, BArray values) {
+        if (column == null) {
+            // The field is not stored in the table of the entity
+            return;
+        }
+        if (originalRecord != null && originalRecord.containsKey(fieldName)
+                && isUnchanged(originalRecord.get(fieldName), value)) {
+            return;
+        }
+        columnNames.append(column);
+        values.append(value);
+    }
+
+    private static boolean isUnchanged(Object originalValue, Object value) {
+        if (originalValue == value) {
+            return true;
+        }
+        if (originalValue == null || value == null) {
+            return false;
+        }
+        if (originalValue instanceof BDecimal && value instanceof BDecimal) {
+            return ((BDecimal) originalValue).decimalValue().compareTo(((BDecimal) value).decimalValue()) == 0;
+        }
+        if (originalValue instanceof BString && value instanceof BString) {
+            return ((BString) originalValue).getValue().equals(((BString) value).getValue());
+        }
+        if (originalValue instanceof BMap && value instanceof BMap) {
+            BMap<?, ?> originalMap = (BMap<?, ?>) originalValue;
+            BMap<?, ?> map = (BMap<?, ?>) value;
+            if (originalMap.size() != map.size()) {
+                return false;
             }
-            returnArray.append(element);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!originalMap.containsKey(entry.getKey())
+                        || !isUnchanged(originalMap.get(entry.getKey()), entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
         }
-        return returnArray;
+        return originalValue.equals(value);
+    }
+
+    static ArrayType getArrayType(Type elementType) {
+        return ARRAY_TYPES.computeIfAbsent(elementType, TypeCreator::createArrayType);
     }
 }